@@ -0,0 +1,76 @@
+package agd.benchmark;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.InstanceReader;
+import agd.data.input.ProblemInstance;
+import agd.data.input.WeightedPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the tokenizer of InstanceReader with the Scanner based reader, on files and on in-memory streams.
+ */
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class InstanceReaderBenchmark {
+    @Param({"10000", "1000000", "5000000"})
+    public int size;
+
+    // The generated instance in the text format, both in memory and on disk.
+    private byte[] bytes;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void writeInstance() throws IOException {
+        ProblemInstance instance = new InstanceGenerator(5, 0.3).generate(0, size, InstanceGenerator.Distribution.UNIFORM, 42);
+        List<WeightedPoint> points = instance.getPoints();
+
+        StringBuilder builder = new StringBuilder(24 * points.size());
+        builder.append(instance.id).append('\n');
+        builder.append(instance.min_x).append(' ').append(instance.max_x).append(' ');
+        builder.append(instance.min_y).append(' ').append(instance.max_y).append('\n');
+        builder.append(points.size()).append('\n');
+        for(WeightedPoint p : points) {
+            builder.append(String.format(Locale.ROOT, "%.3f %.3f %d%n", p.x, p.y, p.w));
+        }
+        bytes = builder.toString().getBytes(StandardCharsets.US_ASCII);
+
+        file = File.createTempFile("instance", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), bytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInstance() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Benchmark
+    public ProblemInstance mappedFile() throws IOException {
+        return InstanceReader.read(file);
+    }
+
+    @Benchmark
+    public ProblemInstance pooledStream() throws IOException {
+        return InstanceReader.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Benchmark
+    public ProblemInstance scanner() {
+        try(Scanner scanner = new Scanner(new ByteArrayInputStream(bytes), "US-ASCII")) {
+            return ProblemInstance.readInstance(scanner);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package agd.benchmark;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.InstanceReader;
+import agd.data.input.ProblemInstance;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The problem instance that is shared by all the iterations of a benchmark.
+ *
+ * Synthetic instances are generated with a fixed seed. Archived instances are read from the zip file given by the
+ * system property agd.archive, from which the instance with the point count closest to the requested size is used.
+ */
+@State(Scope.Benchmark)
+public class InstanceState {
+    /**
+     * The origin of the problem instances.
+     */
+    public enum Source {
+        UNIFORM, CLUSTERED, ARCHIVE
+    }
+
+    // The property that holds the path to the archive with instances.
+    private static final String ARCHIVE_PROPERTY = "agd.archive";
+
+    @Param({"10", "100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Source source;
+
+    // The instance that is solved in every invocation.
+    public ProblemInstance instance;
+
+    @Setup(Level.Trial)
+    public void loadInstance() throws IOException {
+        switch (source) {
+            case ARCHIVE:
+                instance = readClosest(System.getProperty(ARCHIVE_PROPERTY), size);
+                break;
+            case CLUSTERED:
+                instance = new InstanceGenerator(5, 0.3).generate(0, size, InstanceGenerator.Distribution.CLUSTERED, 42);
+                break;
+            case UNIFORM:
+            default:
+                instance = new InstanceGenerator(5, 0.3).generate(0, size, InstanceGenerator.Distribution.UNIFORM, 42);
+                break;
+        }
+    }
+
+    /**
+     * Read the instance of which the number of points is closest to the given size from the given archive.
+     *
+     * @param archive The path to the zip file holding the problem instances.
+     * @param size The desired number of points.
+     * @return The problem instance with the point count closest to the given size.
+     * @throws IOException If the archive cannot be read.
+     */
+    private static ProblemInstance readClosest(String archive, int size) throws IOException {
+        if(archive == null) {
+            throw new IllegalStateException("Set the " + ARCHIVE_PROPERTY + " property to benchmark archived instances.");
+        }
+
+        ProblemInstance best = null;
+        try(ZipFile zip = new ZipFile(new File(archive))) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while(entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if(!entry.getName().endsWith(".txt")) continue;
+
+                try(InputStream in = zip.getInputStream(entry)) {
+                    ProblemInstance instance = InstanceReader.read(in);
+                    if(best == null || Math.abs(instance.size() - size) < Math.abs(best.size() - size)) {
+                        best = instance;
+                    }
+                }
+            }
+        }
+
+        if(best == null) {
+            throw new IllegalStateException("The archive " + archive + " does not contain any instances.");
+        }
+        return best;
+    }
+}
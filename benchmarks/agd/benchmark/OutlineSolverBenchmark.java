@@ -0,0 +1,49 @@
+package agd.benchmark;
+
+import agd.data.output.HalfGridPoint;
+import agd.solver.AbstractSolver;
+import agd.solver.SolverConfig;
+import agd.solver.Solvers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the outline based solvers for every order in which the points can be inserted.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class OutlineSolverBenchmark {
+    @Param({"SimpleOutlines", "ComplexOutlines", "Outlines"})
+    public SolverConfig.SolverKind solver;
+
+    @Param({
+            "MANHATTAN_CENTROID", "CENTROID", "CORNER", "CLOSEST_POINT", "FURTHEST", "NONE", "SIZE_ASC",
+            "SIZE_DESC", "X", "Y", "ROTATION", "MAX_BASED", "MIN_BASED"
+    })
+    public AbstractSolver.SortingOptions sorting;
+
+    @Param({"false", "true"})
+    public boolean broadphase;
+
+    // The configuration the solver is created with.
+    private SolverConfig config;
+
+    @Setup(Level.Trial)
+    public void createConfig() {
+        config = SolverConfig.DEFAULT.withKind(solver).withSorting(sorting).withBroadphase(broadphase)
+                .withValidation(false);
+    }
+
+    @Benchmark
+    public ArrayList<HalfGridPoint> solve(InstanceState state) {
+        ArrayList<HalfGridPoint> points = new ArrayList<>();
+        Solvers.create(config).solve(state.instance, points);
+        return points;
+    }
+}
@@ -0,0 +1,75 @@
+package agd.benchmark;
+
+import agd.data.input.WeightedPoint;
+import agd.data.outlines.OutlineRectangle;
+import agd.data.output.HalfGridPoint;
+import agd.data.util.SpatialIndex;
+import agd.solver.AbstractSolver;
+import agd.solver.SolverConfig;
+import agd.solver.Solvers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the quad tree with the uniform grid, both on their own and within the outline based solvers.
+ *
+ * The instance sources of InstanceState cover both uniformly distributed and clustered points.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class SpatialIndexBenchmark {
+    @Param({"QuadTree", "Grid"})
+    public SolverConfig.IndexType index;
+
+    @Param({"SimpleOutlines", "ComplexOutlines", "Outlines"})
+    public SolverConfig.SolverKind solver;
+
+    // The configuration the solver is created with.
+    private SolverConfig config;
+
+    // The squares of the points at their preferred positions, which may overlap.
+    private List<OutlineRectangle> rectangles;
+
+    @Setup(Level.Trial)
+    public void setup(InstanceState state) {
+        config = SolverConfig.DEFAULT.withKind(solver).withIndex(index).withValidation(false);
+
+        rectangles = new ArrayList<>();
+        for(WeightedPoint p : state.instance.getPoints()) {
+            rectangles.add(new OutlineRectangle(
+                    (int) Math.round(p.c.x - 0.5 * p.w), (int) Math.round(p.c.y - 0.5 * p.w), p.w, p, false
+            ));
+        }
+    }
+
+    @Benchmark
+    public ArrayList<HalfGridPoint> solve(InstanceState state) {
+        ArrayList<HalfGridPoint> points = new ArrayList<>();
+        Solvers.create(config).solve(state.instance, points);
+        return points;
+    }
+
+    /**
+     * Insert all the squares, querying for overlap before each insertion like the solvers do.
+     */
+    @Benchmark
+    public int insertAndQuery(InstanceState state) {
+        SpatialIndex<OutlineRectangle> tree = AbstractSolver.initializeSpatialIndex(state.instance, config);
+
+        int overlapping = 0;
+        for(OutlineRectangle r : rectangles) {
+            if(tree.anyIntersecting(r)) {
+                overlapping++;
+            }
+            tree.insert(r);
+        }
+        return overlapping;
+    }
+}
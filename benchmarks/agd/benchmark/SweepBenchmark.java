@@ -0,0 +1,38 @@
+package agd.benchmark;
+
+import agd.data.output.HalfGridPoint;
+import agd.solver.SolverConfig;
+import agd.solver.Solvers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the sweep line solvers, which do not depend on the order of the points.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class SweepBenchmark {
+    @Param({"SimpleSweep", "DualSweep", "BestSweep"})
+    public SolverConfig.SolverKind solver;
+
+    // The configuration the solver is created with.
+    private SolverConfig config;
+
+    @Setup(Level.Trial)
+    public void createConfig() {
+        config = SolverConfig.DEFAULT.withKind(solver).withValidation(false);
+    }
+
+    @Benchmark
+    public ArrayList<HalfGridPoint> solve(InstanceState state) {
+        ArrayList<HalfGridPoint> points = new ArrayList<>();
+        Solvers.create(config).solve(state.instance, points);
+        return points;
+    }
+}
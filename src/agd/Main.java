@@ -1,17 +1,103 @@
 package agd;
 
 import agd.core.Core;
-import agd.data.input.WeightedPoint;
-import agd.data.util.EntryRectangle;
-import agd.data.util.QuadTreeNode;
+import agd.file.BatchRunner;
+import agd.solver.AbstractSolver;
+import agd.solver.SolverConfig;
+import agd.solver.Solvers;
 
 import javax.swing.*;
-import java.awt.*;
-import java.util.HashSet;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 public class Main {
+    // The time for which every solution is improved by the local search when the improve flag is given.
+    private static final Duration IMPROVEMENT_TIME = Duration.ofSeconds(1);
+
     public static void main(String[] args) {
-        // The application starts when initializing the engine.
-        SwingUtilities.invokeLater(Core::getCore);
+        if(args.length >= 2) {
+            // Solve a zip archive without starting the GUI.
+            runBatch(args);
+        } else {
+            // The application starts when initializing the engine.
+            SwingUtilities.invokeLater(Core::getCore);
+        }
+    }
+
+    /**
+     * Solve all the instances in a zip archive headless.
+     *
+     * Usage: input.zip output-folder [threads] [solver] [sorting] [virtual] [components] [broadphase] [portfolio] [improve] [validate].
+     *
+     * @param args The command line arguments.
+     */
+    private static void runBatch(String[] args) {
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        SolverConfig config = getBatchConfig(args);
+        boolean virtualThreads = hasFlag(args, "virtual");
+
+        if(!output.exists() && !output.mkdirs()) {
+            System.out.println("Could not create the output folder " + output + ".");
+            return;
+        }
+
+        ExecutorService executor = BatchRunner.createExecutor(threads, virtualThreads);
+        try {
+            BatchRunner runner = new BatchRunner(() -> Solvers.create(config), executor);
+            runner.run(input, output, new File(output, "data.csv"));
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Get the solver configuration described by the command line arguments.
+     *
+     * @param args The command line arguments.
+     * @return The configuration to solve the instances with, which only validates a sample when asked to.
+     */
+    private static SolverConfig getBatchConfig(String[] args) {
+        SolverConfig config = SolverConfig.DEFAULT.withValidation(false);
+
+        if(args.length > 3) {
+            config = config.withKind(SolverConfig.SolverKind.valueOf(args[3]));
+        }
+        if(args.length > 4) {
+            config = config.withSorting(AbstractSolver.SortingOptions.valueOf(args[4]));
+        }
+        if(hasFlag(args, "components")) {
+            config = config.withComponents(true, config.componentMargin);
+        }
+        if(hasFlag(args, "broadphase")) {
+            config = config.withBroadphase(true);
+        }
+        if(hasFlag(args, "portfolio")) {
+            config = config.withPortfolio(true);
+        }
+        if(hasFlag(args, "improve")) {
+            config = config.withImprovement(IMPROVEMENT_TIME);
+        }
+        if(hasFlag(args, "validate")) {
+            config = config.withValidation(SolverConfig.Validation.Sampled);
+        }
+        return config;
+    }
+
+    /**
+     * Check whether the given flag occurs among the optional arguments that follow the sorting option.
+     *
+     * @param args The command line arguments.
+     * @param flag The flag to look for.
+     * @return True if the flag is given.
+     */
+    private static boolean hasFlag(String[] args, String flag) {
+        return Arrays.asList(args).subList(Math.min(5, args.length), args.length).contains(flag);
     }
 }
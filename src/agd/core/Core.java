@@ -36,24 +36,9 @@ public class Core {
     public void solveProblemInstance(ProblemInstance instance) {
         this.instance = instance;
 
-        GUI.SolverOptions option = (GUI.SolverOptions) gui.solverSelector.getSelectedItem();
-
-        if(option == GUI.SolverOptions.SimpleSweep) {
-            System.out.println("Solver: SimpleSweep solving " + instance.id);
-            this.solution = new ProblemSolution(instance, new SimpleSweep());
-        } else if (option == GUI.SolverOptions.DualSweep) {
-            System.out.println("Solver: DualSweep solving " + instance.id);
-            this.solution = new ProblemSolution(instance, new DualSweep());
-        } else if(option == GUI.SolverOptions.SimpleOutlines) {
-            System.out.println("Solver: SimpleOutline(" + gui.sortSelector.getSelectedItem() + ") solving " + instance.id);
-            this.solution = new ProblemSolution(instance, new SimpleOutlineMergeSolver());
-        } else if(option == GUI.SolverOptions.Outlines) {
-            System.out.println("Solver: Outline(" + gui.sortSelector.getSelectedItem() + ") solving " + instance.id);
-            this.solution = new ProblemSolution(instance, new OutlineMergeSolver());
-        } else {
-            System.out.println("Solver: ComplexOutline(" + gui.sortSelector.getSelectedItem() + ") solving " + instance.id);
-            this.solution = new ProblemSolution(instance, new ComplexOutlineMergeSolver());
-        }
+        SolverConfig config = gui.getSolverConfig();
+        System.out.println("Solver: " + config + " solving " + instance.id);
+        this.solution = Solvers.solve(instance, config);
 
         gui.redrawDisplayPanel();
         gui.setMinError();
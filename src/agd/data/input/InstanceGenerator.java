@@ -0,0 +1,95 @@
+package agd.data.input;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic problem instances, which are used to test and benchmark the solvers.
+ */
+public class InstanceGenerator {
+    /**
+     * The spatial distributions the generated points can follow.
+     */
+    public enum Distribution {
+        UNIFORM, CLUSTERED
+    }
+
+    // The number of points that are placed around a single cluster centre on average.
+    private static final int CLUSTER_SIZE = 1000;
+
+    // The maximum weight of the generated points.
+    private final int maxWeight;
+
+    // The fraction of the viewport the squares of the points would cover if they were placed without overlap.
+    private final double density;
+
+    /**
+     * Create a generator that produces points with weights between one and the given maximum.
+     *
+     * @param maxWeight The maximum weight of the generated points.
+     * @param density The fraction of the viewport that would be covered by the squares of the points.
+     */
+    public InstanceGenerator(int maxWeight, double density) {
+        if(maxWeight < 1 || density <= 0) {
+            throw new IllegalArgumentException("The weight and density should both be positive.");
+        }
+
+        this.maxWeight = maxWeight;
+        this.density = density;
+    }
+
+    /**
+     * Generate a problem instance with the given number of points.
+     *
+     * @param id The id of the problem instance.
+     * @param n The number of points in the problem instance.
+     * @param distribution The spatial distribution of the points.
+     * @param seed The seed of the random number generator, such that the instances are reproducible.
+     * @return A problem instance with n points within a square viewport.
+     */
+    public ProblemInstance generate(int id, int n, Distribution distribution, long seed) {
+        Random random = new Random(seed);
+
+        // Choose the size of the viewport such that the squares cover the desired fraction of it.
+        double averageArea = (maxWeight + 1) * (2 * maxWeight + 1) / 6.0;
+        int size = Math.max(maxWeight, (int) Math.ceil(Math.sqrt(n * averageArea / density)));
+        ProblemInstance instance = new ProblemInstance(id, 0, size, 0, size);
+
+        // The cluster centres, which are only used in the clustered distribution.
+        int clusters = Math.max(1, n / CLUSTER_SIZE);
+        double[] cx = new double[clusters];
+        double[] cy = new double[clusters];
+        for(int i = 0; i < clusters; i++) {
+            cx[i] = size * random.nextDouble();
+            cy[i] = size * random.nextDouble();
+        }
+        double spread = size / (4.0 * Math.sqrt(clusters));
+
+        for(int i = 0; i < n; i++) {
+            double x, y;
+            if(distribution == Distribution.CLUSTERED) {
+                int c = random.nextInt(clusters);
+                x = clamp(cx[c] + spread * random.nextGaussian(), size);
+                y = clamp(cy[c] + spread * random.nextGaussian(), size);
+            } else {
+                x = size * random.nextDouble();
+                y = size * random.nextDouble();
+            }
+
+            // Round to three decimals, just like the instances in the archive.
+            instance.addPoint(Math.round(x * 1000) / 1000.0, Math.round(y * 1000) / 1000.0, 1 + random.nextInt(maxWeight));
+        }
+
+        return instance;
+    }
+
+    /**
+     * Clamp the given coordinate to the viewport.
+     *
+     * @param v The coordinate to clamp.
+     * @param size The size of the viewport.
+     * @return The coordinate, moved within [0, size] if it is outside of it.
+     */
+    private static double clamp(double v, int size) {
+        return Math.max(0, Math.min(size, v));
+    }
+}
@@ -0,0 +1,262 @@
+package agd.data.input;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads problem instances with a hand-written tokenizer, which is much faster than a Scanner on large files.
+ *
+ * Files are memory-mapped, and other streams are read into a buffer that is reused by the thread. The numbers are
+ * parsed straight from the bytes into primitive arrays. Malformed input results in the same exceptions a Scanner
+ * would throw: a NoSuchElementException when the input ends early, and an InputMismatchException for bad numbers.
+ */
+public final class InstanceReader {
+    // Buffers up to this size are kept for reuse by the thread that allocated them.
+    private static final int MAX_POOLED_SIZE = 1 << 24;
+
+    // The initial size of the pooled buffers.
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    // The buffer each thread reads streams into.
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+    // The powers of ten that can be represented exactly as a double.
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for(int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = 10 * POWERS_OF_TEN[i - 1];
+        }
+    }
+
+    private InstanceReader() {
+    }
+
+    /**
+     * Read the problem instance in the given file, by mapping it into memory.
+     *
+     * @param file The file that holds the problem instance.
+     * @return The problem instance described by the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static ProblemInstance read(File file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The file " + file + " is too large to be mapped into memory.");
+            }
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read the problem instance from the given stream, such as an entry of a zip file.
+     *
+     * The stream is read until its end, but it is not closed.
+     *
+     * @param in The stream that holds the problem instance.
+     * @return The problem instance described by the stream.
+     * @throws IOException If the stream cannot be read.
+     */
+    public static ProblemInstance read(InputStream in) throws IOException {
+        byte[] buffer = BUFFER.get();
+        int length = 0;
+
+        int read;
+        while((read = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if(length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+            }
+        }
+
+        // Keep the grown buffer, unless it would hold on to too much memory.
+        if(buffer.length <= MAX_POOLED_SIZE) {
+            BUFFER.set(buffer);
+        }
+        return parse(ByteBuffer.wrap(buffer, 0, length));
+    }
+
+    /**
+     * Parse the problem instance held by the remaining bytes of the given buffer.
+     *
+     * @param buffer The buffer that holds the problem instance in the text format.
+     * @return The problem instance described by the buffer.
+     */
+    static ProblemInstance parse(ByteBuffer buffer) {
+        Tokenizer tokenizer = new Tokenizer(buffer);
+
+        // The header consists of the id and the bounds of the viewport, followed by the number of points.
+        int id = tokenizer.nextInt();
+        int min_x = tokenizer.nextInt();
+        int max_x = tokenizer.nextInt();
+        int min_y = tokenizer.nextInt();
+        int max_y = tokenizer.nextInt();
+        int n = tokenizer.nextInt();
+        if(n < 0) {
+            throw new InputMismatchException("The number of points cannot be negative.");
+        }
+
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] w = new int[n];
+        for(int i = 0; i < n; i++) {
+            x[i] = tokenizer.nextDouble();
+            y[i] = tokenizer.nextDouble();
+            w[i] = tokenizer.nextInt();
+        }
+
+        return new ProblemInstance(id, min_x, max_x, min_y, max_y, x, y, w);
+    }
+
+    /**
+     * Splits the bytes of a buffer into whitespace separated numbers.
+     */
+    private static class Tokenizer {
+        // The buffer that is read, with absolute indices.
+        private final ByteBuffer buffer;
+
+        // The index of the next byte to read, and the index after the last byte.
+        private int position;
+        private final int limit;
+
+        Tokenizer(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.position = buffer.position();
+            this.limit = buffer.limit();
+        }
+
+        /**
+         * Skip the whitespace before the next token.
+         *
+         * @throws NoSuchElementException If there are no tokens left.
+         */
+        private void skipWhitespace() {
+            while(position < limit && buffer.get(position) <= ' ') {
+                position++;
+            }
+            if(position == limit) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        /**
+         * Read the next token as an integer.
+         *
+         * @return The value of the token.
+         */
+        int nextInt() {
+            skipWhitespace();
+            int begin = position;
+
+            boolean negative = false;
+            byte b = buffer.get(position);
+            if(b == '-' || b == '+') {
+                negative = b == '-';
+                position++;
+            }
+
+            long value = 0;
+            int digits = 0;
+            while(position < limit && (b = buffer.get(position)) > ' ') {
+                if(b < '0' || b > '9' || digits > 10) {
+                    throw mismatch(begin);
+                }
+                value = 10 * value + (b - '0');
+                digits++;
+                position++;
+            }
+
+            value = negative ? -value : value;
+            if(digits == 0 || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw mismatch(begin);
+            }
+            return (int) value;
+        }
+
+        /**
+         * Read the next token as a double.
+         *
+         * Plain decimals with at most fifteen significant digits are converted with a single division, which is
+         * correctly rounded since both operands are exact. Other notations fall back to Double.parseDouble.
+         *
+         * @return The value of the token.
+         */
+        double nextDouble() {
+            skipWhitespace();
+            int begin = position;
+
+            boolean negative = false;
+            byte b = buffer.get(position);
+            if(b == '-' || b == '+') {
+                negative = b == '-';
+                position++;
+            }
+
+            long mantissa = 0;
+            int significant = 0, digits = 0, scale = 0;
+            boolean fraction = false, simple = true;
+            while(position < limit && (b = buffer.get(position)) > ' ') {
+                if(b >= '0' && b <= '9') {
+                    digits++;
+                    if(fraction) scale++;
+
+                    // Leading zeros do not count towards the significant digits.
+                    if(mantissa != 0 || b != '0') {
+                        mantissa = 10 * mantissa + (b - '0');
+                        significant++;
+                    }
+                } else if(b == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    simple = false;
+                }
+
+                if(significant > 15) {
+                    simple = false;
+                }
+                position++;
+            }
+
+            if(simple && digits > 0 && scale < POWERS_OF_TEN.length) {
+                double value = mantissa / POWERS_OF_TEN[scale];
+                return negative ? -value : value;
+            }
+
+            try {
+                return Double.parseDouble(token(begin));
+            } catch(NumberFormatException e) {
+                throw mismatch(begin);
+            }
+        }
+
+        /**
+         * Get the token that starts at the given index and ends at the current position.
+         */
+        private String token(int begin) {
+            char[] chars = new char[position - begin];
+            for(int i = 0; i < chars.length; i++) {
+                chars[i] = (char) (buffer.get(begin + i) & 0xFF);
+            }
+            return new String(chars);
+        }
+
+        /**
+         * Create the exception for a malformed token that starts at the given index.
+         */
+        private InputMismatchException mismatch(int begin) {
+            // Move to the end of the token, such that the message holds all of it.
+            while(position < limit && buffer.get(position) > ' ') {
+                position++;
+            }
+            return new InputMismatchException("Malformed number: " + token(begin));
+        }
+    }
+}
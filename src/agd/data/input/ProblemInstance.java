@@ -9,8 +9,21 @@ public class ProblemInstance {
     // The bounds of the problem statements viewport.
     public final int min_x, max_x, min_y, max_y;
 
-    // The collection of points in the problem statement.
-    private List<WeightedPoint> points = new ArrayList<>();
+    // The initial capacity of the point arrays when points are added one by one.
+    private static final int INITIAL_CAPACITY = 16;
+
+    // The coordinates and weights of the points, indexed by the id of the point.
+    private double[] x, y;
+    private int[] w;
+
+    // The bottom left corners of the squares of the points, when placed at the closest half grid position.
+    private int[] cornerX, cornerY;
+
+    // The number of points in the problem statement.
+    private int size;
+
+    // The points as objects, which are only created once they are requested.
+    private volatile List<WeightedPoint> points;
 
     /**
      * Create a problem instance with the given parameters.
@@ -20,17 +33,51 @@ public class ProblemInstance {
      * @param min_y The minimum y value of the viewport.
      * @param max_y The maximum y value of the viewport.
      */
-    private ProblemInstance(int id, int min_x, int max_x, int min_y, int max_y) {
+    ProblemInstance(int id, int min_x, int max_x, int min_y, int max_y) {
+        this(id, min_x, max_x, min_y, max_y, new double[INITIAL_CAPACITY], new double[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], 0);
+    }
+
+    /**
+     * Create a problem instance holding the given points. The arrays are not copied.
+     *
+     * @param id The id of the problem instance.
+     * @param min_x The minimum x value of the viewport.
+     * @param max_x The maximum x value of the viewport.
+     * @param min_y The minimum y value of the viewport.
+     * @param max_y The maximum y value of the viewport.
+     * @param x The x-coordinates of the points.
+     * @param y The y-coordinates of the points.
+     * @param w The weights of the points.
+     */
+    ProblemInstance(int id, int min_x, int max_x, int min_y, int max_y, double[] x, double[] y, int[] w) {
+        this(id, min_x, max_x, min_y, max_y, x, y, w, w.length);
+    }
+
+    private ProblemInstance(int id, int min_x, int max_x, int min_y, int max_y, double[] x, double[] y, int[] w, int size) {
         this.id = id;
         this.min_x = min_x;
         this.max_x = max_x;
         this.min_y = min_y;
         this.max_y = max_y;
+
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.size = size;
+
+        cornerX = new int[x.length];
+        cornerY = new int[x.length];
+        for(int i = 0; i < size; i++) {
+            cornerX[i] = corner(x[i], w[i]);
+            cornerY[i] = corner(y[i], w[i]);
+        }
     }
 
     /**
      * Construct a problem instance through the input of a scanner.
      *
+     * Note that InstanceReader is much faster on large instances.
+     *
      * @param s The scanner that is reading the file with problem intance data.
      * @return A problem instance with the appropriate data.
      */
@@ -42,7 +89,7 @@ public class ProblemInstance {
         int n = s.nextInt();
         while(n > 0) {
             // Create a new point with the expected scanner input.
-            instance.points.add(new WeightedPoint(s.nextDouble(), s.nextDouble(), s.nextInt(), instance.points.size()));
+            instance.addPoint(s.nextDouble(), s.nextDouble(), s.nextInt());
             n--;
         }
 
@@ -50,11 +97,176 @@ public class ProblemInstance {
     }
 
     /**
-     * Receive a copy of the list of points in the problem instance.
+     * Add a point to the problem instance, which gets the next available id.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @param w The weight of the point.
+     */
+    void addPoint(double x, double y, int w) {
+        if(size == this.w.length) {
+            int capacity = 2 * size;
+            this.x = Arrays.copyOf(this.x, capacity);
+            this.y = Arrays.copyOf(this.y, capacity);
+            this.w = Arrays.copyOf(this.w, capacity);
+            cornerX = Arrays.copyOf(cornerX, capacity);
+            cornerY = Arrays.copyOf(cornerY, capacity);
+        }
+
+        this.x[size] = x;
+        this.y[size] = y;
+        this.w[size] = w;
+        cornerX[size] = corner(x, w);
+        cornerY[size] = corner(y, w);
+        size++;
+        points = null;
+    }
+
+    /**
+     * Get the number of points in the problem instance.
+     *
+     * @return The number of points.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the x-coordinate of the point with the given id.
+     *
+     * @param i The id of the point.
+     * @return The x-coordinate of the point.
+     */
+    public double getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Get the y-coordinate of the point with the given id.
+     *
+     * @param i The id of the point.
+     * @return The y-coordinate of the point.
+     */
+    public double getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Get the weight of the point with the given id.
+     *
+     * @param i The id of the point.
+     * @return The weight of the point, which is the size of its square.
+     */
+    public int getWeight(int i) {
+        return w[i];
+    }
+
+    /**
+     * Get the x-coordinate of the bottom left corner of the square of the given point, at its closest grid position.
+     *
+     * @param i The id of the point.
+     * @return The x-coordinate of the corner.
+     */
+    public int getCornerX(int i) {
+        return cornerX[i];
+    }
+
+    /**
+     * Get the y-coordinate of the bottom left corner of the square of the given point, at its closest grid position.
+     *
+     * @param i The id of the point.
+     * @return The y-coordinate of the corner.
+     */
+    public int getCornerY(int i) {
+        return cornerY[i];
+    }
+
+    /**
+     * Create a problem instance that holds a subset of the points, with the same id and viewport.
+     *
+     * The points are given new ids in the order in which they are listed.
+     *
+     * @param ids The ids of the points that should be in the new instance.
+     * @return A new problem instance, in which point i is the point with id ids[i] in this instance.
+     */
+    public ProblemInstance subset(int[] ids) {
+        double[] x = new double[ids.length], y = new double[ids.length];
+        int[] w = new int[ids.length];
+        for(int k = 0; k < ids.length; k++) {
+            x[k] = this.x[ids[k]];
+            y[k] = this.y[ids[k]];
+            w[k] = this.w[ids[k]];
+        }
+        return new ProblemInstance(id, min_x, max_x, min_y, max_y, x, y, w);
+    }
+
+    /**
+     * Create a problem instance in which the points and the viewport are mirrored in the y-axis, with the same ids.
+     *
+     * @return A new problem instance, in which point i lies at (-x, y) if it lies at (x, y) in this instance.
+     */
+    public ProblemInstance mirrored() {
+        double[] x = new double[size];
+        for(int i = 0; i < size; i++) {
+            x[i] = -this.x[i];
+        }
+        return new ProblemInstance(id, -max_x, -min_x, min_y, max_y, x, Arrays.copyOf(y, size), Arrays.copyOf(w, size));
+    }
+
+    /**
+     * Create a problem instance in which the x and y-coordinates of the points and the viewport are swapped, with the
+     * same ids.
+     *
+     * @return A new problem instance, in which point i lies at (y, x) if it lies at (x, y) in this instance.
+     */
+    public ProblemInstance transposed() {
+        return new ProblemInstance(id, min_y, max_y, min_x, max_x, Arrays.copyOf(y, size), Arrays.copyOf(x, size), Arrays.copyOf(w, size));
+    }
+
+    /**
+     * Get the point with the given id.
+     *
+     * The list of points is not created for this, such that a solver that only needs the points it places does not
+     * keep a second object for every point alive.
+     *
+     * @param i The id of the point.
+     * @return The point in the list returned by getPoints if that list has been created, or an equal new point.
+     */
+    public WeightedPoint getPoint(int i) {
+        List<WeightedPoint> result = points;
+        return result != null ? result.get(i) : new WeightedPoint(x[i], y[i], w[i], i);
+    }
+
+    /**
+     * Receive the list of points in the problem instance.
+     *
+     * The points are created the first time they are requested, after which the same list is returned every time.
      *
-     * @return A new arraylist containing the point set in the form of a list.
+     * @return An unmodifiable list containing the point set, in the order of their ids.
      */
     public List<WeightedPoint> getPoints() {
-        return new ArrayList<>(points);
+        List<WeightedPoint> result = points;
+        if(result == null) {
+            synchronized(this) {
+                result = points;
+                if(result == null) {
+                    WeightedPoint[] array = new WeightedPoint[size];
+                    for(int i = 0; i < size; i++) {
+                        array[i] = new WeightedPoint(x[i], y[i], w[i], i);
+                    }
+                    points = result = Collections.unmodifiableList(Arrays.asList(array));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the coordinate of the corner of a square with the given size, such that its centre is closest to v.
+     *
+     * This is the same rounding that WeightedPoint uses for its reference point.
+     */
+    private static int corner(double v, int w) {
+        return (int) Math.round(v - 0.5d * w);
     }
 }
@@ -1,7 +1,6 @@
 package agd.data.input;
 
 import agd.math.Point2d;
-import agd.math.Point2i;
 
 /**
  * An immutable data structure that represents a weighted point in the two-dimensional plane.
@@ -29,8 +28,9 @@ public class WeightedPoint extends Point2d {
         this.w = w;
         this.i = i;
 
-        // Calculate the coordinates of the reference point.
-        Point2i bottomLeft = new Point2i((int) Math.round(x - 0.5d * w), (int) Math.round(y - 0.5d * w));
-        c = new Point2d(bottomLeft.x + 0.5d * w, bottomLeft.y + 0.5d * w);
+        // Calculate the coordinates of the reference point, through the bottom left corner on the grid.
+        int left = (int) Math.round(x - 0.5d * w);
+        int bottom = (int) Math.round(y - 0.5d * w);
+        c = new Point2d(left + 0.5d * w, bottom + 0.5d * w);
     }
 }
@@ -5,16 +5,25 @@ import agd.data.util.OutlineDimensions;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An abstract variant of an outline, defining the common structures and functions.
+ *
+ * Outlines that are merged form a disjoint set forest. The outline that survives a merge takes over the rectangles of
+ * the other one, which points to it from then on. The rectangles keep a reference to the outline they were added to,
+ * and find the outline they are currently part of through find, such that a merge does not have to visit them.
  */
 public abstract class AbstractOutline implements Iterable<Edge> {
     // Each outline has a number of rectangles that are part of it.
-    private final List<OutlineRectangle> rectangles = new ArrayList<>();
+    private final List<OutlineRectangle> rectangles;
+
+    // The outline this outline has been merged into, which is the outline itself as long as it has not been merged.
+    private AbstractOutline parent = this;
 
     // Access point to one of the edges in the outline.
     private Edge edge;
@@ -22,9 +31,12 @@ public abstract class AbstractOutline implements Iterable<Edge> {
     // The current dimensions of the outline.
     private OutlineDimensions dimensions;
 
+    // The index over the edges, which is only created once the outline is queried through it.
+    private EdgeIndex index;
+
     // The id of the outline.
-    private static int ID_COUNTER = 0;
-    protected final int id = ID_COUNTER++;
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
+    protected final int id = ID_COUNTER.getAndIncrement();
 
     /**
      * Create a new outline.
@@ -32,6 +44,8 @@ public abstract class AbstractOutline implements Iterable<Edge> {
      * @param rectangle The rectangle which defines the original outline.
      */
     public AbstractOutline(OutlineRectangle rectangle) {
+        rectangles = new ArrayList<>();
+
         // A left directional edge in a rectangle can only be the bottom edge.
         edge = rectangle.createOutline(Direction.LEFT);
         dimensions = new OutlineDimensions(rectangle.x, rectangle.y, rectangle.width, rectangle.height, this);
@@ -40,9 +54,62 @@ public abstract class AbstractOutline implements Iterable<Edge> {
 
     /**
      * A constructor that should be used when basing an outline on another outline.
+     *
+     * The rectangles are not copied, but shared with the other outline as a read-only view, such that basing an
+     * outline on a large outline only costs as much as its edges.
      */
     public AbstractOutline(List<OutlineRectangle> rectangles) {
-        this.rectangles.addAll(rectangles);
+        this.rectangles = Collections.unmodifiableList(rectangles);
+    }
+
+    /**
+     * Find the outline this outline has been merged into, directly or through other merges.
+     *
+     * @return The outline that holds the rectangles of this outline, which is this outline if it has not been merged.
+     */
+    public AbstractOutline find() {
+        AbstractOutline outline = this;
+        while(outline.parent != outline) {
+            // Halve the path, such that later lookups take fewer steps.
+            outline.parent = outline.parent.parent;
+            outline = outline.parent;
+        }
+        return outline;
+    }
+
+    /**
+     * Merge this outline with the given one, and replace the shape of the result by the given bounding box.
+     *
+     * The outline with the most rectangles survives, and the rectangles of the other outline are appended to it. Every
+     * rectangle is thereby only moved when the outline it is in at most doubles in size. Merging an outline with itself
+     * only replaces its shape.
+     *
+     * @param other The outline to merge with.
+     * @param bounds The rectangle that becomes the shape of the merged outline.
+     * @return The outline that holds the rectangles of both outlines.
+     */
+    public AbstractOutline merge(AbstractOutline other, OutlineRectangle bounds) {
+        AbstractOutline a = find();
+        AbstractOutline b = other.find();
+        if(a != b) {
+            if(a.rectangles.size() < b.rectangles.size()) {
+                AbstractOutline t = a;
+                a = b;
+                b = t;
+            }
+            a.rectangles.addAll(b.rectangles);
+            b.rectangles.clear();
+            b.parent = a;
+            b.index = null;
+        }
+
+        // A left directional edge in a rectangle can only be the bottom edge.
+        a.edge = bounds.createOutline(Direction.LEFT);
+        a.dimensions = new OutlineDimensions(bounds.x, bounds.y, bounds.width, bounds.height, a);
+        if(a.index != null) {
+            a.index.clear();
+        }
+        return a;
     }
 
     /**
@@ -72,6 +139,27 @@ public abstract class AbstractOutline implements Iterable<Edge> {
         return edge;
     }
 
+    /**
+     * Get the index over the edges of the outline, which is created on first use.
+     *
+     * @return The index over the edges.
+     */
+    EdgeIndex getIndex() {
+        if(index == null) {
+            index = new EdgeIndex();
+        }
+        return index;
+    }
+
+    /**
+     * Bring the index over the edges up to date after the edges have changed, if the outline has an index.
+     */
+    protected void refreshIndex() {
+        if(index != null) {
+            index.refresh(edge);
+        }
+    }
+
     /**
      * Add a rectangle to the list of rectangles.
      *
@@ -98,10 +186,18 @@ public abstract class AbstractOutline implements Iterable<Edge> {
         return dimensions;
     }
 
-    protected void updateAccessPoint(Map<Direction, Edge> rectangleEdges, double oy, double ny) {
-        if(Math.abs(oy - ny) < 1e-4) {
+    /**
+     * Make the bottom edge of an inserted rectangle the access point, if it is lower than the current one or equally
+     * low and further to the right.
+     *
+     * @param rectangleEdges The edges of the inserted rectangle.
+     * @param oy The doubled y-coordinate of the origin of the current access point.
+     * @param ny The doubled y-coordinate of the origin of the bottom edge of the rectangle.
+     */
+    protected void updateAccessPoint(Map<Direction, Edge> rectangleEdges, int oy, int ny) {
+        if(oy == ny) {
             // They are on the same height. Check if the new edge is more to the right.
-            if(getEdge().getOrigin().x < rectangleEdges.get(Direction.LEFT).getOrigin().x) {
+            if(getEdge().getDoubledX() < rectangleEdges.get(Direction.LEFT).getDoubledX()) {
                 setEdge(rectangleEdges.get(Direction.LEFT));
             }
         } else if(oy > ny) {
@@ -165,7 +261,7 @@ public abstract class AbstractOutline implements Iterable<Edge> {
         List<String> latexNodes = new ArrayList<>();
         StringBuilder latexEdges = new StringBuilder("\\draw[red] ");
         for (Edge e : edges) {
-            latexNodes.add(String.format(LATEX_POINT, e.getId(), e.getOrigin().x, e.getOrigin().y));
+            latexNodes.add(String.format(LATEX_POINT, e.getId(), 0.5 * e.getDoubledX(), 0.5 * e.getDoubledY()));
             latexEdges.append("(v").append(e.getId()).append(") -- ");
         }
         latexEdges.append("(v").append(edge.getId()).append(");\n");
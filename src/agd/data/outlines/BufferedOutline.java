@@ -3,6 +3,7 @@ package agd.data.outlines;
 import agd.math.Point2d;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static agd.data.outlines.Edge.*;
 import static agd.data.outlines.Edge.Direction.*;
@@ -14,6 +15,18 @@ public class BufferedOutline extends AbstractOutline {
 
     private final int maxId;
 
+    // The number of edges from which the ring is sanitized block by block, rather than edge by edge.
+    private static final int BLOCKED_LIMIT = 32;
+
+    // The number of consecutive edges of the ring that form a block when sanitizing.
+    private static final int BLOCK_SIZE = 8;
+
+    // The number of self intersections that have been found in validated buffered outlines during this run.
+    private static final AtomicInteger TOTAL_INTERSECTIONS = new AtomicInteger();
+
+    // The number of self intersections found in this buffered outline, which is zero if it has not been validated.
+    private int intersections;
+
     /**
      * A constructor that should be used when basing an outline on another outline.
      *
@@ -27,38 +40,45 @@ public class BufferedOutline extends AbstractOutline {
     }
 
     public BufferedOutline(ComplexOutline outline, double w) {
+        this(outline, w, true);
+    }
+
+    /**
+     * A constructor that should be used when basing an outline on another outline.
+     *
+     * @param outline The outline to use as the original outline.
+     * @param w The width of the buffering zone.
+     * @param validate Whether to check the buffered outline for self intersections.
+     */
+    public BufferedOutline(ComplexOutline outline, double w, boolean validate) {
         super(outline.getRectangles());
 
         setEdge(createOutline(outline, w));
         maxId = getEdge().getPrevious().getId();
         sanitize();
-        validate();
-    }
-
-    static int itot = 0;
-
-    private void validate() {
-        int i = 0;
-        int j = 0;
-
-        // Check if we have any intersections, the brute force way.
-        for(Edge e1 : this) {
-            for(Edge e2 : e1.getNext()) {
-                if(e1 == e2) break;
-
-                if(e1.doIntersect(e2)) {
-                    i++;
-                    itot++;
-
-                    if(e1.getDirection() != e2.getDirection()) j++;
-                }
 
-            }
+        if(validate) {
+            intersections = EdgeIntersections.count(getEdge());
+            TOTAL_INTERSECTIONS.addAndGet(intersections);
         }
+    }
 
-        if(i != 0) {
-            System.out.println("Found " + i + " intersections or overlaps in our output, with a total of " + itot + " intersections in this run.");
-        }
+    /**
+     * Get the number of self intersections or overlaps that validation has found in the buffered outline.
+     *
+     * @return The number of self intersections, which is zero if the outline has not been validated.
+     */
+    public int getIntersections() {
+        return intersections;
+    }
+
+    /**
+     * Get the number of self intersections or overlaps that validation has found in all buffered outlines so far.
+     *
+     * @return The total number of self intersections in this run.
+     */
+    public static int getTotalIntersections() {
+        return TOTAL_INTERSECTIONS.get();
     }
 
     /**
@@ -68,22 +88,28 @@ public class BufferedOutline extends AbstractOutline {
      * @param w The width of the buffering zone.
      * @return The edge to use as the access point.
      */
-    private Edge createOutline(AbstractOutline outline, double w) {
+    static Edge createOutline(AbstractOutline outline, double w) {
         // Keep the last encountered edge such that we can set next and previous references.
         Edge last = null;
         Edge first = null;
 
+        // The corners are translated on the doubled grid, on which the width of the buffering zone is an integer.
+        int w_double = doubled(w);
+
         for(Edge e : outline) {
             // Translate each edge to the correct position.
-            Point2d p = e.getOrigin().add(e.getDirection().bufferVector().scale(w));
+            Direction d = e.getDirection();
+            int x = e.getDoubledX() + d.bufferX * w_double;
+            int y = e.getDoubledY() + d.bufferY * w_double;
 
             // Check whether we have made a left turn.
-            if(e.getPrevious().getDirection().isLeftTurn(e.getDirection())) {
-                p = p.add(e.getDirection().leftTurnVector().scale(2 * w));
+            if(e.getPrevious().getDirection().isLeftTurn(d)) {
+                x += d.leftTurnX * 2 * w_double;
+                y += d.leftTurnY * 2 * w_double;
             }
 
             // Create a new edge and set the appropriate pointers.
-            Edge bufferedEdge = new Edge(p, e.getDirection());
+            Edge bufferedEdge = new Edge(x, y, d);
 
             if(last != null) {
                 // The direction of the edge should be validated in the set next.
@@ -122,11 +148,8 @@ public class BufferedOutline extends AbstractOutline {
             target.setNext(conflict);
 
         } else {
-            // We have a normal intersection with an intersection point.
-            Point2d i = target.getIntersection(conflict);
-
-            // Create a new edge for the next edge.
-            Edge newEdge = new Edge(i, conflict.getDirection());
+            // We have a normal intersection with an intersection point, at which a new edge is created.
+            Edge newEdge = new Edge(target.intersectionX(conflict), target.intersectionY(conflict), conflict.getDirection());
 
             // What was the original edge we split up? Find the edge recursively.
             castMap.put(newEdge.getId(), conflict.getId());
@@ -136,11 +159,30 @@ public class BufferedOutline extends AbstractOutline {
         }
     }
 
+    /**
+     * Resolve the self intersections of the buffered ring, by cutting the ring short at every intersection.
+     */
     private void sanitize() {
+        int edges = 0;
+        for(Edge e : this) {
+            if(++edges >= BLOCKED_LIMIT) {
+                sanitizeBlocks(getEdge(), BLOCK_SIZE);
+                return;
+            }
+        }
+        sanitizeEdges(getEdge());
+    }
 
+    /**
+     * Resolve the self intersections of the ring that starts at the given edge, by comparing every edge with all the
+     * edges that follow it.
+     *
+     * @param first The access point of the ring.
+     */
+    static void sanitizeEdges(Edge first) {
         // Sanitize the drawn buffered outline using a bottom-up sweep.
         Edge next;
-        for(Edge e : this) {
+        for(Edge e : first) {
             next = e.getNext();
 
             while(next != e) {
@@ -172,11 +214,8 @@ public class BufferedOutline extends AbstractOutline {
                     }
                 } else if(e.doIntersect(next)) {
 
-                    // We have a normal intersection with an intersection point.
-                    Point2d i = e.getIntersection(next);
-
-                    // Create a new edge for the next edge.
-                    Edge newEdge = new Edge(i, next.getDirection());
+                    // We have a normal intersection with an intersection point, at which a new edge is created.
+                    Edge newEdge = new Edge(e.intersectionX(next), e.intersectionY(next), next.getDirection());
 
                     e.setNext(newEdge);
                     newEdge.setNext(next.getNext());
@@ -190,6 +229,135 @@ public class BufferedOutline extends AbstractOutline {
         }
     }
 
+    /**
+     * Resolve the self intersections of the ring that starts at the given edge with the same result as sanitizeEdges,
+     * but pass the blocks of edges that cannot intersect the current edge at once.
+     *
+     * The blocks consist of consecutive edges in the order of the ring before it is sanitized. An edge that is created
+     * at an intersection belongs to the block of the edge it follows, so every block stays a consecutive part of the
+     * ring. The bounding box of a block only grows, such that it always covers the edges of the block that are still in
+     * the ring. A block is passed when its bounding box does not meet the current edge, up to the first edge of the
+     * next block, unless that would pass the current edge itself.
+     *
+     * @param first The access point of the ring.
+     * @param size The number of edges in a block.
+     */
+    static void sanitizeBlocks(Edge first, int size) {
+        List<Edge> edges = first.toList();
+        int blocks = (edges.size() + size - 1) / size;
+
+        // The first edge of every block that is still in the ring, or null if none of them is left.
+        Edge[] heads = new Edge[blocks];
+
+        // The bounding box of every block, as minimum x, minimum y, maximum x and maximum y.
+        int[] bounds = new int[4 * blocks];
+        Arrays.fill(bounds, Integer.MAX_VALUE);
+        for(int i = 0; i < edges.size(); i++) {
+            Edge e = edges.get(i);
+            e.position = i;
+            if(i % size == 0) {
+                heads[i / size] = e;
+                bounds[4 * (i / size) + 2] = bounds[4 * (i / size) + 3] = Integer.MIN_VALUE;
+            }
+            grow(bounds, i / size, e);
+        }
+
+        Edge next;
+        for(Edge e : first) {
+            int block = e.position / size;
+            next = e.getNext();
+
+            while(next != e) {
+                // Pass the blocks that the edge cannot intersect.
+                if(heads[next.position / size] == next) {
+                    Edge head = passBlocks(heads, bounds, e, next.position / size, block);
+                    if(head != null) {
+                        next = head;
+                        continue;
+                    }
+                }
+
+                if(e.getDirection() == next.getDirection()) {
+                    if(e.doIntersect(next) || next.doIntersect(e)) {
+                        // We should extend the current edge, which removes the edges up to and including next.
+                        Edge next2 = next.getNext();
+                        remove(heads, size, e.getNext(), next, next2);
+                        e.setNext(next2);
+                        grow(bounds, block, e);
+                        next = next2;
+                    } else {
+                        next = next.getNext();
+                    }
+                } else if(e.doIntersect(next)) {
+                    // We have a normal intersection with an intersection point, at which a new edge is created.
+                    Edge newEdge = new Edge(e.intersectionX(next), e.intersectionY(next), next.getDirection());
+                    newEdge.position = e.position;
+
+                    remove(heads, size, e.getNext(), next, next.getNext());
+                    e.setNext(newEdge);
+                    newEdge.setNext(next.getNext());
+                    grow(bounds, block, e);
+                    grow(bounds, block, newEdge);
+
+                    // Stay on this edge.
+                } else {
+                    next = next.getNext();
+                }
+            }
+        }
+    }
+
+    /**
+     * Pass the blocks from the given one onwards for as long as their bounding boxes do not meet the edge.
+     *
+     * @param last The block of the edge, which is never passed, since the edge has to be found again at its end.
+     * @return The first edge of the block after the last block that has been passed, or null if the given block cannot
+     *         be passed.
+     */
+    private static Edge passBlocks(Edge[] heads, int[] bounds, Edge e, int block, int last) {
+        int x1 = Math.min(e.getDoubledX(), e.getNext().getDoubledX());
+        int x2 = Math.max(e.getDoubledX(), e.getNext().getDoubledX());
+        int y1 = Math.min(e.getDoubledY(), e.getNext().getDoubledY());
+        int y2 = Math.max(e.getDoubledY(), e.getNext().getDoubledY());
+
+        while(block != last && (bounds[4 * block] > x2 || bounds[4 * block + 1] > y2
+                || bounds[4 * block + 2] < x1 || bounds[4 * block + 3] < y1)) {
+            block = (block + 1) % heads.length;
+            if(heads[block] != null) {
+                return heads[block];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Update the first edges of the blocks for the removal of the edges from the first up to and including the last
+     * one, which are followed by the given edge once they are removed.
+     */
+    private static void remove(Edge[] heads, int size, Edge first, Edge last, Edge after) {
+        for(Edge e = first; ; e = e.getNext()) {
+            int block = e.position / size;
+            if(heads[block] == e) {
+                // The blocks are consecutive, so the block either continues after the removed edges or is empty.
+                heads[block] = after.position / size == block ? after : null;
+            }
+            if(e == last) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Extend the bounding box of the given block such that it covers the edge.
+     */
+    private static void grow(int[] bounds, int block, Edge e) {
+        int b = 4 * block;
+        bounds[b] = Math.min(bounds[b], Math.min(e.getDoubledX(), e.getNext().getDoubledX()));
+        bounds[b + 1] = Math.min(bounds[b + 1], Math.min(e.getDoubledY(), e.getNext().getDoubledY()));
+        bounds[b + 2] = Math.max(bounds[b + 2], Math.max(e.getDoubledX(), e.getNext().getDoubledX()));
+        bounds[b + 3] = Math.max(bounds[b + 3], Math.max(e.getDoubledY(), e.getNext().getDoubledY()));
+    }
+
     /**
      * Project the point p onto the outline and find the position that has the smallest euclidean distance.
      *
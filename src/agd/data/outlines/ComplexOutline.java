@@ -1,7 +1,5 @@
 package agd.data.outlines;
 
-import agd.math.Point2d;
-
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -26,22 +24,6 @@ public class ComplexOutline extends AbstractOutline implements Insertable {
         super(rectangle);
     }
 
-    /**
-     * Create a new outline.
-     *
-     * @param rectangle The rectangle which defines the original outline.
-     */
-    public ComplexOutline(OutlineRectangle rectangle, List<OutlineRectangle> rectangles) {
-        super(rectangle);
-
-        // Remove the rectangle that we just added.
-        this.getRectangles().clear();
-
-        // Add all the rectangles.
-        this.getRectangles().addAll(rectangles);
-        rectangles.forEach(r -> r.setOutline(this));
-    }
-
     /**
      * Insert the given rectangle into the outline.
      *
@@ -63,8 +45,8 @@ public class ComplexOutline extends AbstractOutline implements Insertable {
             Edge b0 = rectangleEdges.get(a0.getDirection().opposite());
 
             // Check relative positions for both sides.
-            Relative r0 = a0.getRelativePosition(b0.getTarget());
-            Relative r1 = b0.getRelativePosition(a0.getTarget());
+            Relative r0 = a0.getRelativePosition(b0.getNext().getDoubledX(), b0.getNext().getDoubledY());
+            Relative r1 = b0.getRelativePosition(a0.getNext().getDoubledX(), a0.getNext().getDoubledY());
 
             // The nexts of both lines.
             Edge a0next = a0.getNext();
@@ -76,7 +58,7 @@ public class ComplexOutline extends AbstractOutline implements Insertable {
                     break;
                 case BEFORE:
                     // We have to create a new edge in the same direction as b0.
-                    Edge n0 = new Edge(a0.getOrigin(), b0.getDirection());
+                    Edge n0 = new Edge(a0.getDoubledX(), a0.getDoubledY(), b0.getDirection());
 
                     n0.setNext(b0.getNext());
                     n0.setPrevious(a0.getPrevious());
@@ -94,7 +76,7 @@ public class ComplexOutline extends AbstractOutline implements Insertable {
                     break;
                 case BEFORE:
                     // We have to create a new edge in the same direction as a1.
-                    Edge n1 = new Edge(b0.getOrigin(), a0.getDirection());
+                    Edge n1 = new Edge(b0.getDoubledX(), b0.getDoubledY(), a0.getDirection());
                     n1.setNext(a0next);
                     n1.setPrevious(b0.getPrevious());
                     break;
@@ -109,11 +91,11 @@ public class ComplexOutline extends AbstractOutline implements Insertable {
             // We know that the edges follow one another. Thus, we only have to look at two points.
             Edge a0 = touching.get(0);
             Edge b0 = rectangleEdges.get(a0.getDirection().opposite());
-            Relative r0 = a0.getRelativePosition(b0.getTarget());
+            Relative r0 = a0.getRelativePosition(b0.getNext().getDoubledX(), b0.getNext().getDoubledY());
 
             Edge a1 = touching.get(touching.size() - 1);
             Edge b1 = rectangleEdges.get(a1.getDirection().opposite());
-            Relative r1 = b1.getRelativePosition(a1.getTarget());
+            Relative r1 = b1.getRelativePosition(a1.getNext().getDoubledX(), a1.getNext().getDoubledY());
 
             //noinspection Duplicates
             switch(r0) {
@@ -123,7 +105,7 @@ public class ComplexOutline extends AbstractOutline implements Insertable {
                     break;
                 case BEFORE:
                     // We have to create a new edge in the same direction as b0.
-                    Edge n0 = new Edge(a0.getOrigin(), b0.getDirection());
+                    Edge n0 = new Edge(a0.getDoubledX(), a0.getDoubledY(), b0.getDirection());
                     n0.setNext(b0.getNext());
                     n0.setPrevious(a0.getPrevious());
                     break;
@@ -141,7 +123,7 @@ public class ComplexOutline extends AbstractOutline implements Insertable {
                     break;
                 case BEFORE:
                     // We have to create a new edge in the same direction as a1.
-                    Edge n1 = new Edge(b1.getOrigin(), a1.getDirection());
+                    Edge n1 = new Edge(b1.getDoubledX(), b1.getDoubledY(), a1.getDirection());
                     n1.setNext(a1.getNext());
                     n1.setPrevious(b1.getPrevious());
                     break;
@@ -158,11 +140,14 @@ public class ComplexOutline extends AbstractOutline implements Insertable {
         // Add the rectangle to the list of rectangles.
         addRectangle(rectangle);
 
-        double oy = getEdge().getOrigin().y;
-        double ny = rectangleEdges.get(Direction.LEFT).getOrigin().y;
+        int oy = getEdge().getDoubledY();
+        int ny = rectangleEdges.get(Direction.LEFT).getDoubledY();
 
         // Do we need to change our access point?
         updateAccessPoint(rectangleEdges, oy, ny);
+
+        // Number the changed ring in the index.
+        refreshIndex();
     }
 
     private List<Edge> getTouchingEdges(Map<Direction, Edge> rectangleEdges) {
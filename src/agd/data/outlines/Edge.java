@@ -2,21 +2,24 @@ package agd.data.outlines;
 
 import agd.math.Point2d;
 
-import java.awt.geom.Dimension2D;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An edge data structure for the outline, which has pointers to the previous and next edges.
+ *
+ * All corners of the outlines lie on the half grid, so the origin is stored with doubled integer coordinates, like
+ * HalfGridPoint does. The predicates on edges are thereby exact, and need no tolerance around the endpoints.
  */
 public class Edge implements Iterable<Edge>, Comparable<Edge> {
     // An unique identifier for an edge, used within equality checks.
-    private static int ID_COUNTER = 0;
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
     private final int id;
 
-    // The origin point of the edge.
-    private final Point2d origin;
+    // The x and y coordinates of the origin point of the edge doubled.
+    private final int x_double, y_double;
 
     // The direction of the edge.
     private Direction direction;
@@ -24,18 +27,47 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
     // Points to the previous and next edges.
     private Edge next, previous;
 
+    // The position of the edge along its ring, as numbered by the last structure that has walked the ring.
+    int position;
+
     /**
      * Create an outline edge with the given origin and direction.
      *
-     * @param origin The origin point of the edge.
+     * @param origin The origin point of the edge, which should lie on the half grid.
      * @param direction The direction of the edge.
      */
     public Edge(Point2d origin, Direction direction) {
-        this.id = ID_COUNTER++;
-        this.origin = origin;
+        this(doubled(origin.x), doubled(origin.y), direction);
+    }
+
+    /**
+     * Create an outline edge with the given origin and direction.
+     *
+     * @param x_double The x-coordinate of the origin point doubled.
+     * @param y_double The y-coordinate of the origin point doubled.
+     * @param direction The direction of the edge.
+     */
+    Edge(int x_double, int y_double, Direction direction) {
+        this.id = ID_COUNTER.getAndIncrement();
+        this.x_double = x_double;
+        this.y_double = y_double;
         this.direction = direction;
     }
 
+    /**
+     * Double a coordinate on the half grid.
+     *
+     * @param v The coordinate, which should be a multiple of a half.
+     * @return The coordinate doubled, which is an integer.
+     */
+    static int doubled(double v) {
+        int result = (int) Math.round(2 * v);
+        if(result != 2 * v) {
+            throw new IllegalArgumentException("The coordinate " + v + " does not lie on the half grid.");
+        }
+        return result;
+    }
+
     /**
      * Get the id of the edge.
      *
@@ -51,7 +83,7 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
      * @return The origin position of the edge, which is a pair of doubles.
      */
     public Point2d getOrigin() {
-        return origin;
+        return new Point2d(0.5 * x_double, 0.5 * y_double);
     }
 
     /**
@@ -60,7 +92,25 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
      * @return The target position of the edge, which is a pair of doubles. Returns null if there is no target.
      */
     public Point2d getTarget() {
-        return next == null ? null : next.origin;
+        return next == null ? null : next.getOrigin();
+    }
+
+    /**
+     * Get the x-coordinate of the origin of the edge doubled.
+     *
+     * @return The doubled x-coordinate, which is exact.
+     */
+    public int getDoubledX() {
+        return x_double;
+    }
+
+    /**
+     * Get the y-coordinate of the origin of the edge doubled.
+     *
+     * @return The doubled y-coordinate, which is exact.
+     */
+    public int getDoubledY() {
+        return y_double;
     }
 
     /**
@@ -90,10 +140,9 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
         this.previous = previous;
         previous.next = this;
 
-        // Is the direction still valid?
-        Direction dir = Direction.getDirection(previous.origin, origin);
-        if(dir != previous.direction && previous.length() > 1e-4) {
-            previous.direction = dir;
+        // Is the direction still valid? An edge without length keeps the direction it had.
+        if(previous.x_double != x_double || previous.y_double != y_double) {
+            previous.direction = Direction.getDirection(previous.x_double, previous.y_double, x_double, y_double);
         }
     }
 
@@ -115,10 +164,9 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
         this.next = next;
         next.previous = this;
 
-        // Is the direction still valid?
-        Direction dir = Direction.getDirection(origin, next.origin);
-        if(dir != direction && length() > 1e-4) {
-            direction = dir;
+        // Is the direction still valid? An edge without length keeps the direction it had.
+        if(x_double != next.x_double || y_double != next.y_double) {
+            direction = Direction.getDirection(x_double, y_double, next.x_double, next.y_double);
         }
     }
 
@@ -131,7 +179,8 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
         if(next == null) {
             return Double.MAX_VALUE;
         } else {
-            return origin.distance(getTarget());
+            double dx = next.x_double - x_double, dy = next.y_double - y_double;
+            return 0.5 * Math.sqrt(dx * dx + dy * dy);
         }
     }
 
@@ -142,17 +191,12 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
      * @return A point on the line segment that has the shortest euclidean distance to p.
      */
     public Point2d project(Point2d p) {
-        // Find the bounds of the projection.
-        double xmin = Math.min(getOrigin().x, getTarget().x);
-        double xmax = Math.max(getOrigin().x, getTarget().x);
-        double ymin = Math.min(getOrigin().y, getTarget().y);
-        double ymax = Math.max(getOrigin().y, getTarget().y);
+        // Clamp the doubled point to the bounds of the edge.
+        double x = Math.max(Math.min(x_double, next.x_double), Math.min(Math.max(x_double, next.x_double), 2 * p.x));
+        double y = Math.max(Math.min(y_double, next.y_double), Math.min(Math.max(y_double, next.y_double), 2 * p.y));
 
         // Make sure that the point is a half-width point. I.e., round to the nearest half.
-        Point2d target = new Point2d(Math.max(xmin, Math.min(xmax, p.x)), Math.max(ymin, Math.min(ymax, p.y)));
-
-        // Project the point.
-        return new Point2d(Math.round(target.x * 2) / 2.0, Math.round(target.y * 2) / 2.0);
+        return new Point2d(Math.round(x) / 2.0, Math.round(y) / 2.0);
     }
 
     /**
@@ -162,38 +206,62 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
      * @return The intersection point of the two edges.
      */
     public Point2d getIntersection(Edge conflict) {
-        // Based on the orientation of the edge, find the correct intersection point.
-        if(direction.isHorizontal) {
-            return new Point2d(conflict.origin.x, origin.y);
-        } else {
-            return new Point2d(origin.x, conflict.origin.y);
-        }
+        return new Point2d(0.5 * intersectionX(conflict), 0.5 * intersectionY(conflict));
+    }
+
+    /**
+     * Find the doubled x-coordinate of the intersection point of two edges.
+     *
+     * @param conflict An edge perpendicular to this edge.
+     * @return The x-coordinate of the intersection point doubled.
+     */
+    int intersectionX(Edge conflict) {
+        return direction.isHorizontal ? conflict.x_double : x_double;
+    }
+
+    /**
+     * Find the doubled y-coordinate of the intersection point of two edges.
+     *
+     * @param conflict An edge perpendicular to this edge.
+     * @return The y-coordinate of the intersection point doubled.
+     */
+    int intersectionY(Edge conflict) {
+        return direction.isHorizontal ? y_double : conflict.y_double;
     }
 
     public boolean doIntersect(Edge conflict) {
-        Point2d i = getIntersection(conflict);
-
-        // The point is on this edge.
-        if(getOrigin().distance(i) + i.distance(getTarget()) <= length()) {
-            // The point is on the conflict edge.
-            if(conflict.getOrigin().distance(i) + i.distance(conflict.getTarget()) <= conflict.length()) {
-                // Is the intersection valid?
-                if(direction == conflict.direction) {
-                    // If they have the same direction, it always is.
-                    return true;
-                } else if(direction != conflict.direction.opposite()) {
-                    // The direction is on a different axis. We don't want any endpoint to coincide with i.
-                    return !(i.epsilonEquals(getOrigin(), 1e-4)
-                            || i.epsilonEquals(getTarget(), 1e-4)
-                            || i.epsilonEquals(conflict.getOrigin(), 1e-4)
-                            || i.epsilonEquals(conflict.getTarget(), 1e-4));
-                }
+        int x = intersectionX(conflict), y = intersectionY(conflict);
+
+        // The point is on both edges.
+        if(contains(x, y) && conflict.contains(x, y)) {
+            // Is the intersection valid?
+            if(direction == conflict.direction) {
+                // If they have the same direction, it always is.
+                return true;
+            } else if(direction != conflict.direction.opposite()) {
+                // The direction is on a different axis. We don't want any endpoint to coincide with i.
+                return !(isOrigin(x, y) || next.isOrigin(x, y) || conflict.isOrigin(x, y) || conflict.next.isOrigin(x, y));
             }
         }
 
         return false;
     }
 
+    /**
+     * Check whether the doubled point lies on the closed line segment, which is axis aligned.
+     */
+    private boolean contains(int x, int y) {
+        return Math.min(x_double, next.x_double) <= x && x <= Math.max(x_double, next.x_double)
+                && Math.min(y_double, next.y_double) <= y && y <= Math.max(y_double, next.y_double);
+    }
+
+    /**
+     * Check whether the doubled point is the origin of the edge.
+     */
+    private boolean isOrigin(int x, int y) {
+        return x_double == x && y_double == y;
+    }
+
     /**
      * Check whether two edges in opposite direction touch one another.
      *
@@ -201,14 +269,15 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
      * @return True if the two lines share a line segment, false otherwise.
      */
     public boolean doTouch(Edge conflict) {
-        // Are they upon the same line?
-        if(direction.isHorizontal) {
-            if(Math.abs(origin.y - conflict.origin.y) > 1e-4) return false;
-        } else {
-            if(Math.abs(origin.x - conflict.origin.x) > 1e-4) return false;
+        // Are they upon the same line? The coordinates along the line are compared below.
+        boolean horizontal = direction.isHorizontal;
+        if(horizontal ? y_double != conflict.y_double : x_double != conflict.x_double) {
+            return false;
         }
-
-        Point2d diff1, diff2;
+        int origin = horizontal ? x_double : y_double;
+        int target = horizontal ? next.x_double : next.y_double;
+        int conflictOrigin = horizontal ? conflict.x_double : conflict.y_double;
+        int conflictTarget = horizontal ? conflict.next.x_double : conflict.next.y_double;
 
         // Note that we should include endpoints here, since we could only have the corner points in common.
         if(direction == Direction.RIGHT || direction == Direction.UP) {
@@ -222,10 +291,7 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
              *
              * conflict.target -------- conflict.origin      this.origin -------- this.target
              */
-
-            // Check if the distance between the two points in the plane of choice is positive.
-            diff1 = getTarget().sub(conflict.getTarget());
-            diff2 = conflict.getOrigin().sub(getOrigin());
+            return target >= conflictTarget && conflictOrigin > origin;
         } else {
             /*
              * This edge has the rightmost/topmost point.
@@ -237,10 +303,8 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
              *
              * this.target -------- this.origin              conflict.origin -------- conflict.target
              */
-            diff1 = conflict.getTarget().sub(getTarget());
-            diff2 = getOrigin().sub(conflict.getOrigin());
+            return conflictTarget >= target && origin > conflictOrigin;
         }
-        return direction.isHorizontal ? diff1.x > -1e-4 && diff2.x > 1e-4 : diff1.y > -1e-4 && diff2.y > 1e-4;
     }
 
     /**
@@ -250,16 +314,27 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
      * @return ON if the points are equal, LEFT or RIGHT otherwise, depending on the position.
      */
     public Relative getRelativePosition(Point2d p) {
-        if(origin.epsilonEquals(p, 1e-4)) {
+        return getRelativePosition(doubled(p.x), doubled(p.y));
+    }
+
+    /**
+     * Get the position of a doubled point relative to the origin, following the direction of the edge.
+     *
+     * @param x The x-coordinate of the point doubled.
+     * @param y The y-coordinate of the point doubled.
+     * @return ON if the points are equal, LEFT or RIGHT otherwise, depending on the position.
+     */
+    Relative getRelativePosition(int x, int y) {
+        if(isOrigin(x, y)) {
             return Relative.ON;
         } else {
             // Note that a point is right of the origin if it is past the origin on the line.
             switch (direction) {
-                case RIGHT: return origin.x < p.x ? Relative.AFTER : Relative.BEFORE;
-                case LEFT: return origin.x > p.x ? Relative.AFTER : Relative.BEFORE;
-                case UP: return origin.y < p.y ? Relative.AFTER : Relative.BEFORE;
+                case RIGHT: return x_double < x ? Relative.AFTER : Relative.BEFORE;
+                case LEFT: return x_double > x ? Relative.AFTER : Relative.BEFORE;
+                case UP: return y_double < y ? Relative.AFTER : Relative.BEFORE;
                 case DOWN:
-                default: return origin.y > p.y ? Relative.AFTER : Relative.BEFORE;
+                default: return y_double > y ? Relative.AFTER : Relative.BEFORE;
             }
         }
     }
@@ -295,7 +370,7 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
                 }
 
                 // Increment i, and check whether we have exceeded the unique id counter.
-                if(i > Edge.ID_COUNTER) {
+                if(i > Edge.ID_COUNTER.get()) {
                     throw new RuntimeException("The iterator has detected an infinite loop.");
                 }
                 i++;
@@ -341,7 +416,7 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
 
                 // Increment i, and check whether we have exceeded the unique id counter.
                 i++;
-                if(i > Edge.ID_COUNTER) {
+                if(i > Edge.ID_COUNTER.get()) {
                     throw new RuntimeException("The iterator has detected an infinite loop.");
                 }
 
@@ -383,7 +458,7 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
 
     @Override
     public String toString() {
-        return id + " " + origin + "-" + direction + "->" + (next == null ? "null" : next.origin.toString());
+        return id + " " + getOrigin() + "-" + direction + "->" + (next == null ? "null" : next.getOrigin().toString());
     }
 
     /**
@@ -440,18 +515,29 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
      * The direction which the edge is moving in.
      */
     public enum Direction {
-        LEFT(true), UP(false), RIGHT(true), DOWN(false);
+        LEFT(true, 1, -1, -1, 0), UP(false, -1, -1, 0, 1), RIGHT(true, -1, 1, 1, 0), DOWN(false, 1, 1, 0, -1);
 
         // Whether the direction is horizontal or not.
         public final boolean isHorizontal;
 
+        // The components of the offset of an edge in this direction when buffering, and of a left corner cutoff.
+        public final int bufferX, bufferY, leftTurnX, leftTurnY;
+
         /**
-         * Create a direction and set the correct horizontal flag.
+         * Create a direction and set the correct horizontal flag and offsets.
          *
          * @param isHorizontal Whether the direction should be considered a horizontal direction.
+         * @param bufferX The x-component of the buffering offset.
+         * @param bufferY The y-component of the buffering offset.
+         * @param leftTurnX The x-component of the left corner cutoff.
+         * @param leftTurnY The y-component of the left corner cutoff.
          */
-        Direction(boolean isHorizontal) {
+        Direction(boolean isHorizontal, int bufferX, int bufferY, int leftTurnX, int leftTurnY) {
             this.isHorizontal = isHorizontal;
+            this.bufferX = bufferX;
+            this.bufferY = bufferY;
+            this.leftTurnX = leftTurnX;
+            this.leftTurnY = leftTurnY;
         }
 
         public static Direction getDirection(Point2d p1, Point2d p2) {
@@ -468,18 +554,32 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
             }
         }
 
+        /**
+         * Get the direction from one point to another, given by their coordinates.
+         *
+         * @param x1 The x-coordinate of the first point.
+         * @param y1 The y-coordinate of the first point.
+         * @param x2 The x-coordinate of the second point.
+         * @param y2 The y-coordinate of the second point.
+         * @return The direction in which the second point lies, where the x-coordinate takes precedence.
+         */
+        public static Direction getDirection(int x1, int y1, int x2, int y2) {
+            if(x1 < x2) {
+                return RIGHT;
+            } else if(x1 > x2) {
+                return LEFT;
+            } else {
+                return y1 < y2 ? UP : DOWN;
+            }
+        }
+
         /**
          * Get the offset directional vector associated with the direction.
          *
          * @return A vector with components length one indicating the direction in which a point should be translated.
          */
         public Point2d bufferVector() {
-            switch (this) {
-                case UP: return new Point2d(-1, -1);
-                case RIGHT: return new Point2d(-1, 1);
-                case DOWN: return new Point2d(1, 1);
-                default: return new Point2d(1, -1);
-            }
+            return new Point2d(bufferX, bufferY);
         }
 
         /**
@@ -488,12 +588,7 @@ public class Edge implements Iterable<Edge>, Comparable<Edge> {
          * @return A vector with components length one indicating the direction in which a point should be translated.
          */
         public Point2d leftTurnVector() {
-            switch (this) {
-                case UP: return new Point2d(0, 1);
-                case RIGHT: return new Point2d(1, 0);
-                case DOWN: return new Point2d(0, -1);
-                default: return new Point2d(-1, 0);
-            }
+            return new Point2d(leftTurnX, leftTurnY);
         }
 
         /**
@@ -0,0 +1,336 @@
+package agd.data.outlines;
+
+import agd.data.outlines.Edge.Direction;
+import agd.math.Point2d;
+
+import java.util.Arrays;
+
+/**
+ * An index over the edges of an outline, which finds the point on a buffered variant of the outline that is closest to
+ * a given point without building the buffered outline. The edges of a simple outline alternate between the axes, so
+ * each of them is translated onto one edge of the buffered outline, and no edges are merged along the way.
+ *
+ * Small rings are not indexed, but visited edge by edge. Once a queried ring has at least INDEX_THRESHOLD edges, the
+ * horizontal edges are sorted on their height and the vertical edges on their x-coordinate. Buffering moves an edge by
+ * at most the width of the buffering zone, so a query walks away from the point in both lists, and stops in a
+ * direction once the distance along the sorted axis minus that width exceeds the best distance found. Ties are broken
+ * on the position of the edge along the ring from the access point, such that the result is the same as that of
+ * visiting all the edges of the buffered outline in order.
+ *
+ * The outline refreshes the index after every insert, which numbers the edges along the ring again, drops the edges
+ * that have left the ring and merges the new edges into the sorted lists. A merge clears the index, since it replaces
+ * the ring by a rectangle.
+ */
+final class EdgeIndex {
+    // The number of edges from which a queried ring is indexed, below which visiting all edges is cheaper.
+    static final int INDEX_THRESHOLD = 64;
+
+    // A margin on the pruning distance, which covers the rounding of the coordinates of the query point.
+    private static final double EPSILON = 1e-6;
+
+    // The position from which the numbering starts over, such that the positions cannot overflow.
+    private static final int POSITION_LIMIT = Integer.MAX_VALUE / 2;
+
+    // The horizontal edges sorted on their doubled y-coordinate, and the vertical ones on their doubled x-coordinate.
+    private final Sorted horizontal = new Sorted(true), vertical = new Sorted(false);
+
+    // The access point the edges have been numbered from, which is null as long as the ring has not been indexed.
+    private Edge first;
+
+    // The position of the access point, and the number of edges on the ring, at the last refresh.
+    private int base, size;
+
+    /**
+     * Find the point on the buffered variant of the outline with the given access point that is closest to the point.
+     *
+     * @param first The access point of the outline, which comes first on ties.
+     * @param p The point to project.
+     * @param w The width of the buffering zone.
+     * @return The closest point on the buffered outline, which is the same one as BufferedOutline.projectAndSelect finds.
+     */
+    Point2d projectBuffered(Edge first, Point2d p, double w) {
+        Nearest result = new Nearest(p, Edge.doubled(w));
+        if(this.first == null) {
+            // Visit all the edges, and index the ring if it turns out to be large.
+            Edge e = first;
+            int position = 0;
+            do {
+                result.offer(e, position++);
+                e = e.getNext();
+            } while(e != first);
+
+            if(position >= INDEX_THRESHOLD) {
+                reset(first);
+            }
+        } else {
+            if(this.first != first) {
+                // The access point has been replaced without an insert.
+                reset(first);
+            }
+            horizontal.search(p.y, result);
+            vertical.search(p.x, result);
+        }
+        return new Point2d(result.x, result.y);
+    }
+
+    /**
+     * Check whether the ring has been indexed.
+     *
+     * @return True if the edges are kept in sorted lists, false if queries visit all edges.
+     */
+    boolean isIndexed() {
+        return first != null;
+    }
+
+    /**
+     * Drop the sorted lists, such that queries visit all edges again until the ring has grown large.
+     */
+    void clear() {
+        first = null;
+        horizontal.clear();
+        vertical.clear();
+    }
+
+    /**
+     * Bring the index up to date with the ring that starts at the given edge, after the ring has been changed locally.
+     *
+     * @param first The access point of the outline.
+     */
+    void refresh(Edge first) {
+        int previous = base, end = base + size;
+        if(this.first == null) {
+            return;
+        } else if(end > POSITION_LIMIT) {
+            reset(first);
+            return;
+        }
+
+        // Number the ring again, and collect the edges that were not on the ring at the last refresh.
+        this.first = first;
+        base = end;
+        size = 0;
+        for(Edge e : first) {
+            boolean indexed = previous <= e.position && e.position < end;
+            e.position = base + size++;
+            if(!indexed) {
+                (e.getDirection().isHorizontal ? horizontal : vertical).add(e);
+            }
+        }
+        horizontal.merge(base);
+        vertical.merge(base);
+
+        // An edge that has turned to the other axis has been dropped from its list, but not added to the other one.
+        if(horizontal.length + vertical.length != size) {
+            reset(first);
+        }
+    }
+
+    /**
+     * Index the ring that starts at the given edge from scratch.
+     *
+     * @param first The access point of the outline.
+     */
+    private void reset(Edge first) {
+        this.first = first;
+        base = 1;
+        size = 0;
+        horizontal.clear();
+        vertical.clear();
+        for(Edge e : first) {
+            e.position = base + size++;
+            (e.getDirection().isHorizontal ? horizontal : vertical).add(e);
+        }
+        horizontal.merge(base);
+        vertical.merge(base);
+    }
+
+    /**
+     * The closest point on the buffered outline found so far.
+     */
+    private static class Nearest {
+        final Point2d p;
+        final int w_double;
+        double x, y;
+        double distance = Double.MAX_VALUE;
+        int position = Integer.MAX_VALUE;
+
+        Nearest(Point2d p, int w_double) {
+            this.p = p;
+            this.w_double = w_double;
+        }
+
+        /**
+         * Check whether an edge at the given doubled distance along the sorted axis can still be as close as the best one.
+         */
+        boolean reachable(double offset) {
+            double bound = Math.abs(offset) - w_double - EPSILON;
+            return bound <= 0 || 0.25 * bound * bound <= distance;
+        }
+
+        /**
+         * Project the point onto the buffered variant of the given edge, as BufferedOutline.createOutline translates it.
+         */
+        void offer(Edge e, int position) {
+            Direction d = e.getDirection();
+            int ax = e.getDoubledX() + d.bufferX * w_double;
+            int ay = e.getDoubledY() + d.bufferY * w_double;
+            if(e.getPrevious().getDirection().isLeftTurn(d)) {
+                ax += d.leftTurnX * 2 * w_double;
+                ay += d.leftTurnY * 2 * w_double;
+            }
+
+            Edge next = e.getNext();
+            Direction n = next.getDirection();
+            int bx = next.getDoubledX() + n.bufferX * w_double;
+            int by = next.getDoubledY() + n.bufferY * w_double;
+            if(d.isLeftTurn(n)) {
+                bx += n.leftTurnX * 2 * w_double;
+                by += n.leftTurnY * 2 * w_double;
+            }
+
+            // Clamp and round the doubled point in the same way as Edge.project does.
+            double cx = Math.max(Math.min(ax, bx), Math.min(Math.max(ax, bx), 2 * p.x));
+            double cy = Math.max(Math.min(ay, by), Math.min(Math.max(ay, by), 2 * p.y));
+            double px = Math.round(cx) / 2.0, py = Math.round(cy) / 2.0;
+            double dist = Math.pow(px - p.x, 2) + Math.pow(py - p.y, 2);
+
+            if(dist < distance || dist == distance && position < this.position) {
+                x = px;
+                y = py;
+                distance = dist;
+                this.position = position;
+            }
+        }
+    }
+
+    /**
+     * The edges along one axis, sorted on the doubled coordinate they lie on.
+     */
+    private static class Sorted {
+        // Whether the edges are horizontal, and thus sorted on their y-coordinate.
+        private final boolean isHorizontal;
+
+        // The sorted edges and their coordinates, of which the first length entries are in use.
+        private Edge[] edges = new Edge[8];
+        private int[] keys = new int[8];
+        int length;
+
+        // The edges that are to be merged into the sorted edges.
+        private Edge[] added = new Edge[8];
+        private int addedLength;
+
+        Sorted(boolean isHorizontal) {
+            this.isHorizontal = isHorizontal;
+        }
+
+        void clear() {
+            Arrays.fill(edges, 0, length, null);
+            length = 0;
+        }
+
+        void add(Edge e) {
+            if(addedLength == added.length) {
+                added = Arrays.copyOf(added, 2 * addedLength);
+            }
+            added[addedLength++] = e;
+        }
+
+        private int key(Edge e) {
+            return isHorizontal ? e.getDoubledY() : e.getDoubledX();
+        }
+
+        /**
+         * Drop the edges that have left the ring or the axis, and merge the added edges into the sorted edges.
+         *
+         * @param base The position of the first edge of the ring, below which edges are no longer on it.
+         */
+        void merge(int base) {
+            // Sort the added edges, which are only a few after an insert.
+            for(int i = 1; i < addedLength; i++) {
+                Edge e = added[i];
+                int j = i - 1;
+                while(j >= 0 && key(added[j]) > key(e)) {
+                    added[j + 1] = added[j];
+                    j--;
+                }
+                added[j + 1] = e;
+            }
+
+            // Compact the remaining edges to the front.
+            int kept = 0;
+            for(int i = 0; i < length; i++) {
+                Edge e = edges[i];
+                if(e.position >= base && e.getDirection().isHorizontal == isHorizontal) {
+                    edges[kept] = e;
+                    keys[kept++] = keys[i];
+                }
+            }
+
+            // Merge both runs from the back, such that no entry is overwritten before it has been moved.
+            int total = kept + addedLength;
+            if(total > edges.length) {
+                int capacity = Math.max(total, 2 * edges.length);
+                edges = Arrays.copyOf(edges, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+            }
+            int i = kept - 1, j = addedLength - 1;
+            for(int k = total - 1; k >= 0; k--) {
+                if(j < 0 || i >= 0 && keys[i] > key(added[j])) {
+                    edges[k] = edges[i];
+                    keys[k] = keys[i--];
+                } else {
+                    edges[k] = added[j];
+                    keys[k] = key(added[j--]);
+                }
+            }
+            if(total < length) {
+                Arrays.fill(edges, total, length, null);
+            }
+            Arrays.fill(added, 0, addedLength, null);
+            length = total;
+            addedLength = 0;
+        }
+
+        /**
+         * Offer the edges that can be as close as the best one to the result, nearest coordinate first.
+         *
+         * @param c The coordinate of the query point along the sorted axis.
+         * @param result The closest point found so far.
+         */
+        void search(double c, Nearest result) {
+            double c_double = 2 * c;
+
+            // The first edge at or above the coordinate, and the last one below it.
+            int hi = lowerBound(c_double);
+            int lo = hi - 1;
+            while(true) {
+                boolean up = hi < length && result.reachable(keys[hi] - c_double);
+                boolean down = lo >= 0 && result.reachable(c_double - keys[lo]);
+                if(!up && !down) {
+                    return;
+                }
+
+                if(up && (!down || keys[hi] - c_double <= c_double - keys[lo])) {
+                    Edge e = edges[hi++];
+                    result.offer(e, e.position);
+                } else {
+                    Edge e = edges[lo--];
+                    result.offer(e, e.position);
+                }
+            }
+        }
+
+        private int lowerBound(double c) {
+            int lo = 0, hi = length;
+            while(lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if(keys[mid] < c) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package agd.data.outlines;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Counts the self intersections of an outline with a sweep, instead of testing every pair of edges.
+ *
+ * The count is the number of ordered pairs of edges (e1, e2) for which {@link Edge#doIntersect(Edge)} holds. Those are
+ * the pairs of perpendicular edges that cross in the interior of both, which count twice, and the pairs of edges in the
+ * same direction on the same line where the origin of the second lies on the first. The crossings are counted with a
+ * sweep from left to right over the vertical edges, which keeps the heights of the horizontal edges it passes through
+ * in a Fenwick tree. The overlaps are counted with binary searches in the edges sorted on their line. Small outlines
+ * are still checked pair by pair, since most buffered outlines have only a few dozen edges.
+ */
+final class EdgeIntersections {
+    // The number of edges below which testing every pair of edges is cheaper than setting up the sweep.
+    private static final int PAIRWISE_LIMIT = 48;
+
+    // Events that stop, query and start the horizontal edges at the same x-coordinate are handled in this order.
+    private static final int STOP = 0, QUERY = 1, START = 2;
+
+    private EdgeIntersections() {
+    }
+
+    /**
+     * Count the intersections between the edges of the outline that starts at the given edge.
+     *
+     * @param first An edge of the outline.
+     * @return The number of ordered pairs of distinct edges that intersect.
+     */
+    static int count(Edge first) {
+        int edges = 0;
+        for(Edge e : first) {
+            if(++edges >= PAIRWISE_LIMIT) {
+                return sweep(first);
+            }
+        }
+        return pairwise(first);
+    }
+
+    /**
+     * Count the intersections between the edges of the outline with a sweep, whatever the size of the outline.
+     *
+     * @param first An edge of the outline.
+     * @return The number of ordered pairs of distinct edges that intersect.
+     */
+    static int sweep(Edge first) {
+        List<Edge> horizontal = new ArrayList<>();
+        List<Edge> vertical = new ArrayList<>();
+        for(Edge e : first) {
+            (e.getDirection().isHorizontal ? horizontal : vertical).add(e);
+        }
+        return 2 * crossings(horizontal, vertical) + overlaps(horizontal, true) + overlaps(vertical, false);
+    }
+
+    /**
+     * Count the intersections by testing every ordered pair of edges.
+     */
+    private static int pairwise(Edge first) {
+        int count = 0;
+        for(Edge e1 : first) {
+            for(Edge e2 : e1.getNext()) {
+                if(e1 == e2) break;
+
+                if(e1.doIntersect(e2)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the pairs of horizontal and vertical edges that cross in the interior of both.
+     */
+    private static int crossings(List<Edge> horizontal, List<Edge> vertical) {
+        // The heights of the horizontal edges, which are the positions in the Fenwick tree.
+        int[] heights = new int[horizontal.size()];
+        for(int i = 0; i < heights.length; i++) {
+            heights[i] = horizontal.get(i).getDoubledY();
+        }
+        Arrays.sort(heights);
+
+        // A horizontal edge is active strictly between its endpoints, and a vertical edge queries at its x-coordinate.
+        // The order of the events at the same x-coordinate leaves the endpoints out.
+        List<Event> events = new ArrayList<>(2 * horizontal.size() + vertical.size());
+        for(Edge e : horizontal) {
+            int x1 = Math.min(e.getDoubledX(), e.getNext().getDoubledX());
+            int x2 = Math.max(e.getDoubledX(), e.getNext().getDoubledX());
+            if(x1 < x2) {
+                int position = lowerBound(heights, e.getDoubledY());
+                events.add(new Event(x1, START, position, 0));
+                events.add(new Event(x2, STOP, position, 0));
+            }
+        }
+        for(Edge e : vertical) {
+            int y1 = Math.min(e.getDoubledY(), e.getNext().getDoubledY());
+            int y2 = Math.max(e.getDoubledY(), e.getNext().getDoubledY());
+            events.add(new Event(e.getDoubledX(), QUERY, upperBound(heights, y1), lowerBound(heights, y2)));
+        }
+        events.sort(Comparator.comparingInt((Event e) -> e.x).thenComparingInt(e -> e.type));
+
+        int[] tree = new int[heights.length + 1];
+        int count = 0;
+        for(Event event : events) {
+            switch(event.type) {
+                case START: add(tree, event.from, 1); break;
+                case STOP: add(tree, event.from, -1); break;
+                default: if(event.from < event.to) count += sum(tree, event.to) - sum(tree, event.from);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the ordered pairs of edges in the same direction on the same line, where the origin of the second edge
+     * lies on the first edge.
+     */
+    private static int overlaps(List<Edge> edges, boolean horizontal) {
+        // The origins as keys of their line and position along the line, grouped on direction and sorted within each.
+        int[] sizes = new int[Edge.Direction.values().length];
+        for(Edge e : edges) {
+            sizes[e.getDirection().ordinal()]++;
+        }
+        long[][] groups = new long[sizes.length][];
+        for(int d = 0; d < sizes.length; d++) {
+            groups[d] = new long[sizes[d]];
+            sizes[d] = 0;
+        }
+        for(Edge e : edges) {
+            int d = e.getDirection().ordinal();
+            groups[d][sizes[d]++] = key(e, horizontal);
+        }
+        for(long[] group : groups) {
+            Arrays.sort(group);
+        }
+
+        int count = 0;
+        for(Edge e : edges) {
+            long origin = key(e, horizontal);
+            long target = key(e.getNext(), horizontal);
+            long[] group = groups[e.getDirection().ordinal()];
+
+            // The origins on the closed edge, except for its own. The target lies on the same line as the origin.
+            count += upperBound(group, Math.max(origin, target)) - lowerBound(group, Math.min(origin, target)) - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Get a key of the origin of the edge that orders on the coordinate of the line through it first, and on the
+     * coordinate along that line second.
+     */
+    private static long key(Edge e, boolean horizontal) {
+        int line = horizontal ? e.getDoubledY() : e.getDoubledX();
+        int along = horizontal ? e.getDoubledX() : e.getDoubledY();
+        return ((long) line << Integer.SIZE) + ((along ^ Integer.MIN_VALUE) & 0xffffffffL);
+    }
+
+    private static void add(int[] tree, int position, int value) {
+        for(int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i] += value;
+        }
+    }
+
+    /**
+     * The number of active heights at the positions before the given one.
+     */
+    private static int sum(int[] tree, int position) {
+        int sum = 0;
+        for(int i = position; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private static int lowerBound(int[] values, int value) {
+        int lo = 0, hi = values.length;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(values[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(int[] values, int value) {
+        int lo = 0, hi = values.length;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(values[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int lowerBound(long[] values, long value) {
+        int lo = 0, hi = values.length;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(values[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(long[] values, long value) {
+        int lo = 0, hi = values.length;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(values[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * A step of the sweep, which either starts or stops a horizontal edge, or counts the active edges between two
+     * positions in the Fenwick tree.
+     */
+    private static class Event {
+        final int x;
+        final int type;
+        final int from, to;
+
+        Event(int x, int type, int from, int to) {
+            this.x = x;
+            this.type = type;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package agd.data.outlines;
 
 import agd.data.input.WeightedPoint;
 import agd.data.util.EntryRectangle;
-import agd.math.Point2d;
 
 import java.awt.*;
 import java.util.HashMap;
@@ -65,11 +64,14 @@ public class OutlineRectangle extends EntryRectangle implements Comparable<Outli
     }
 
     /**
-     * Get the outline associated with the rectangle.
+     * Get the outline associated with the rectangle, following the merges of the outline it has been added to.
      *
      * @return The outline if it exists, null otherwise.
      */
     public AbstractOutline getOutline() {
+        if(outline != null) {
+            outline = outline.find();
+        }
         return outline;
     }
 
@@ -90,10 +92,10 @@ public class OutlineRectangle extends EntryRectangle implements Comparable<Outli
      */
     public Edge createOutline(Direction direction) {
         // Create all the required edges.
-        Edge up = new Edge(new Point2d(x, y), Direction.UP);
-        Edge right = new Edge(new Point2d(x, y + this.height), Direction.RIGHT);
-        Edge down = new Edge(new Point2d(x + this.width, y + this.height), Direction.DOWN);
-        Edge left = new Edge(new Point2d(x + this.width, y), Direction.LEFT);
+        Edge up = new Edge(2 * x, 2 * y, Direction.UP);
+        Edge right = new Edge(2 * x, 2 * (y + this.height), Direction.RIGHT);
+        Edge down = new Edge(2 * (x + this.width), 2 * (y + this.height), Direction.DOWN);
+        Edge left = new Edge(2 * (x + this.width), 2 * y, Direction.LEFT);
 
         // Set the links.
         up.setNext(right);
@@ -117,10 +119,10 @@ public class OutlineRectangle extends EntryRectangle implements Comparable<Outli
      */
     public Map<Direction, Edge> createOutlineMap() {
         // Create all the required edges.
-        Edge up = new Edge(new Point2d(x, y), Direction.UP);
-        Edge right = new Edge(new Point2d(x, y + this.height), Direction.RIGHT);
-        Edge down = new Edge(new Point2d(x + this.height, y + this.height), Direction.DOWN);
-        Edge left = new Edge(new Point2d(x + this.height, y), Direction.LEFT);
+        Edge up = new Edge(2 * x, 2 * y, Direction.UP);
+        Edge right = new Edge(2 * x, 2 * (y + this.height), Direction.RIGHT);
+        Edge down = new Edge(2 * (x + this.height), 2 * (y + this.height), Direction.DOWN);
+        Edge left = new Edge(2 * (x + this.height), 2 * y, Direction.LEFT);
 
         // Set the links.
         up.setNext(right);
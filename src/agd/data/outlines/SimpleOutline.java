@@ -25,22 +25,6 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
 //        rectangleEdges.forEach(bounds::put);
     }
 
-    /**
-     * Create a new outline.
-     *
-     * @param rectangle The rectangle which defines the original outline.
-     */
-    public SimpleOutline(OutlineRectangle rectangle, List<OutlineRectangle> rectangles) {
-        super(rectangle);
-
-        // Remove the rectangle that we just added.
-        this.getRectangles().clear();
-
-        // Add all the rectangles.
-        this.getRectangles().addAll(rectangles);
-        rectangles.forEach(r -> r.setOutline(this));
-    }
-
     /**
      * Insert the given rectangle into the outline.
      *
@@ -72,8 +56,8 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
             Edge b0 = rectangleEdges.get(a0.getDirection().opposite());
 
             // Check relative positions for both sides.
-            Relative r0 = a0.getRelativePosition(b0.getTarget());
-            Relative r1 = b0.getRelativePosition(a0.getTarget());
+            Relative r0 = a0.getRelativePosition(b0.getNext().getDoubledX(), b0.getNext().getDoubledY());
+            Relative r1 = b0.getRelativePosition(a0.getNext().getDoubledX(), a0.getNext().getDoubledY());
 
             // The nexts of both lines.
             Edge a0next = a0.getNext();
@@ -85,7 +69,7 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
                     break;
                 case BEFORE:
                     // We have to create a new edge in the same direction as b0.
-                    Edge n0 = new Edge(a0.getOrigin(), b0.getDirection());
+                    Edge n0 = new Edge(a0.getDoubledX(), a0.getDoubledY(), b0.getDirection());
 
                     n0.setNext(b0.getNext());
                     n0.setPrevious(a0.getPrevious());
@@ -109,7 +93,7 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
                     break;
                 case BEFORE:
                     // We have to create a new edge in the same direction as a1.
-                    Edge n1 = new Edge(b0.getOrigin(), a0.getDirection());
+                    Edge n1 = new Edge(b0.getDoubledX(), b0.getDoubledY(), a0.getDirection());
                     n1.setNext(a0next);
                     n1.setPrevious(b0.getPrevious());
 
@@ -130,11 +114,11 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
             // We know that the edges follow one another. Thus, we only have to look at two points.
             Edge a0 = touching.get(0);
             Edge b0 = rectangleEdges.get(a0.getDirection().opposite());
-            Relative r0 = a0.getRelativePosition(b0.getTarget());
+            Relative r0 = a0.getRelativePosition(b0.getNext().getDoubledX(), b0.getNext().getDoubledY());
 
             Edge a1 = touching.get(1);
             Edge b1 = rectangleEdges.get(a1.getDirection().opposite());
-            Relative r1 = b1.getRelativePosition(a1.getTarget());
+            Relative r1 = b1.getRelativePosition(a1.getNext().getDoubledX(), a1.getNext().getDoubledY());
 
             //noinspection Duplicates
             switch(r0) {
@@ -144,7 +128,7 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
                     break;
                 case BEFORE:
                     // We have to create a new edge in the same direction as b0.
-                    Edge n0 = new Edge(a0.getOrigin(), b0.getDirection());
+                    Edge n0 = new Edge(a0.getDoubledX(), a0.getDoubledY(), b0.getDirection());
                     n0.setNext(b0.getNext());
                     n0.setPrevious(a0.getPrevious());
 
@@ -165,7 +149,7 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
                     break;
                 case BEFORE:
                     // We have to create a new edge in the same direction as a1.
-                    Edge n1 = new Edge(b1.getOrigin(), a1.getDirection());
+                    Edge n1 = new Edge(b1.getDoubledX(), b1.getDoubledY(), a1.getDirection());
                     n1.setNext(a1.getNext());
                     n1.setPrevious(b1.getPrevious());
                     break;
@@ -186,11 +170,28 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
         // Add the rectangle to the list of rectangles.
         addRectangle(rectangle);
 
-        double oy = getEdge().getOrigin().y;
-        double ny = rectangleEdges.get(Direction.LEFT).getOrigin().y;
+        int oy = getEdge().getDoubledY();
+        int ny = rectangleEdges.get(Direction.LEFT).getDoubledY();
 
         // Do we need to change our access point?
         updateAccessPoint(rectangleEdges, oy, ny);
+
+        // Number the changed ring in the index.
+        refreshIndex();
+    }
+
+    /**
+     * Find the point on the buffered variant of the outline that is closest to the given point.
+     *
+     * The edges are found through the index of the outline, such that the buffered outline is not built. The result
+     * is the same as that of projectAndSelect on a BufferedOutline of this outline, which is not sanitized.
+     *
+     * @param p The point to project.
+     * @param w The width of the buffering zone.
+     * @return The closest point on the buffered outline.
+     */
+    public Point2d projectBuffered(Point2d p, double w) {
+        return getIndex().projectBuffered(getEdge(), p, w);
     }
 
     /**
@@ -225,15 +226,15 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
             // If we encounter an edge in the desired direction.
             if(previous.getDirection() == targetDirection) {
                 // Find the point on the line corresponding to our target.
-                Point2d point = previous.getIntersection(edge.getNext());
+                int x = previous.intersectionX(edge.getNext()), y = previous.intersectionY(edge.getNext());
 
                 // Where is our target point relative to the origin of previous?
-                Relative r = previous.getRelativePosition(point);
+                Relative r = previous.getRelativePosition(x, y);
 
                 // If relative reports after, we have found the edge to contract.
                 if(r == Relative.AFTER) {
                     // Project the target onto previous and create a new edge.
-                    Edge n = new Edge(point, edge.getPrevious().getDirection());
+                    Edge n = new Edge(x, y, edge.getPrevious().getDirection());
 
                     n.setPrevious(previous);
                     n.setNext(edge.getNext().getNext());
@@ -258,8 +259,7 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
             return;
         }
 
-        Point2d point = candidate.getPrevious().getIntersection(edge);
-        Edge n = new Edge(point, edge.getDirection());
+        Edge n = new Edge(candidate.getPrevious().intersectionX(edge), candidate.getPrevious().intersectionY(edge), edge.getDirection());
 
         n.setPrevious(candidate.getPrevious());
         n.setNext(edge.getNext());
@@ -292,19 +292,16 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
 
             // If we encounter an edge in the desired direction.
             if(next.getDirection() == targetDirection) {
-                // Find the point on the line corresponding to our target.
-                Point2d point = next.getIntersection(edge.getPrevious());
-
                 // The actual point we should take relatively (i.e. it lies on edge).
-                Point2d point2 = next.getNext().getIntersection(edge);
+                Edge after = next.getNext();
 
                 // Is the target point of next past our line? (in this case, BEFORE).
-                Relative r = edge.getRelativePosition(point2);
+                Relative r = edge.getRelativePosition(after.intersectionX(edge), after.intersectionY(edge));
 
                 // If relative reports before, we have found the edge to contract.
                 if(r == Relative.BEFORE) {
-                    // Create the new required edge in the direction of next.
-                    Edge n = new Edge(point, next.getDirection());
+                    // Create the new required edge in the direction of next, at the point on the line corresponding to our target.
+                    Edge n = new Edge(next.intersectionX(edge.getPrevious()), next.intersectionY(edge.getPrevious()), next.getDirection());
 
                     n.setPrevious(edge.getPrevious());
                     n.setNext(next.getNext());
@@ -329,8 +326,7 @@ public class SimpleOutline extends AbstractOutline implements Insertable {
             return;
         }
 
-        Point2d point = candidate.getNext().getIntersection(edge);
-        Edge n = new Edge(point, edge.getNext().getDirection());
+        Edge n = new Edge(candidate.getNext().intersectionX(edge), candidate.getNext().intersectionY(edge), edge.getNext().getDirection());
 
         n.setPrevious(edge);
         n.setNext(candidate.getNext().getNext());
@@ -67,9 +67,26 @@ public class HalfGridPoint {
      * @return Whether the two regions associated with the points overlap.
      */
     public boolean hasOverlap(HalfGridPoint q) {
-        java.awt.Rectangle r1 = new java.awt.Rectangle(x_double - o.w, y_double - o.w, 2 * o.w, 2 * o.w);
-        java.awt.Rectangle r2 = new java.awt.Rectangle(q.x_double - q.o.w, q.y_double - q.o.w, 2 * q.o.w, 2 * q.o.w);
-        return r1.intersects(r2);
+        // Compare the doubled coordinates of the squares, in which the half size of a square equals its weight.
+        return Math.abs(x_double - q.x_double) < o.w + q.o.w && Math.abs(y_double - q.y_double) < o.w + q.o.w;
+    }
+
+    /**
+     * Get the doubled x-coordinate of the point, which is always an integer.
+     *
+     * @return Two times the x-coordinate of the point.
+     */
+    int getDoubledX() {
+        return x_double;
+    }
+
+    /**
+     * Get the doubled y-coordinate of the point, which is always an integer.
+     *
+     * @return Two times the y-coordinate of the point.
+     */
+    int getDoubledY() {
+        return y_double;
     }
 
     public String toString() {
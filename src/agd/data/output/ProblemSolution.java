@@ -1,10 +1,11 @@
 package agd.data.output;
 
 import agd.data.input.ProblemInstance;
-import agd.data.input.WeightedPoint;
 import agd.math.Point2d;
 import agd.solver.AbstractSolver;
+import agd.solver.CancellationToken;
 
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -14,8 +15,17 @@ public class ProblemSolution {
     // The problem instance we are attempting to solve.
     private final ProblemInstance instance;
 
-    // The points that are in the solution.
-    private final ArrayList<HalfGridPoint> points = new ArrayList<>();
+    // The number of points from which the overlaps are searched for in parallel.
+    private static final int PARALLEL_VALIDATION_SIZE = 50000;
+
+    // The points that are in the solution, which keep track of the error metrics while they are placed.
+    private final SolutionPoints points = new SolutionPoints();
+
+    // Whether the solver has placed all the points itself, rather than being stopped by the time budget.
+    private final boolean finished;
+
+    // The ids of the invalid points, which are only determined once they are requested.
+    private volatile Set<Integer> invalidPoints;
 
     /**
      * Create a solution for the given problem.
@@ -29,6 +39,30 @@ public class ProblemSolution {
         long startTime = System.currentTimeMillis();
         solver.solve(instance, points);
         System.out.println("Running time: " + ((System.currentTimeMillis() - startTime) / 1000.0) + " seconds.");
+        this.finished = true;
+    }
+
+    /**
+     * Create a solution for the given problem within the given time.
+     *
+     * The points the solver has not placed when the budget runs out are placed by a fallback, see AbstractSolver.
+     *
+     * @param instance The problem instance we are constructing a solution for.
+     * @param budget The time the solver is allowed to run, not counting the fallback.
+     * @param token The token through which the solver can be stopped early.
+     */
+    public ProblemSolution(ProblemInstance instance, AbstractSolver solver, Duration budget, CancellationToken token) {
+        this.instance = instance;
+        this.finished = solver.solve(instance, points, budget, token);
+    }
+
+    /**
+     * Check whether the solver has placed all the points itself, rather than being stopped.
+     *
+     * @return False if the solution has been completed by the fallback.
+     */
+    public boolean isFinished() {
+        return finished;
     }
 
     /**
@@ -37,7 +71,7 @@ public class ProblemSolution {
      * @return The sum of the differences between the original points and the closest reference points.
      */
     public double getMinimumError() {
-        return points.stream().map(h -> h.o.distance2(h.o.c)).reduce(0d, Double::sum);
+        return points.getMinimumError();
     }
 
     /**
@@ -46,19 +80,55 @@ public class ProblemSolution {
      * @return The sum of the differences between the original points and the solution positions.
      */
     public double getTotalError() {
-        return points.stream().map(h -> h.o.distance2(h.point())).reduce(0d, Double::sum);
+        return points.getTotalError();
+    }
+
+    /**
+     * Get the largest distance a point has been moved over in the solution.
+     *
+     * @return The largest distance between an original point and its solution position.
+     */
+    public double getMaxDisplacement() {
+        return points.getMaxDisplacement();
+    }
+
+    /**
+     * Get the number of points per unit of distance they have been moved over in the solution.
+     *
+     * @return The histogram of the displacements, as described in SolutionPoints.
+     */
+    public int[] getDisplacementHistogram() {
+        return points.getDisplacementHistogram();
     }
 
     /**
      * Get the ids of the points that have been placed invalidly.
      *
-     * @return A set of integers representing the ids of the points that are invalid.
+     * The validation is done once per solution, after which the same result is returned.
+     *
+     * @return An unmodifiable set of integers representing the ids of the points that are invalid.
      */
     public Set<Integer> getInvalidPoints() {
+        Set<Integer> result = invalidPoints;
+        if(result == null) {
+            synchronized(this) {
+                result = invalidPoints;
+                if(result == null) {
+                    invalidPoints = result = Collections.unmodifiableSet(validate());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the points that have been placed invalidly.
+     *
+     * @return A set of integers representing the ids of the points that are invalid.
+     */
+    private Set<Integer> validate() {
         // A set of integers holding all points that have faulty placements.
         HashSet<Integer> errors = new HashSet<>();
-        HashSet<Integer> overlaps = new HashSet<>();
-
 
         for(HalfGridPoint p : points) {
             // First check if the coordinates are valid.
@@ -70,31 +140,24 @@ public class ProblemSolution {
                 errors.add(p.o.i);
                 System.out.println("Point " + p.o.i + " does not have its corner position on integer positions.");
             }
-
-            // Next, check if the node overlaps with other regions.
-            for(HalfGridPoint q : points) {
-                if(p.o.i != q.o.i && p.hasOverlap(q)) {
-                    errors.add(p.o.i);
-                    overlaps.add(p.o.i);
-//                    System.out.println("Point " + p.o.i + " overlaps with " + q.o.i + ".");
-                }
-            }
         }
 
+        // Next, check which of the regions overlap with other regions.
+        Set<Integer> overlaps = SolutionValidator.findOverlapping(points, points.size() >= PARALLEL_VALIDATION_SIZE);
+        errors.addAll(overlaps);
+
         overlaps.forEach(System.out::println);
         if(overlaps.size() > 0) System.out.println("We have " + overlaps.size() + " rectangles that overlap.");
 
         // Check whether each point is represented in the solution.
-        List<WeightedPoint> originalPoints = instance.getPoints();
-
-        if(points.size() != instance.getPoints().size()) {
+        if(points.size() != instance.size()) {
             throw new RuntimeException("There are points missing in the solution (or there are too many points)!");
         } else {
             List<HalfGridPoint> sortedPoints = getPoints();
             sortedPoints.sort(Comparator.comparingInt(a -> a.o.i));
 
             for(int i = 0; i < points.size(); i++) {
-                if(originalPoints.get(i).i != sortedPoints.get(i).o.i) {
+                if(i != sortedPoints.get(i).o.i) {
                     throw new RuntimeException("The " + i + "th point is not present in the solution!");
                 }
             }
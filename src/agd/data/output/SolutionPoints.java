@@ -0,0 +1,319 @@
+package agd.data.output;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * The list of placed points of a solution, which keeps track of the error metrics while the points are placed.
+ *
+ * The solvers fill the list through add and set, of which both update the metrics in constant time. Entries that are
+ * null have not been placed yet, and are not counted. The metrics can be read at any time, also by another thread
+ * while a solver is still running, which makes them suitable for progress reporting. Views of the list are read-only.
+ */
+public class SolutionPoints extends ArrayList<HalfGridPoint> {
+    private static final long serialVersionUID = 1L;
+
+    // The number of buckets in the displacement histogram, of which the last one also holds all larger displacements.
+    public static final int HISTOGRAM_BUCKETS = 32;
+
+    // The sums of the squared distances to the placed positions and to the reference points.
+    private final CompensatedSum totalError = new CompensatedSum();
+    private final CompensatedSum minimumError = new CompensatedSum();
+
+    // The largest squared distance between a point and its placement, which has to be recomputed when it is stale.
+    private double maxError;
+    private boolean maxErrorStale;
+
+    // The number of placed points, and the number of placed points per unit of displacement.
+    private int placed;
+    private final int[] histogram = new int[HISTOGRAM_BUCKETS];
+
+    /**
+     * Create an empty list of points.
+     */
+    public SolutionPoints() {
+        super();
+    }
+
+    /**
+     * Create an empty list of points with the given initial capacity.
+     *
+     * @param capacity The number of points the list can hold before it has to grow.
+     */
+    public SolutionPoints(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Calculate the squared distance between the original point and the placement.
+     *
+     * @param p The placed point.
+     * @return The error of the placement.
+     */
+    static double error(HalfGridPoint p) {
+        double dx = p.o.x - p.getDoubledX() / 2.0;
+        double dy = p.o.y - p.getDoubledY() / 2.0;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Get the sum of the squared distances between the original points and their placements.
+     *
+     * @return The total error of the placed points.
+     */
+    public synchronized double getTotalError() {
+        return totalError.value();
+    }
+
+    /**
+     * Get the sum of the squared distances between the original points and their reference points, which is the error
+     * that cannot be avoided.
+     *
+     * @return The minimum error of the placed points.
+     */
+    public synchronized double getMinimumError() {
+        return minimumError.value();
+    }
+
+    /**
+     * Get the largest distance between an original point and its placement.
+     *
+     * This is constant time, unless the point with the largest displacement has been moved or removed since the last
+     * call, in which case all the points are visited once.
+     *
+     * @return The largest displacement, or zero when no points have been placed.
+     */
+    public synchronized double getMaxDisplacement() {
+        if(maxErrorStale) {
+            maxError = 0;
+            for(int i = 0; i < size(); i++) {
+                HalfGridPoint p = get(i);
+                if(p != null) {
+                    maxError = Math.max(maxError, error(p));
+                }
+            }
+            maxErrorStale = false;
+        }
+        return Math.sqrt(maxError);
+    }
+
+    /**
+     * Get the number of placed points per unit of displacement. Bucket i holds the points that have been moved by a
+     * distance in [i, i + 1), and the last bucket also holds all points that have been moved further.
+     *
+     * @return A copy of the histogram, with HISTOGRAM_BUCKETS entries.
+     */
+    public synchronized int[] getDisplacementHistogram() {
+        return Arrays.copyOf(histogram, HISTOGRAM_BUCKETS);
+    }
+
+    /**
+     * Get the number of entries that hold a placed point.
+     *
+     * @return The number of entries that are not null.
+     */
+    public synchronized int getPlacedCount() {
+        return placed;
+    }
+
+    @Override
+    public synchronized boolean add(HalfGridPoint p) {
+        super.add(p);
+        include(p);
+        return true;
+    }
+
+    @Override
+    public synchronized void add(int index, HalfGridPoint p) {
+        super.add(index, p);
+        include(p);
+    }
+
+    @Override
+    public synchronized HalfGridPoint set(int index, HalfGridPoint p) {
+        HalfGridPoint old = super.set(index, p);
+        exclude(old);
+        include(p);
+        return old;
+    }
+
+    @Override
+    public synchronized HalfGridPoint remove(int index) {
+        HalfGridPoint old = super.remove(index);
+        exclude(old);
+        return old;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        int index = indexOf(o);
+        if(index == -1) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends HalfGridPoint> c) {
+        ensureCapacity(size() + c.size());
+        for(HalfGridPoint p : c) {
+            add(p);
+        }
+        return !c.isEmpty();
+    }
+
+    @Override
+    public synchronized boolean addAll(int index, Collection<? extends HalfGridPoint> c) {
+        boolean changed = super.addAll(index, c);
+        c.forEach(this::include);
+        return changed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+        recount();
+    }
+
+    /**
+     * The view is read-only, since changes through it would bypass the metrics.
+     */
+    @Override
+    public List<HalfGridPoint> subList(int fromIndex, int toIndex) {
+        return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+    }
+
+    /**
+     * The copy keeps track of its own metrics.
+     */
+    @Override
+    public synchronized SolutionPoints clone() {
+        SolutionPoints copy = new SolutionPoints(size());
+        copy.addAll(this);
+        return copy;
+    }
+
+    // The bulk operations below are not used while solving, so they simply recount all the metrics.
+
+    @Override
+    public synchronized boolean removeAll(Collection<?> c) {
+        boolean changed = super.removeAll(c);
+        recount();
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean retainAll(Collection<?> c) {
+        boolean changed = super.retainAll(c);
+        recount();
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean removeIf(Predicate<? super HalfGridPoint> filter) {
+        boolean changed = super.removeIf(filter);
+        recount();
+        return changed;
+    }
+
+    @Override
+    public synchronized void replaceAll(UnaryOperator<HalfGridPoint> operator) {
+        super.replaceAll(operator);
+        recount();
+    }
+
+    @Override
+    protected synchronized void removeRange(int fromIndex, int toIndex) {
+        super.removeRange(fromIndex, toIndex);
+        recount();
+    }
+
+    /**
+     * Add the given placement to the metrics.
+     */
+    private void include(HalfGridPoint p) {
+        if(p == null) {
+            return;
+        }
+
+        double error = error(p);
+        totalError.add(error);
+        minimumError.add(p.o.distance2(p.o.c));
+        if(!maxErrorStale && error > maxError) {
+            maxError = error;
+        }
+        histogram[bucket(error)]++;
+        placed++;
+    }
+
+    /**
+     * Remove the given placement from the metrics.
+     */
+    private void exclude(HalfGridPoint p) {
+        if(p == null) {
+            return;
+        }
+
+        double error = error(p);
+        totalError.add(-error);
+        minimumError.add(-p.o.distance2(p.o.c));
+        if(error >= maxError) {
+            maxErrorStale = true;
+        }
+        histogram[bucket(error)]--;
+        placed--;
+    }
+
+    /**
+     * Compute all the metrics from scratch.
+     */
+    private void recount() {
+        totalError.clear();
+        minimumError.clear();
+        maxError = 0;
+        maxErrorStale = false;
+        placed = 0;
+        Arrays.fill(histogram, 0);
+        for(int i = 0; i < size(); i++) {
+            include(get(i));
+        }
+    }
+
+    /**
+     * Find the histogram bucket of the given squared displacement.
+     */
+    private static int bucket(double error) {
+        return (int) Math.min(Math.sqrt(error), HISTOGRAM_BUCKETS - 1);
+    }
+
+    /**
+     * A sum of doubles with Neumaier compensation, such that removing points again does not make the sum drift.
+     */
+    private static class CompensatedSum {
+        private double sum, compensation;
+
+        void add(double value) {
+            double t = sum + value;
+            if(Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - t) + value;
+            } else {
+                compensation += (value - t) + sum;
+            }
+            sum = t;
+        }
+
+        double value() {
+            return sum + compensation;
+        }
+
+        void clear() {
+            sum = compensation = 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package agd.data.output;
+
+import agd.data.util.OverlapSweep;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the overlapping squares in a solution with a sweep line, in O(n log n + k) time for k overlapping pairs.
+ *
+ * All coordinates are doubled, such that they are integers. Large solutions are swept in parallel slabs, as described
+ * in OverlapSweep.
+ */
+public final class SolutionValidator {
+    private SolutionValidator() {
+    }
+
+    /**
+     * Find the points of which the square overlaps with the square of at least one other point.
+     *
+     * @param points The placed points of a solution.
+     * @param parallel Whether the work should be divided over the available processors.
+     * @return The ids of the points that overlap with another point.
+     */
+    public static Set<Integer> findOverlapping(List<HalfGridPoint> points, boolean parallel) {
+        return findOverlapping(points, 0, parallel);
+    }
+
+    /**
+     * Find the points of which the square overlaps with the square of at least one other point.
+     *
+     * @param points The placed points of a solution.
+     * @param slabs The number of slabs the plane is cut into, or zero to choose it from the number of processors.
+     * @param parallel Whether the slabs should be swept in parallel.
+     * @return The ids of the points that overlap with another point.
+     */
+    static Set<Integer> findOverlapping(List<HalfGridPoint> points, int slabs, boolean parallel) {
+        int n = points.size();
+
+        // The doubled coordinates of the sides of the squares, in which the half size of a square is its weight.
+        int[] left = new int[n], right = new int[n], bottom = new int[n], top = new int[n];
+        for(int i = 0; i < n; i++) {
+            HalfGridPoint p = points.get(i);
+            left[i] = p.getDoubledX() - p.o.w;
+            right[i] = p.getDoubledX() + p.o.w;
+            bottom[i] = p.getDoubledY() - p.o.w;
+            top[i] = p.getDoubledY() + p.o.w;
+        }
+
+        boolean[] overlapping = slabs == 0
+                ? OverlapSweep.findOverlapping(left, right, bottom, top, parallel)
+                : OverlapSweep.findOverlapping(left, right, bottom, top, slabs, parallel);
+
+        Set<Integer> result = new HashSet<>();
+        for(int i = 0; i < n; i++) {
+            if(overlapping[i]) {
+                result.add(points.get(i).o.i);
+            }
+        }
+        return result;
+    }
+}
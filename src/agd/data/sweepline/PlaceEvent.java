@@ -2,59 +2,40 @@ package agd.data.sweepline;
 
 import agd.data.input.WeightedPoint;
 import agd.data.output.HalfGridPoint;
-import agd.math.Point2i;
+import agd.data.util.SkylineTree;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.PriorityQueue;
 
-
-public class PlaceEvent extends AbstractEvent {
-
-    public PlaceEvent(Point2i p, WeightedPoint owner) {
-        super(p, owner);
+/**
+ * The event of reaching the lower left corner of the region of a point, at which its square is placed.
+ */
+public final class PlaceEvent {
+    private PlaceEvent() {
     }
 
     // -Lower left region corner reached. Place square if possible or move to the right until possible to place
-    //  and add square corner coords to status
+    //  and raise the status to the right side of the square
 
     /**
+     * Place the square against the squares placed before it, and raise the skyline over its y-interval.
+     *
+     * The skyline holds the furthest right side over every y-coordinate. Squares whose right side lies left of the
+     * sweep line can stay in it, since they never push a square that starts at the sweep line.
      *
-     * @param intervalTree
-     * @param points
+     * @param skyline The furthest right side of the placed squares over every y-coordinate.
+     * @param x The x-coordinate of the lower left corner of the region.
+     * @param y The y-coordinate of the lower left corner of the region.
+     * @param owner The point the region belongs to.
+     * @param points The list of placed points.
      */
-    @Override
-    public void execute(IntervalTree intervalTree, ArrayList<HalfGridPoint> points, PriorityQueue<AbstractEvent> events) {
-        // Get overlaps between interval tree and point interval on y-coords
-        Interval interval = new Interval(getP().y, (getP().y + getOwner().w), getP().x, getOwner().i);
-        List<Interval> overlaps;
-        overlaps = intervalTree.checkInterval(intervalTree.getRoot(), interval);
-
-        // Get max depth in overlaps
-        int maxDepth = Integer.MIN_VALUE;
-        for (Interval i: overlaps ) {
-            if (i.getDepth() > maxDepth) {
-                maxDepth = i.getDepth();
-            }
-        }
-
-        HalfGridPoint placedPoint;
-        // Check if p.x is greater than the max depth in overlapping intervals
-        if (maxDepth > interval.getDepth()) {
-            interval.setDepth(maxDepth + getOwner().w);
-            // Create a HalfGridPoint with correct x coord
-            placedPoint = new HalfGridPoint(maxDepth + (getOwner().w * 0.5), getP().y + (getOwner().w * 0.5), getOwner());
-        } else {
-            interval.setDepth(interval.getDepth() + getOwner().w);
-            // Create a HalfGridPoint with correct x coord
-            placedPoint = new HalfGridPoint(getP().x + getOwner().w * 0.5, getP().y + getOwner().w * 0.5, getOwner());
-        }
+    public static void execute(SkylineTree skyline, int x, int y, WeightedPoint owner, ArrayList<HalfGridPoint> points) {
+        int w = owner.w;
 
-        // Add interval to interval tree and add placedPoint to solution
-        intervalTree.setRoot(intervalTree.addInterval(intervalTree.getRoot(), interval));
-        points.add(placedPoint);
+        // Move the square to the right of all the squares it overlaps with on its y-interval.
+        x = Math.max(x, skyline.max(y, y + w));
 
-        // Create deletion event for square
-        events.add(new DeleteEvent(new Point2i(interval.getDepth(), interval.getStart()), getOwner()));
+        // The right side of the square lies beyond everything on its y-interval, so it becomes the new skyline there.
+        skyline.raise(y, y + w, x + w);
+        points.add(new HalfGridPoint(x + w * 0.5, y + w * 0.5, owner));
     }
 }
@@ -2,51 +2,35 @@ package agd.data.sweeplineDual;
 
 import agd.data.input.WeightedPoint;
 import agd.data.output.HalfGridPoint;
-import agd.math.Point2i;
+import agd.data.util.SkylineTree;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.PriorityQueue;
 
-public class PlaceEventLeft extends AbstractEvent {
-    public PlaceEventLeft(Point2i p, WeightedPoint owner) {
-        super(p, owner);
+/**
+ * The event of reaching the lower right corner of the region of a point when sweeping to the left, at which its square
+ * is placed. The squares that are swept to the right are placed by {@link agd.data.sweepline.PlaceEvent}.
+ */
+public final class PlaceEventLeft {
+    private PlaceEventLeft() {
     }
 
-    @Override
-    public void execute(IntervalTree intervalTree, ArrayList<HalfGridPoint> points, PriorityQueue<AbstractEvent> events) {
-        // Get overlaps between interval tree and point interval on y-coords
-        Interval interval = new Interval(getP().y, (getP().y + getOwner().w), getP().x, getP().x + getOwner().w, getOwner().i);
-        List<Interval> overlaps;
-        overlaps = intervalTree.checkInterval(intervalTree.getRoot(), interval);
-
-        // Get max depth in overlaps
-        int minValue = Integer.MAX_VALUE;
-        for (Interval i: overlaps ) {
-            if (i.getMinDepth() < minValue) {
-                minValue = i.getMinDepth();
-            }
-        }
-
-        HalfGridPoint placedPoint;
-        // Check if p.x is greater than the max depth in overlapping intervals
-        if (minValue < interval.getMinDepth()) {
-            interval.setMinDepth(minValue - getOwner().w);
-            interval.setMaxDepth(minValue);
-            // Create a HalfGridPoint with correct x coord
-            placedPoint = new HalfGridPoint(minValue - (getOwner().w * 0.5), getP().y + (getOwner().w * 0.5), getOwner());
-        } else {
-            interval.setMinDepth(interval.getMinDepth() - getOwner().w);
-            interval.setMaxDepth(interval.getMinDepth() + getOwner().w);
-            // Create a HalfGridPoint with correct x coord
-            placedPoint = new HalfGridPoint(getP().x - getOwner().w * 0.5, getP().y + getOwner().w * 0.5, getOwner());
-        }
-
-        // Add interval to interval tree and add placedPoint to solution
-        intervalTree.setRoot(intervalTree.addInterval(intervalTree.getRoot(), interval));
-        points.add(placedPoint);
-
-        // Create deletion event for square
-        events.add(new DeleteEvent(new Point2i(interval.getMaxDepth(), interval.getStart()), getOwner()));
+    /**
+     * Place the square to the left of the squares placed before it, and raise the skyline over its y-interval.
+     *
+     * @param skyline The negated furthest left side of the placed squares over every y-coordinate, such that the
+     *                furthest left side is found as the maximum.
+     * @param x The x-coordinate of the lower right corner of the region.
+     * @param y The y-coordinate of the lower right corner of the region.
+     * @param owner The point the region belongs to.
+     * @param points The list of placed points.
+     */
+    public static void execute(SkylineTree skyline, int x, int y, WeightedPoint owner, ArrayList<HalfGridPoint> points) {
+        int w = owner.w;
+
+        // Move the square to the left of all the squares it overlaps with on its y-interval, where x is its right side.
+        x = -Math.max(-x, skyline.max(y, y + w));
+
+        skyline.raise(y, y + w, w - x);
+        points.add(new HalfGridPoint(x - w * 0.5, y + w * 0.5, owner));
     }
 }
@@ -0,0 +1,264 @@
+package agd.data.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A balanced interval tree over half-open intervals [start, end), which reports the intervals that overlap a query
+ * interval.
+ *
+ * The tree is a treap ordered on (start, end, id), stored in primitive arrays. Every node is augmented with the
+ * maximum end of its subtree, such that a query skips the subtrees in which no interval ends after the query start.
+ */
+public class AugmentedIntervalTree {
+    // The initial capacity of the node arrays.
+    private static final int INITIAL_CAPACITY = 64;
+
+    // The intervals, together with their ids.
+    private int[] start, end, id;
+
+    // The random heap priorities of the nodes, and the children of the nodes.
+    private int[] priority, left, right;
+
+    // The maximum end of the intervals in the subtrees of the nodes.
+    private int[] maxEnd;
+
+    // The root of the tree, the number of nodes handed out and the list of released nodes, linked through left.
+    private int root = -1;
+    private int nodes;
+    private int free = -1;
+
+    // The number of intervals in the tree.
+    private int size;
+
+    // The state of the random number generator used for the priorities, which is fixed for reproducibility.
+    private int seed = 0x2545F491;
+
+    /**
+     * Create an empty interval tree.
+     */
+    public AugmentedIntervalTree() {
+        start = new int[INITIAL_CAPACITY];
+        end = new int[INITIAL_CAPACITY];
+        id = new int[INITIAL_CAPACITY];
+        priority = new int[INITIAL_CAPACITY];
+        left = new int[INITIAL_CAPACITY];
+        right = new int[INITIAL_CAPACITY];
+        maxEnd = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Insert the interval [start, end).
+     *
+     * @param start The start of the interval.
+     * @param end The end of the interval, which is excluded.
+     * @param id The id of the interval, which should be unique among intervals with the same start and end.
+     */
+    public void insert(int start, int end, int id) {
+        int n = allocate();
+        this.start[n] = start;
+        this.end[n] = end;
+        this.id[n] = id;
+        priority[n] = nextPriority();
+        left[n] = -1;
+        right[n] = -1;
+        update(n);
+
+        root = insert(root, n);
+        size++;
+    }
+
+    /**
+     * Delete the interval [start, end) with the given id, if it exists.
+     *
+     * @param start The start of the interval.
+     * @param end The end of the interval.
+     * @param id The id of the interval.
+     * @return True if the interval was found and deleted.
+     */
+    public boolean delete(int start, int end, int id) {
+        int before = size;
+        root = delete(root, start, end, id);
+        return size != before;
+    }
+
+    /**
+     * Report the ids of all intervals that overlap with the open interval (start, end).
+     *
+     * @param start The start of the query interval.
+     * @param end The end of the query interval.
+     * @param action The action that is called with the id of each of the overlapping intervals.
+     */
+    public void forEachOverlapping(int start, int end, IntConsumer action) {
+        forEachOverlapping(root, start, end, action);
+    }
+
+    /**
+     * Get the number of intervals in the tree.
+     *
+     * @return The number of intervals that have been inserted and not deleted.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all the intervals from the tree.
+     */
+    public void clear() {
+        root = -1;
+        nodes = 0;
+        free = -1;
+        size = 0;
+    }
+
+    private int insert(int t, int n) {
+        if(t == -1) {
+            return n;
+        }
+
+        if(compare(start[n], end[n], id[n], t) < 0) {
+            left[t] = insert(left[t], n);
+            if(priority[left[t]] > priority[t]) {
+                t = rotateRight(t);
+            }
+        } else {
+            right[t] = insert(right[t], n);
+            if(priority[right[t]] > priority[t]) {
+                t = rotateLeft(t);
+            }
+        }
+        update(t);
+        return t;
+    }
+
+    private int delete(int t, int s, int e, int i) {
+        if(t == -1) {
+            return -1;
+        }
+
+        int c = compare(s, e, i, t);
+        if(c < 0) {
+            left[t] = delete(left[t], s, e, i);
+        } else if(c > 0) {
+            right[t] = delete(right[t], s, e, i);
+        } else {
+            // Replace the node by the merge of its children, and release it.
+            int merged = merge(left[t], right[t]);
+            left[t] = free;
+            free = t;
+            size--;
+            return merged;
+        }
+        update(t);
+        return t;
+    }
+
+    /**
+     * Merge two treaps, in which all the intervals of the first precede those of the second.
+     */
+    private int merge(int a, int b) {
+        if(a == -1) return b;
+        if(b == -1) return a;
+
+        if(priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        } else {
+            left[b] = merge(a, left[b]);
+            update(b);
+            return b;
+        }
+    }
+
+    private void forEachOverlapping(int t, int s, int e, IntConsumer action) {
+        if(t == -1 || maxEnd[t] <= s) {
+            return;
+        }
+
+        forEachOverlapping(left[t], s, e, action);
+        if(start[t] < e) {
+            if(end[t] > s) {
+                action.accept(id[t]);
+            }
+            forEachOverlapping(right[t], s, e, action);
+        }
+    }
+
+    private int rotateRight(int t) {
+        int l = left[t];
+        left[t] = right[l];
+        right[l] = t;
+        update(t);
+        update(l);
+        return l;
+    }
+
+    private int rotateLeft(int t) {
+        int r = right[t];
+        right[t] = left[r];
+        left[r] = t;
+        update(t);
+        update(r);
+        return r;
+    }
+
+    /**
+     * Recompute the maximum end of the subtree of the node from those of its children.
+     */
+    private void update(int n) {
+        int e = end[n];
+        if(left[n] != -1) {
+            e = Math.max(e, maxEnd[left[n]]);
+        }
+        if(right[n] != -1) {
+            e = Math.max(e, maxEnd[right[n]]);
+        }
+        maxEnd[n] = e;
+    }
+
+    /**
+     * Compare the interval (s, e, i) with the interval stored in the given node.
+     */
+    private int compare(int s, int e, int i, int n) {
+        if(s != start[n]) return Integer.compare(s, start[n]);
+        if(e != end[n]) return Integer.compare(e, end[n]);
+        return Integer.compare(i, id[n]);
+    }
+
+    /**
+     * Draw the next priority from a xorshift generator.
+     */
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    /**
+     * Get an unused node, reusing released nodes first.
+     *
+     * @return The index of the node.
+     */
+    private int allocate() {
+        if(free != -1) {
+            int n = free;
+            free = left[n];
+            return n;
+        }
+
+        if(nodes == start.length) {
+            int capacity = 2 * nodes;
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            id = Arrays.copyOf(id, capacity);
+            priority = Arrays.copyOf(priority, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            maxEnd = Arrays.copyOf(maxEnd, capacity);
+        }
+        return nodes++;
+    }
+}
@@ -0,0 +1,153 @@
+package agd.data.util;
+
+import java.util.Arrays;
+
+/**
+ * The events of a sweep, each of which is a position on the integer grid together with the index of the point it
+ * belongs to, stored in parallel primitive arrays.
+ *
+ * All events are added before the sweep starts, so the queue does not have to be a heap: the events are put in order
+ * once, with a stable least significant digit radix sort on their x and y-coordinates, after which they are visited by
+ * their position in the arrays. Events at the same position keep the order in which they were added.
+ */
+public class EventQueue {
+    // The number of bits the coordinates are sorted on in every pass of the radix sort.
+    private static final int DIGIT_BITS = 16;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+
+    // The coordinates of the events and the indices of the points they belong to.
+    private int[] x, y, point;
+
+    // The number of events in the queue.
+    private int size;
+
+    /**
+     * Create an empty queue.
+     *
+     * @param capacity The number of events the queue can hold before it has to grow.
+     */
+    public EventQueue(int capacity) {
+        x = new int[Math.max(1, capacity)];
+        y = new int[x.length];
+        point = new int[x.length];
+    }
+
+    /**
+     * Add an event to the queue.
+     *
+     * @param x The x-coordinate of the event.
+     * @param y The y-coordinate of the event.
+     * @param point The index of the point the event belongs to.
+     */
+    public void add(int x, int y, int point) {
+        if(size == this.x.length) {
+            this.x = Arrays.copyOf(this.x, 2 * size);
+            this.y = Arrays.copyOf(this.y, 2 * size);
+            this.point = Arrays.copyOf(this.point, 2 * size);
+        }
+        this.x[size] = x;
+        this.y[size] = y;
+        this.point[size] = point;
+        size++;
+    }
+
+    /**
+     * Put the events in order on their x-coordinate, and on their y-coordinate when those are equal.
+     *
+     * @param descending Whether the events should be in decreasing rather than increasing order.
+     */
+    public void sort(boolean descending) {
+        // Flip the sign bit, such that the coordinates are ordered as unsigned integers, and the others when descending.
+        int flip = descending ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+
+        // Sort on the least significant digits first, and rely on every pass being stable.
+        int[] order = new int[size];
+        for(int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[size];
+        int[] counts = new int[(1 << DIGIT_BITS) + 1];
+        for(int[] keys : new int[][]{y, x}) {
+            for(int shift = 0; shift < Integer.SIZE; shift += DIGIT_BITS) {
+                if(pass(keys, flip, shift, order, buffer, counts)) {
+                    int[] swap = order;
+                    order = buffer;
+                    buffer = swap;
+                }
+            }
+        }
+
+        x = permute(x, order);
+        y = permute(y, order);
+        point = permute(point, order);
+    }
+
+    /**
+     * Get the number of events in the queue.
+     *
+     * @return The number of events.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the x-coordinate of the k-th event.
+     *
+     * @param k The position of the event in the queue.
+     * @return The x-coordinate of the event.
+     */
+    public int getX(int k) {
+        return x[k];
+    }
+
+    /**
+     * Get the y-coordinate of the k-th event.
+     *
+     * @param k The position of the event in the queue.
+     * @return The y-coordinate of the event.
+     */
+    public int getY(int k) {
+        return y[k];
+    }
+
+    /**
+     * Get the index of the point that the k-th event belongs to.
+     *
+     * @param k The position of the event in the queue.
+     * @return The index of the point.
+     */
+    public int getPoint(int k) {
+        return point[k];
+    }
+
+    /**
+     * Distribute the events in the given order over the buckets of one digit of their keys.
+     *
+     * @return False if all events have the same digit, in which case the pass is skipped and the order is unchanged.
+     */
+    private boolean pass(int[] keys, int flip, int shift, int[] order, int[] result, int[] counts) {
+        Arrays.fill(counts, 0);
+        for(int i = 0; i < size; i++) {
+            counts[(((keys[order[i]] ^ flip) >>> shift) & DIGIT_MASK) + 1]++;
+        }
+        for(int d = 0; d < counts.length - 1; d++) {
+            if(counts[d + 1] == size) {
+                return false;
+            }
+            counts[d + 1] += counts[d];
+        }
+        for(int i = 0; i < size; i++) {
+            result[counts[((keys[order[i]] ^ flip) >>> shift) & DIGIT_MASK]++] = order[i];
+        }
+        return true;
+    }
+
+    private int[] permute(int[] values, int[] order) {
+        int[] result = new int[Math.max(1, size)];
+        for(int i = 0; i < size; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package agd.data.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min heap of indices, ordered on keys that have been computed beforehand.
+ *
+ * The heap only stores the indices, and looks their keys up in an array that is shared with the caller. An index can
+ * be added again after it has been removed, in which case it is ordered on the same key. The sifting is the same as in
+ * java.util.PriorityQueue, such that indices with equal keys are removed in the same order as from a priority queue
+ * with a comparator on the keys.
+ */
+public class IndexHeap {
+    // The initial number of indices the heap can hold before it has to grow.
+    private static final int INITIAL_CAPACITY = 16;
+
+    // The key of every index, where a lower key is removed earlier.
+    private final double[] keys;
+
+    // The indices in heap order.
+    private int[] heap;
+
+    // The number of indices in the heap.
+    private int size;
+
+    /**
+     * Create an empty heap that orders the indices on the given keys.
+     *
+     * @param keys The key of every index that can be added.
+     */
+    public IndexHeap(double[] keys) {
+        this.keys = keys;
+        this.heap = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Add the given index to the heap.
+     *
+     * @param i The index, which should be a valid position in the key array.
+     */
+    public void add(int i) {
+        if(size == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * heap.length);
+        }
+        siftUp(size++, i);
+    }
+
+    /**
+     * Remove the index with the lowest key from the heap.
+     *
+     * @return The index with the lowest key.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+
+        int result = heap[0];
+        int last = heap[--size];
+        if(size > 0) {
+            siftDown(0, last);
+        }
+        return result;
+    }
+
+    /**
+     * Get the index with the lowest key without removing it.
+     *
+     * @return The index with the lowest key.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int peek() {
+        if(size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Check whether the heap holds no indices.
+     *
+     * @return True if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the number of indices in the heap.
+     *
+     * @return The size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Move the given index up from the given position, until its parent has a key that is not larger.
+     */
+    private void siftUp(int position, int i) {
+        double key = keys[i];
+        while(position > 0) {
+            int parent = (position - 1) >>> 1;
+            int e = heap[parent];
+            if(Double.compare(key, keys[e]) >= 0) {
+                break;
+            }
+            heap[position] = e;
+            position = parent;
+        }
+        heap[position] = i;
+    }
+
+    /**
+     * Move the given index down from the given position, until its children have keys that are not smaller.
+     */
+    private void siftDown(int position, int i) {
+        double key = keys[i];
+        int half = size >>> 1;
+        while(position < half) {
+            int child = (position << 1) + 1;
+            int right = child + 1;
+            if(right < size && Double.compare(keys[heap[child]], keys[heap[right]]) > 0) {
+                child = right;
+            }
+            if(Double.compare(key, keys[heap[child]]) <= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = i;
+    }
+}
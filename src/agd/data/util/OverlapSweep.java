@@ -0,0 +1,241 @@
+package agd.data.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the overlapping pairs among a set of axis-aligned rectangles with a sweep line, in O(n log n + k) time for k
+ * overlapping pairs. Rectangles that only touch do not overlap.
+ *
+ * The rectangles are given as arrays with their sides, and are identified by their index in these arrays. The sweep
+ * visits the rectangles in the order of their left side, and keeps the rectangles that are crossed by the sweep line
+ * in an interval tree on their vertical extent.
+ *
+ * To mark the overlapping rectangles in parallel, the plane is cut into vertical slabs holding an equal number of left
+ * sides, which are swept independently. A slab also holds the rectangles that start before it but still reach into
+ * it, and only reports the overlaps of the rectangles that start within it. Every overlapping pair is then found in
+ * the slab in which their overlap starts.
+ */
+public final class OverlapSweep {
+    /**
+     * Receives the pairs of overlapping rectangles.
+     */
+    public interface PairConsumer {
+        /**
+         * Handle a pair of overlapping rectangles.
+         *
+         * @param a The index of the rectangle that the sweep line reached last.
+         * @param b The index of the other rectangle.
+         */
+        void accept(int a, int b);
+    }
+
+    // The minimum number of rectangles in a slab, below which splitting the work does not pay off.
+    private static final int MIN_SLAB_SIZE = 10000;
+
+    private OverlapSweep() {
+    }
+
+    /**
+     * Find the rectangles that overlap with at least one other rectangle.
+     *
+     * @param left The left sides of the rectangles.
+     * @param right The right sides of the rectangles.
+     * @param bottom The bottom sides of the rectangles.
+     * @param top The top sides of the rectangles.
+     * @param parallel Whether the work should be divided over the available processors.
+     * @return For every rectangle, whether it overlaps with another rectangle.
+     */
+    public static boolean[] findOverlapping(int[] left, int[] right, int[] bottom, int[] top, boolean parallel) {
+        int slabs = parallel ? Math.min(Runtime.getRuntime().availableProcessors(), left.length / MIN_SLAB_SIZE) : 1;
+        return findOverlapping(left, right, bottom, top, Math.max(1, slabs), parallel);
+    }
+
+    /**
+     * Find the rectangles that overlap with at least one other rectangle, sweeping the given number of slabs.
+     *
+     * @param left The left sides of the rectangles.
+     * @param right The right sides of the rectangles.
+     * @param bottom The bottom sides of the rectangles.
+     * @param top The top sides of the rectangles.
+     * @param slabs The number of slabs the plane is cut into.
+     * @param parallel Whether the slabs should be swept in parallel.
+     * @return For every rectangle, whether it overlaps with another rectangle.
+     */
+    public static boolean[] findOverlapping(int[] left, int[] right, int[] bottom, int[] top, int slabs, boolean parallel) {
+        int n = left.length;
+
+        // Order the rectangles on their left side.
+        int[] order = sortedIndices(left, parallel);
+
+        boolean[] overlapping = new boolean[n];
+        IntStream range = IntStream.range(0, slabs);
+        (parallel ? range.parallel() : range).forEach(k -> sweep(
+                (int) ((long) k * n / slabs), (int) ((long) (k + 1) * n / slabs),
+                order, left, right, bottom, top, overlapping
+        ));
+        return overlapping;
+    }
+
+    /**
+     * Report every pair of the given rectangles that overlap.
+     *
+     * @param ids The indices of the rectangles that should be considered.
+     * @param left The left sides of the rectangles.
+     * @param right The right sides of the rectangles.
+     * @param bottom The bottom sides of the rectangles.
+     * @param top The top sides of the rectangles.
+     * @param action The action that is called for every overlapping pair.
+     */
+    public static void forEachOverlappingPair(int[] ids, int[] left, int[] right, int[] bottom, int[] top, PairConsumer action) {
+        int n = ids.length;
+
+        // The order in which the rectangles enter and leave the sweep line.
+        long[] entering = new long[n], leaving = new long[n];
+        for(int k = 0; k < n; k++) {
+            int i = ids[k];
+            entering[k] = ((long) left[i] << 32) | i;
+            leaving[k] = ((long) right[i] << 32) | i;
+        }
+        Arrays.sort(entering);
+        Arrays.sort(leaving);
+
+        AugmentedIntervalTree status = new AugmentedIntervalTree();
+        int next = 0;
+        for(long e : entering) {
+            int i = (int) e;
+
+            // Remove the rectangles that end at or before the left side of the new rectangle.
+            while(next < n && right[(int) leaving[next]] <= left[i]) {
+                int j = (int) leaving[next++];
+                status.delete(bottom[j], top[j], j);
+            }
+
+            status.forEachOverlapping(bottom[i], top[i], j -> action.accept(i, j));
+            status.insert(bottom[i], top[i], i);
+        }
+    }
+
+    /**
+     * Sweep over the rectangles in the given range of the order, marking the rectangles that overlap.
+     *
+     * @param from The first position in the order that belongs to the slab.
+     * @param to The position in the order after the last one that belongs to the slab.
+     */
+    private static void sweep(int from, int to, int[] order, int[] left, int[] right, int[] bottom, int[] top,
+                              boolean[] overlapping) {
+        if(from == to) {
+            return;
+        }
+
+        // The rectangles that start before the slab, but still reach into it, are crossed by the sweep line at its start.
+        int boundary = left[order[from]];
+        int[] members = new int[to - from];
+        int count = 0;
+        for(int k = 0; k < from; k++) {
+            int i = order[k];
+            if(right[i] > boundary) {
+                members = append(members, count++, i);
+            }
+        }
+        int crossing = count;
+        for(int k = from; k < to; k++) {
+            members = append(members, count++, order[k]);
+        }
+
+        // The rectangles leave the sweep line in the order of their right side.
+        int[] leaving = sortedIndices(members, count, right);
+
+        AugmentedIntervalTree status = new AugmentedIntervalTree();
+        for(int k = 0; k < crossing; k++) {
+            status.insert(bottom[members[k]], top[members[k]], members[k]);
+        }
+
+        Marker marker = new Marker(overlapping);
+        int next = 0;
+        for(int k = from; k < to; k++) {
+            int i = order[k];
+
+            // Remove the rectangles that end at or before the left side of the new one, since touching is allowed.
+            while(next < count && right[leaving[next]] <= left[i]) {
+                int j = leaving[next++];
+                status.delete(bottom[j], top[j], j);
+            }
+
+            marker.current = i;
+            status.forEachOverlapping(bottom[i], top[i], marker);
+            status.insert(bottom[i], top[i], i);
+        }
+    }
+
+    /**
+     * Sort the indices of the given keys on the value of the key, and on the index for equal keys.
+     */
+    private static int[] sortedIndices(int[] keys, boolean parallel) {
+        long[] packed = new long[keys.length];
+        for(int i = 0; i < keys.length; i++) {
+            packed[i] = ((long) keys[i] << 32) | i;
+        }
+        if(parallel) {
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.sort(packed);
+        }
+
+        int[] order = new int[keys.length];
+        for(int i = 0; i < order.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    /**
+     * Sort the first count indices in the given array on the value of their key.
+     */
+    private static int[] sortedIndices(int[] indices, int count, int[] keys) {
+        long[] packed = new long[count];
+        for(int k = 0; k < count; k++) {
+            packed[k] = ((long) keys[indices[k]] << 32) | indices[k];
+        }
+        Arrays.sort(packed);
+
+        int[] order = new int[count];
+        for(int k = 0; k < count; k++) {
+            order[k] = (int) packed[k];
+        }
+        return order;
+    }
+
+    /**
+     * Set the value at the given position, growing the array if needed.
+     */
+    private static int[] append(int[] array, int position, int value) {
+        if(position == array.length) {
+            array = Arrays.copyOf(array, Math.max(4, 2 * array.length));
+        }
+        array[position] = value;
+        return array;
+    }
+
+    /**
+     * Marks both rectangles of an overlapping pair, without creating a new object for every rectangle.
+     */
+    private static class Marker implements IntConsumer {
+        // The marks of all the rectangles, which are shared between the slabs.
+        private final boolean[] overlapping;
+
+        // The rectangle that is currently being inserted.
+        private int current;
+
+        Marker(boolean[] overlapping) {
+            this.overlapping = overlapping;
+        }
+
+        @Override
+        public void accept(int other) {
+            overlapping[other] = true;
+            overlapping[current] = true;
+        }
+    }
+}
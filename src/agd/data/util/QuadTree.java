@@ -0,0 +1,452 @@
+package agd.data.util;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A quad tree for rectangle collision detection that stores its nodes and entries in primitive arrays.
+ *
+ * Each rectangle is stored exactly once, in the deepest node whose bounding box fully contains it. Rectangles that
+ * cross the boundary between children stay in the parent node, and rectangles outside of the root are kept in the
+ * root, such that nothing is lost. Queries do not allocate any objects.
+ */
+public class QuadTree<T extends Rectangle> implements SpatialIndex<T> {
+    // The default maximum number of rectangles that are allowed to be inside of a leaf before splitting.
+    private static final int NO_MAX_ENTRIES = 5;
+
+    // The initial capacity of the node and entry arrays.
+    private static final int INITIAL_CAPACITY = 64;
+
+    // The index of the root node.
+    private static final int ROOT = 0;
+
+    // The maximum number of rectangles that are allowed to be inside of a leaf before splitting.
+    private final int maxEntries;
+
+    // The bounding boxes of the nodes.
+    private int[] nodeX, nodeY, nodeW, nodeH;
+
+    // Whether the node is a leaf, and otherwise the index of the first of its four consecutive children.
+    private boolean[] leaf;
+    private int[] firstChild;
+
+    // The first entry in the linked list of entries stored in the node, and the length of that list.
+    private int[] head;
+    private int[] count;
+
+    // The number of nodes in use.
+    private int nodes;
+
+    // The rectangles that are stored, indexed by entry id, together with copies of their coordinates.
+    private Object[] items;
+    private int[] entryX, entryY, entryW, entryH;
+
+    // The next entry in the list of the node the entry is stored in, or in the list of free entry ids.
+    private int[] next;
+
+    // The number of entry ids that have been handed out, and the head of the list of released ids.
+    private int entries;
+    private int free = -1;
+
+    // The number of rectangles currently in the tree.
+    private int size;
+
+    /**
+     * Create a new quad tree with the given bounding box.
+     *
+     * @param box The bounding box of the root of the quad tree.
+     */
+    public QuadTree(Rectangle box) {
+        this(box, NO_MAX_ENTRIES);
+    }
+
+    /**
+     * Create a new quad tree with the given bounding box and split threshold.
+     *
+     * @param box The bounding box of the root of the quad tree.
+     * @param maxEntries The maximum number of rectangles in a leaf before it is split.
+     */
+    public QuadTree(Rectangle box, int maxEntries) {
+        this.maxEntries = maxEntries;
+
+        nodeX = new int[INITIAL_CAPACITY];
+        nodeY = new int[INITIAL_CAPACITY];
+        nodeW = new int[INITIAL_CAPACITY];
+        nodeH = new int[INITIAL_CAPACITY];
+        leaf = new boolean[INITIAL_CAPACITY];
+        firstChild = new int[INITIAL_CAPACITY];
+        head = new int[INITIAL_CAPACITY];
+        count = new int[INITIAL_CAPACITY];
+
+        items = new Object[INITIAL_CAPACITY];
+        entryX = new int[INITIAL_CAPACITY];
+        entryY = new int[INITIAL_CAPACITY];
+        entryW = new int[INITIAL_CAPACITY];
+        entryH = new int[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+
+        addNode(box.x, box.y, box.width, box.height);
+    }
+
+    @Override
+    public void insert(T r) {
+        int id = allocateEntry();
+        items[id] = r;
+        entryX[id] = r.x;
+        entryY[id] = r.y;
+        entryW[id] = r.width;
+        entryH[id] = r.height;
+
+        int node = findNode(r.x, r.y, r.width, r.height);
+        next[id] = head[node];
+        head[node] = id;
+        count[node]++;
+        size++;
+
+        if(leaf[node] && count[node] > maxEntries && nodeW[node] > 1 && nodeH[node] > 1) {
+            split(node);
+        }
+    }
+
+    /**
+     * Insert all the given rectangles, and only split the overfull leaves afterwards. This moves every rectangle down
+     * the tree once, instead of once for every split of a node it passes through.
+     *
+     * @param rectangles The rectangles to insert.
+     */
+    @Override
+    public void insertAll(Collection<? extends T> rectangles) {
+        // The leaves that have received rectangles, which might have to be split.
+        int[] touched = new int[16];
+        int touchedCount = 0;
+
+        for(T r : rectangles) {
+            int id = allocateEntry();
+            items[id] = r;
+            entryX[id] = r.x;
+            entryY[id] = r.y;
+            entryW[id] = r.width;
+            entryH[id] = r.height;
+
+            int node = findNode(r.x, r.y, r.width, r.height);
+            next[id] = head[node];
+            head[node] = id;
+            count[node]++;
+            size++;
+
+            if(leaf[node] && count[node] == maxEntries + 1) {
+                if(touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, 2 * touchedCount);
+                }
+                touched[touchedCount++] = node;
+            }
+        }
+
+        for(int i = 0; i < touchedCount; i++) {
+            int node = touched[i];
+            if(leaf[node] && count[node] > maxEntries && nodeW[node] > 1 && nodeH[node] > 1) {
+                split(node);
+            }
+        }
+    }
+
+    @Override
+    public void delete(T r) {
+        // The rectangle can only be in the deepest node that contains it.
+        int node = findNode(r.x, r.y, r.width, r.height);
+
+        for(int id = head[node], previous = -1; id != -1; previous = id, id = next[id]) {
+            if(entryX[id] == r.x && entryY[id] == r.y && entryW[id] == r.width && entryH[id] == r.height
+                    && items[id].equals(r)) {
+                // Unlink the entry and release its id.
+                if(previous == -1) {
+                    head[node] = next[id];
+                } else {
+                    next[previous] = next[id];
+                }
+                count[node]--;
+                size--;
+
+                items[id] = null;
+                next[id] = free;
+                free = id;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean forEachIntersecting(Rectangle area, Visitor<? super T> visitor) {
+        if(area.width <= 0 || area.height <= 0) {
+            return true;
+        }
+        return forEachIntersecting(ROOT, area, visitor);
+    }
+
+    @Override
+    public int query(Rectangle area, int[] result) {
+        if(area.width <= 0 || area.height <= 0) {
+            return 0;
+        }
+        return query(ROOT, area, result, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int id) {
+        return (T) items[id];
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(items, 0, entries, null);
+        entries = 0;
+        free = -1;
+        size = 0;
+
+        // Only keep the root, which becomes an empty leaf again.
+        nodes = 1;
+        leaf[ROOT] = true;
+        head[ROOT] = -1;
+        count[ROOT] = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visit the intersecting rectangles in the subtree rooted at the given node.
+     *
+     * @param node The node to search in.
+     * @param area The rectangular area to query, which has a positive width and height.
+     * @param visitor The visitor that is called for each of the intersecting rectangles.
+     * @return False if the visitor stopped the search early, true otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean forEachIntersecting(int node, Rectangle area, Visitor<? super T> visitor) {
+        if(!touchesNode(node, area)) {
+            return true;
+        }
+
+        for(int id = head[node]; id != -1; id = next[id]) {
+            if(intersects(id, area) && !visitor.visit((T) items[id])) {
+                return false;
+            }
+        }
+
+        if(!leaf[node]) {
+            int child = firstChild[node];
+            for(int i = 0; i < 4; i++) {
+                if(!forEachIntersecting(child + i, area, visitor)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the ids of the intersecting rectangles in the subtree rooted at the given node.
+     *
+     * @param node The node to search in.
+     * @param area The rectangular area to query, which has a positive width and height.
+     * @param result The buffer the ids are written to.
+     * @param found The number of intersecting rectangles found so far.
+     * @return The number of intersecting rectangles found, including those found in this subtree.
+     */
+    private int query(int node, Rectangle area, int[] result, int found) {
+        if(!touchesNode(node, area)) {
+            return found;
+        }
+
+        for(int id = head[node]; id != -1; id = next[id]) {
+            if(intersects(id, area)) {
+                if(found < result.length) {
+                    result[found] = id;
+                }
+                found++;
+            }
+        }
+
+        if(!leaf[node]) {
+            int child = firstChild[node];
+            for(int i = 0; i < 4; i++) {
+                found = query(child + i, area, result, found);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Check whether the given area overlaps with or touches the bounding box of the node.
+     *
+     * The root is always searched, since it also holds the rectangles that are outside of its bounding box.
+     *
+     * @param node The node to check.
+     * @param area The rectangular area to query.
+     * @return True if rectangles intersecting the area may be stored in the subtree of the node.
+     */
+    private boolean touchesNode(int node, Rectangle area) {
+        return node == ROOT || (area.x <= nodeX[node] + nodeW[node] && nodeX[node] <= area.x + area.width
+                && area.y <= nodeY[node] + nodeH[node] && nodeY[node] <= area.y + area.height);
+    }
+
+    /**
+     * Check whether the entry intersects with the given area.
+     *
+     * Overlap is decided on the stored coordinates. When the two only touch, the rectangle itself decides.
+     *
+     * @param id The id of the entry.
+     * @param area The rectangular area to query, which has a positive width and height.
+     * @return True if the entry intersects with the area.
+     */
+    private boolean intersects(int id, Rectangle area) {
+        int x = entryX[id], y = entryY[id], w = entryW[id], h = entryH[id];
+        if(w <= 0 || h <= 0) {
+            return false;
+        }
+
+        // Compare with longs, such that large rectangles do not overflow.
+        long ax2 = (long) area.x + area.width, ay2 = (long) area.y + area.height;
+        long x2 = (long) x + w, y2 = (long) y + h;
+        if(x > ax2 || area.x > x2 || y > ay2 || area.y > y2) {
+            return false;
+        }
+        if(x < ax2 && area.x < x2 && y < ay2 && area.y < y2) {
+            return true;
+        }
+        return items[id] instanceof Rectangle && ((Rectangle) items[id]).intersects(area);
+    }
+
+    /**
+     * Find the deepest node whose bounding box fully contains the given rectangle.
+     *
+     * @return The index of the node the rectangle belongs in.
+     */
+    private int findNode(int x, int y, int w, int h) {
+        int node = ROOT;
+        while(!leaf[node]) {
+            int child = childContaining(node, x, y, w, h);
+            if(child == -1) {
+                break;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Find the child of the given internal node that fully contains the given rectangle.
+     *
+     * @return The index of the child, or -1 if none of the children contains the rectangle.
+     */
+    private int childContaining(int node, int x, int y, int w, int h) {
+        int child = firstChild[node];
+        for(int i = child; i < child + 4; i++) {
+            if(x >= nodeX[i] && y >= nodeY[i] && (long) x + w <= (long) nodeX[i] + nodeW[i]
+                    && (long) y + h <= (long) nodeY[i] + nodeH[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Split the leaf into four new nodes, and move the rectangles that fit in a child down.
+     *
+     * @param node The leaf that should be split.
+     */
+    private void split(int node) {
+        // Note that the length might have been an odd number, which has to be compensated for.
+        int x = nodeX[node], y = nodeY[node];
+        int halfWidth = nodeW[node] / 2, halfWidth2 = nodeW[node] - halfWidth;
+        int halfHeight = nodeH[node] / 2, halfHeight2 = nodeH[node] - halfHeight;
+
+        // The children are always allocated next to each other.
+        int child = addNode(x, y, halfWidth, halfHeight);
+        addNode(x + halfWidth, y, halfWidth2, halfHeight);
+        addNode(x, y + halfHeight, halfWidth, halfHeight2);
+        addNode(x + halfWidth, y + halfHeight, halfWidth2, halfHeight2);
+        firstChild[node] = child;
+        leaf[node] = false;
+
+        // Push the entries that fit in a child down, and keep the others.
+        int id = head[node];
+        head[node] = -1;
+        count[node] = 0;
+        while(id != -1) {
+            int following = next[id];
+            int target = childContaining(node, entryX[id], entryY[id], entryW[id], entryH[id]);
+            if(target == -1) {
+                target = node;
+            }
+            next[id] = head[target];
+            head[target] = id;
+            count[target]++;
+            id = following;
+        }
+
+        // The children might be overfull themselves.
+        for(int i = child; i < child + 4; i++) {
+            if(count[i] > maxEntries && nodeW[i] > 1 && nodeH[i] > 1) {
+                split(i);
+            }
+        }
+    }
+
+    /**
+     * Add a new empty leaf with the given bounding box.
+     *
+     * @return The index of the new node.
+     */
+    private int addNode(int x, int y, int w, int h) {
+        if(nodes == leaf.length) {
+            int capacity = 2 * nodes;
+            nodeX = Arrays.copyOf(nodeX, capacity);
+            nodeY = Arrays.copyOf(nodeY, capacity);
+            nodeW = Arrays.copyOf(nodeW, capacity);
+            nodeH = Arrays.copyOf(nodeH, capacity);
+            leaf = Arrays.copyOf(leaf, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            head = Arrays.copyOf(head, capacity);
+            count = Arrays.copyOf(count, capacity);
+        }
+
+        int node = nodes++;
+        nodeX[node] = x;
+        nodeY[node] = y;
+        nodeW[node] = w;
+        nodeH[node] = h;
+        leaf[node] = true;
+        head[node] = -1;
+        count[node] = 0;
+        return node;
+    }
+
+    /**
+     * Get an unused entry id, reusing the ids of deleted rectangles first.
+     *
+     * @return The entry id.
+     */
+    private int allocateEntry() {
+        if(free != -1) {
+            int id = free;
+            free = next[id];
+            return id;
+        }
+
+        if(entries == items.length) {
+            int capacity = 2 * entries;
+            items = Arrays.copyOf(items, capacity);
+            entryX = Arrays.copyOf(entryX, capacity);
+            entryY = Arrays.copyOf(entryY, capacity);
+            entryW = Arrays.copyOf(entryW, capacity);
+            entryH = Arrays.copyOf(entryH, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return entries++;
+    }
+}
@@ -0,0 +1,35 @@
+package agd.data.util;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the rectangles that intersect with a query area into a list that is reused by the next query, such that
+ * the queries of a solver in its main loop do not allocate.
+ *
+ * @param <T> The type of rectangles that are stored in the queried index.
+ */
+public class QueryBuffer<T extends Rectangle> implements SpatialIndex.Visitor<T> {
+    // The rectangles found by the last query.
+    private final ArrayList<T> entries = new ArrayList<>();
+
+    /**
+     * Find the rectangles in the given index that intersect with the given area.
+     *
+     * @param index The spatial index to query.
+     * @param area The rectangular area to query.
+     * @return The intersecting rectangles, which are only valid until the next query through this buffer.
+     */
+    public List<T> query(SpatialIndex<T> index, Rectangle area) {
+        entries.clear();
+        index.forEachIntersecting(area, this);
+        return entries;
+    }
+
+    @Override
+    public boolean visit(T entry) {
+        entries.add(entry);
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+package agd.data.util;
+
+import java.util.Arrays;
+
+/**
+ * A segment tree over a fixed set of coordinates that keeps a value for every half-open interval between two
+ * consecutive coordinates, all of which start at Integer.MIN_VALUE. It raises the values over a range to at least a
+ * given value, and answers the maximum value over a range, both in logarithmic time.
+ *
+ * When a range is raised to a value that is at least the maximum over that range, as is the case for a sweep that
+ * stacks squares against the squares placed before them, raising is the same as assigning. The raises are kept as
+ * tags on the nodes that cover the range entirely, which are never pushed down: a query takes the tags of the nodes on
+ * its path into account instead. The nodes are stored in primitive arrays in depth first order, such that the left
+ * child of a node directly follows it, and the tree takes 2m - 1 nodes for m intervals.
+ */
+public class SkylineTree {
+    // The sorted distinct coordinates that bound the intervals.
+    private final int[] coordinates;
+
+    // The number of intervals between consecutive coordinates, which are the leaves of the tree.
+    private final int leaves;
+
+    // The maximum value within the subtree of every node, and the value the whole range of every node is raised to.
+    private final int[] max, raised;
+
+    /**
+     * Create a tree over the intervals between the given coordinates.
+     *
+     * @param coordinates The coordinates that the ranges start and end at, in any order and possibly with duplicates.
+     */
+    public SkylineTree(int[] coordinates) {
+        int[] sorted = coordinates.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for(int i = 0; i < sorted.length; i++) {
+            if(i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+
+        this.coordinates = Arrays.copyOf(sorted, distinct);
+        leaves = Math.max(0, distinct - 1);
+        max = new int[Math.max(0, 2 * leaves - 1)];
+        raised = new int[max.length];
+        Arrays.fill(max, Integer.MIN_VALUE);
+        Arrays.fill(raised, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Raise the values over the range [start, end) to at least the given value.
+     *
+     * @param start The start of the range, which should be one of the coordinates.
+     * @param end The end of the range, which should be one of the coordinates.
+     * @param value The value the range is raised to.
+     */
+    public void raise(int start, int end, int value) {
+        int from = indexOf(start), to = indexOf(end) - 1;
+        if(from <= to) {
+            raise(0, 0, leaves - 1, from, to, value);
+        }
+    }
+
+    /**
+     * Find the maximum value over the range [start, end).
+     *
+     * @param start The start of the range, which should be one of the coordinates.
+     * @param end The end of the range, which should be one of the coordinates.
+     * @return The maximum value, or Integer.MIN_VALUE if the range has not been raised anywhere.
+     */
+    public int max(int start, int end) {
+        int from = indexOf(start), to = indexOf(end) - 1;
+        return from <= to ? max(0, 0, leaves - 1, from, to) : Integer.MIN_VALUE;
+    }
+
+    private void raise(int node, int lo, int hi, int from, int to, int value) {
+        if(from <= lo && hi <= to) {
+            raised[node] = Math.max(raised[node], value);
+            max[node] = Math.max(max[node], value);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int left = node + 1, right = node + 2 * (mid - lo + 1);
+        if(from <= mid) {
+            raise(left, lo, mid, from, to, value);
+        }
+        if(to > mid) {
+            raise(right, mid + 1, hi, from, to, value);
+        }
+        max[node] = Math.max(raised[node], Math.max(max[left], max[right]));
+    }
+
+    private int max(int node, int lo, int hi, int from, int to) {
+        if(from <= lo && hi <= to) {
+            return max[node];
+        }
+
+        // The raises of this node hold for every part of its range, including the part that is queried.
+        int mid = (lo + hi) >>> 1;
+        int best = raised[node];
+        if(from <= mid) {
+            best = Math.max(best, max(node + 1, lo, mid, from, to));
+        }
+        if(to > mid) {
+            best = Math.max(best, max(node + 2 * (mid - lo + 1), mid + 1, hi, from, to));
+        }
+        return best;
+    }
+
+    /**
+     * Get the position of the given coordinate among the sorted coordinates.
+     */
+    private int indexOf(int coordinate) {
+        int lo = 0, hi = coordinates.length;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(coordinates[mid] < coordinate) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
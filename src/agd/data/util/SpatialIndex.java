@@ -0,0 +1,114 @@
+package agd.data.util;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A data structure that finds the stored rectangles that intersect with a query area.
+ *
+ * An entry intersects an area if the two overlap, or if they touch and entry.intersects(area) holds. The latter
+ * allows rectangles, such as the outline rectangles, to decide for themselves whether touching counts as overlap.
+ *
+ * @param <T> The type of rectangles that are stored.
+ */
+public interface SpatialIndex<T extends Rectangle> {
+    /**
+     * A callback that is invoked for each of the rectangles that intersect with a query area.
+     *
+     * @param <T> The type of rectangles that are stored.
+     */
+    interface Visitor<T> {
+        /**
+         * Visit an intersecting rectangle.
+         *
+         * @param entry The rectangle that intersects with the query area.
+         * @return True if the search should continue, false if it should stop.
+         */
+        boolean visit(T entry);
+    }
+
+    /**
+     * Insert the given rectangle into the index.
+     *
+     * @param r The rectangle to insert.
+     */
+    void insert(T r);
+
+    /**
+     * Insert all the given rectangles into the index, which may be faster than inserting them one by one.
+     *
+     * @param rectangles The rectangles to insert.
+     */
+    default void insertAll(Collection<? extends T> rectangles) {
+        rectangles.forEach(this::insert);
+    }
+
+    /**
+     * Remove the given rectangle from the index if it exists.
+     *
+     * @param r The rectangle that should be deleted from the index.
+     */
+    void delete(T r);
+
+    /**
+     * Visit all the rectangles that intersect with the given area, until the visitor asks to stop.
+     *
+     * @param area The rectangular area to query.
+     * @param visitor The visitor that is called for each of the intersecting rectangles.
+     * @return False if the visitor stopped the search early, true otherwise.
+     */
+    boolean forEachIntersecting(Rectangle area, Visitor<? super T> visitor);
+
+    /**
+     * Find the ids of the rectangles that intersect with the given area.
+     *
+     * @param area The rectangular area to query.
+     * @param result The buffer the ids are written to. Ids that do not fit in the buffer are not written.
+     * @return The number of intersecting rectangles, which may exceed the length of the buffer.
+     */
+    int query(Rectangle area, int[] result);
+
+    /**
+     * Get the rectangle with the given id.
+     *
+     * @param id The id of the rectangle, as reported by {@link #query(Rectangle, int[])}.
+     * @return The rectangle that is stored under the given id.
+     */
+    T get(int id);
+
+    /**
+     * Remove all the rectangles from the index.
+     */
+    void clear();
+
+    /**
+     * Get the number of rectangles in the index.
+     *
+     * @return The number of rectangles that have been inserted and not deleted.
+     */
+    int size();
+
+    /**
+     * Check whether any of the rectangles intersects with the given area, stopping at the first one found.
+     *
+     * @param area The rectangular area to query.
+     * @return True if at least one of the rectangles intersects with the area.
+     */
+    default boolean anyIntersecting(Rectangle area) {
+        return !forEachIntersecting(area, entry -> false);
+    }
+
+    /**
+     * Query the given rectangular area for intersecting rectangles.
+     *
+     * @param area The rectangular area to query.
+     * @return A new list holding the rectangles that intersect with the area.
+     */
+    default List<T> query(Rectangle area) {
+        List<T> intersections = new ArrayList<>();
+        forEachIntersecting(area, intersections::add);
+        return intersections;
+    }
+}
@@ -0,0 +1,399 @@
+package agd.data.util;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * A spatial hash that divides the plane into square cells of a fixed size, for rectangles of bounded size.
+ *
+ * Each rectangle is registered in all the cells it overlaps with or touches. The cells are stored in an open
+ * addressing hash table, such that the grid is unbounded. When the cell size is close to the size of the stored
+ * rectangles, each rectangle covers at most four cells and an overlap query only inspects a handful of cells.
+ *
+ * A rectangle that is found in several cells is only reported in the first cell that both it and the query area
+ * cover, such that queries need no de-duplication state and can be run concurrently.
+ */
+public class UniformGrid<T extends Rectangle> implements SpatialIndex<T> {
+    // The initial capacity of the entry arrays, the hash table and the buckets.
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    // The fraction of the stored weights that fit within a single cell when using cellSize.
+    private static final double CELL_PERCENTILE = 0.9;
+
+    // The width and height of the cells.
+    private final int cellSize;
+
+    // The rectangles that are stored, indexed by entry id, together with copies of their coordinates.
+    private Object[] items;
+    private int[] entryX, entryY, entryW, entryH;
+
+    // The list of released entry ids, linked through nextFree.
+    private int[] nextFree;
+    private int free = -1;
+
+    // The number of entry ids that have been handed out, and the number of rectangles currently in the grid.
+    private int entries;
+    private int size;
+
+    // The hash table that maps cell coordinates to buckets, using linear probing. Unused slots have bucket -1.
+    private long[] keys;
+    private int[] slots;
+
+    // The entry ids that are registered in each bucket.
+    private int[][] buckets;
+    private int[] bucketSize;
+    private int bucketCount;
+
+    /**
+     * Create an empty grid with the given cell size.
+     *
+     * @param cellSize The width and height of the cells.
+     */
+    public UniformGrid(int cellSize) {
+        if(cellSize < 1) {
+            throw new IllegalArgumentException("The cells of the grid should have a positive size.");
+        }
+        this.cellSize = cellSize;
+
+        items = new Object[INITIAL_CAPACITY];
+        entryX = new int[INITIAL_CAPACITY];
+        entryY = new int[INITIAL_CAPACITY];
+        entryW = new int[INITIAL_CAPACITY];
+        entryH = new int[INITIAL_CAPACITY];
+        nextFree = new int[INITIAL_CAPACITY];
+
+        keys = new long[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY];
+        Arrays.fill(slots, -1);
+        buckets = new int[INITIAL_CAPACITY][];
+        bucketSize = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Choose a cell size for rectangles with the given sizes, such that most of them cover at most four cells.
+     *
+     * @param sizes The widths and heights of the rectangles that will be stored. The array is sorted in place.
+     * @return The cell size that fits the large majority of the rectangles.
+     */
+    public static int cellSize(int[] sizes) {
+        if(sizes.length == 0) {
+            return 1;
+        }
+        Arrays.sort(sizes);
+        return Math.max(1, sizes[(int) (CELL_PERCENTILE * (sizes.length - 1))]);
+    }
+
+    @Override
+    public void insert(T r) {
+        int id = allocateEntry();
+        items[id] = r;
+        entryX[id] = r.x;
+        entryY[id] = r.y;
+        entryW[id] = r.width;
+        entryH[id] = r.height;
+        size++;
+
+        int x0 = cell(r.x), x1 = cell((long) r.x + r.width);
+        int y0 = cell(r.y), y1 = cell((long) r.y + r.height);
+        for(int cx = x0; cx <= x1; cx++) {
+            for(int cy = y0; cy <= y1; cy++) {
+                addToBucket(findOrCreateBucket(cx, cy), id);
+            }
+        }
+    }
+
+    @Override
+    public void delete(T r) {
+        int x0 = cell(r.x), x1 = cell((long) r.x + r.width);
+        int y0 = cell(r.y), y1 = cell((long) r.y + r.height);
+
+        // The rectangle, if present, is registered in the bucket of its first cell.
+        int id = -1;
+        int first = findBucket(x0, y0);
+        if(first != -1) {
+            int[] bucket = buckets[first];
+            for(int i = 0; i < bucketSize[first]; i++) {
+                int candidate = bucket[i];
+                if(entryX[candidate] == r.x && entryY[candidate] == r.y && entryW[candidate] == r.width
+                        && entryH[candidate] == r.height && items[candidate].equals(r)) {
+                    id = candidate;
+                    break;
+                }
+            }
+        }
+        if(id == -1) {
+            return;
+        }
+
+        for(int cx = x0; cx <= x1; cx++) {
+            for(int cy = y0; cy <= y1; cy++) {
+                removeFromBucket(findBucket(cx, cy), id);
+            }
+        }
+
+        items[id] = null;
+        nextFree[id] = free;
+        free = id;
+        size--;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean forEachIntersecting(Rectangle area, Visitor<? super T> visitor) {
+        if(area.width <= 0 || area.height <= 0) {
+            return true;
+        }
+
+        int x0 = cell(area.x), x1 = cell((long) area.x + area.width);
+        int y0 = cell(area.y), y1 = cell((long) area.y + area.height);
+        for(int cx = x0; cx <= x1; cx++) {
+            for(int cy = y0; cy <= y1; cy++) {
+                int b = findBucket(cx, cy);
+                if(b == -1) continue;
+
+                int[] bucket = buckets[b];
+                for(int i = 0; i < bucketSize[b]; i++) {
+                    int id = bucket[i];
+                    if(isFirstCell(id, cx, cy, x0, y0) && intersects(id, area) && !visitor.visit((T) items[id])) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int query(Rectangle area, int[] result) {
+        if(area.width <= 0 || area.height <= 0) {
+            return 0;
+        }
+
+        int found = 0;
+        int x0 = cell(area.x), x1 = cell((long) area.x + area.width);
+        int y0 = cell(area.y), y1 = cell((long) area.y + area.height);
+        for(int cx = x0; cx <= x1; cx++) {
+            for(int cy = y0; cy <= y1; cy++) {
+                int b = findBucket(cx, cy);
+                if(b == -1) continue;
+
+                int[] bucket = buckets[b];
+                for(int i = 0; i < bucketSize[b]; i++) {
+                    int id = bucket[i];
+                    if(isFirstCell(id, cx, cy, x0, y0) && intersects(id, area)) {
+                        if(found < result.length) {
+                            result[found] = id;
+                        }
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int id) {
+        return (T) items[id];
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(items, 0, entries, null);
+        entries = 0;
+        free = -1;
+        size = 0;
+
+        Arrays.fill(slots, -1);
+        Arrays.fill(buckets, 0, bucketCount, null);
+        bucketCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the width and height of the cells.
+     *
+     * @return The cell size of the grid.
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Get the cell the given coordinate falls in.
+     */
+    private int cell(long v) {
+        return (int) Math.floorDiv(v, (long) cellSize);
+    }
+
+    /**
+     * Check whether the given cell is the first cell covered by both the entry and the query area.
+     *
+     * @param id The id of the entry.
+     * @param cx The x-coordinate of the cell the entry was found in.
+     * @param cy The y-coordinate of the cell the entry was found in.
+     * @param x0 The x-coordinate of the first cell covered by the query area.
+     * @param y0 The y-coordinate of the first cell covered by the query area.
+     * @return True if the entry should be reported in this cell.
+     */
+    private boolean isFirstCell(int id, int cx, int cy, int x0, int y0) {
+        return cx == Math.max(cell(entryX[id]), x0) && cy == Math.max(cell(entryY[id]), y0);
+    }
+
+    /**
+     * Check whether the entry intersects with the given area.
+     *
+     * Overlap is decided on the stored coordinates. When the two only touch, the rectangle itself decides.
+     *
+     * @param id The id of the entry.
+     * @param area The rectangular area to query, which has a positive width and height.
+     * @return True if the entry intersects with the area.
+     */
+    private boolean intersects(int id, Rectangle area) {
+        int x = entryX[id], y = entryY[id], w = entryW[id], h = entryH[id];
+        if(w <= 0 || h <= 0) {
+            return false;
+        }
+
+        long ax2 = (long) area.x + area.width, ay2 = (long) area.y + area.height;
+        long x2 = (long) x + w, y2 = (long) y + h;
+        if(x > ax2 || area.x > x2 || y > ay2 || area.y > y2) {
+            return false;
+        }
+        if(x < ax2 && area.x < x2 && y < ay2 && area.y < y2) {
+            return true;
+        }
+        return ((Rectangle) items[id]).intersects(area);
+    }
+
+    /**
+     * Find the slot of the given cell in the hash table, which is either its own slot or the empty slot it belongs in.
+     */
+    private int slot(long key) {
+        // Spread the bits of the key, since neighbouring cells only differ in their lowest bits.
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int mask = slots.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while(slots[slot] != -1 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Find the bucket of the given cell.
+     *
+     * @return The index of the bucket, or -1 if no rectangle has ever been registered in the cell.
+     */
+    private int findBucket(int cx, int cy) {
+        return slots[slot(key(cx, cy))];
+    }
+
+    /**
+     * Find the bucket of the given cell, creating an empty one if it does not exist yet.
+     *
+     * @return The index of the bucket.
+     */
+    private int findOrCreateBucket(int cx, int cy) {
+        long key = key(cx, cy);
+        int slot = slot(key);
+        if(slots[slot] != -1) {
+            return slots[slot];
+        }
+
+        if(bucketCount == buckets.length) {
+            buckets = Arrays.copyOf(buckets, 2 * bucketCount);
+            bucketSize = Arrays.copyOf(bucketSize, 2 * bucketCount);
+        }
+        int b = bucketCount++;
+        buckets[b] = new int[INITIAL_BUCKET_CAPACITY];
+        bucketSize[b] = 0;
+        keys[slot] = key;
+        slots[slot] = b;
+
+        // Keep the load factor of the hash table at most one half.
+        if(2 * bucketCount > slots.length) {
+            rehash();
+        }
+        return b;
+    }
+
+    /**
+     * Double the capacity of the hash table.
+     */
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        keys = new long[2 * oldKeys.length];
+        slots = new int[2 * oldSlots.length];
+        Arrays.fill(slots, -1);
+
+        for(int i = 0; i < oldSlots.length; i++) {
+            if(oldSlots[i] != -1) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                slots[slot] = oldSlots[i];
+            }
+        }
+    }
+
+    /**
+     * Register the entry in the given bucket.
+     */
+    private void addToBucket(int b, int id) {
+        if(bucketSize[b] == buckets[b].length) {
+            buckets[b] = Arrays.copyOf(buckets[b], 2 * bucketSize[b]);
+        }
+        buckets[b][bucketSize[b]++] = id;
+    }
+
+    /**
+     * Remove the entry from the given bucket, by moving the last entry of the bucket into its place.
+     */
+    private void removeFromBucket(int b, int id) {
+        int[] bucket = buckets[b];
+        for(int i = 0; i < bucketSize[b]; i++) {
+            if(bucket[i] == id) {
+                bucket[i] = bucket[--bucketSize[b]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get an unused entry id, reusing the ids of deleted rectangles first.
+     *
+     * @return The entry id.
+     */
+    private int allocateEntry() {
+        if(free != -1) {
+            int id = free;
+            free = nextFree[id];
+            return id;
+        }
+
+        if(entries == items.length) {
+            int capacity = 2 * entries;
+            items = Arrays.copyOf(items, capacity);
+            entryX = Arrays.copyOf(entryX, capacity);
+            entryY = Arrays.copyOf(entryY, capacity);
+            entryW = Arrays.copyOf(entryW, capacity);
+            entryH = Arrays.copyOf(entryH, capacity);
+            nextFree = Arrays.copyOf(nextFree, capacity);
+        }
+        return entries++;
+    }
+
+    /**
+     * Pack the coordinates of a cell into a single key.
+     */
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
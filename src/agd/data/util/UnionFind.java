@@ -0,0 +1,128 @@
+package agd.data.util;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint set forest over the integers 0 to n - 1, with union by size and path halving.
+ */
+public class UnionFind {
+    // The parent of every element, which is the element itself for the root of a set.
+    private final int[] parent;
+
+    // The number of elements in the set of every root.
+    private final int[] size;
+
+    // The number of disjoint sets.
+    private int count;
+
+    /**
+     * Create a forest in which every element is in a set of its own.
+     *
+     * @param n The number of elements.
+     */
+    public UnionFind(int n) {
+        parent = new int[n];
+        size = new int[n];
+        for(int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        count = n;
+    }
+
+    /**
+     * Find the root of the set that holds the given element.
+     *
+     * @param i The element.
+     * @return The element that represents the set.
+     */
+    public int find(int i) {
+        while(parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Merge the sets that hold the given elements.
+     *
+     * @param a The first element.
+     * @param b The second element.
+     * @return True if the elements were in different sets.
+     */
+    public boolean union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if(a == b) {
+            return false;
+        }
+
+        // Hang the smaller set below the larger one, which keeps the trees shallow.
+        if(size[a] < size[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        parent[b] = a;
+        size[a] += size[b];
+        count--;
+        return true;
+    }
+
+    /**
+     * Check whether the given elements are in the same set.
+     *
+     * @param a The first element.
+     * @param b The second element.
+     * @return True if the elements are in the same set.
+     */
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * Get the number of elements in the set that holds the given element.
+     *
+     * @param i The element.
+     * @return The size of the set.
+     */
+    public int size(int i) {
+        return size[find(i)];
+    }
+
+    /**
+     * Get the number of disjoint sets.
+     *
+     * @return The number of sets.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Get the elements of every set, in increasing order within each set.
+     *
+     * @return For every set, an array with its elements. The sets are ordered on their smallest element.
+     */
+    public int[][] sets() {
+        int n = parent.length;
+        int[][] result = new int[count][];
+        int[] index = new int[n];
+        int[] filled = new int[count];
+
+        // Number the sets in the order in which their first element is found.
+        int sets = 0;
+        Arrays.fill(index, -1);
+        for(int i = 0; i < n; i++) {
+            int root = find(i);
+            if(index[root] == -1) {
+                index[root] = sets;
+                result[sets++] = new int[size[root]];
+            }
+            int k = index[root];
+            result[k][filled[k]++] = i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,184 @@
+package agd.file;
+
+import agd.data.input.InstanceReader;
+import agd.data.input.ProblemInstance;
+import agd.data.output.ProblemSolution;
+import agd.solver.AbstractSolver;
+import agd.solver.LocalSearch;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A headless engine that solves all the problem instances within a zip archive in parallel.
+ */
+public class BatchRunner {
+    // Creates a fresh solver for every task, such that tasks never share solver state.
+    private final Supplier<AbstractSolver> solverFactory;
+
+    // The executor the instances are solved on.
+    private final ExecutorService executor;
+
+    /**
+     * Create a batch runner that solves instances with solvers created by the given factory.
+     *
+     * @param solverFactory The factory that creates a new solver for each of the problem instances.
+     * @param executor The executor on which the problem instances should be solved.
+     */
+    public BatchRunner(Supplier<AbstractSolver> solverFactory, ExecutorService executor) {
+        this.solverFactory = solverFactory;
+        this.executor = executor;
+    }
+
+    /**
+     * Create an executor that can be used to solve problem instances in parallel.
+     *
+     * @param parallelism The number of instances that may be solved at the same time.
+     * @param virtualThreads Whether to use virtual threads, which is only possible on Java 21 and later.
+     * @return An executor service, which falls back to a fork join pool if virtual threads are unavailable.
+     */
+    public static ExecutorService createExecutor(int parallelism, boolean virtualThreads) {
+        if(virtualThreads) {
+            try {
+                // Look the factory up reflectively, such that the code still runs on older java versions.
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads are not supported, falling back to a fork join pool.");
+            }
+        }
+        return new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Solve all the problem instances in the given zip file.
+     *
+     * @param input The zip file that contains the problem instances as text files.
+     * @param output The folder the solutions should be written to.
+     * @param csv The file in which the error and running time of each of the instances should be reported, together
+     *            with the error reduction of the local search and its reduction per second if the solutions are
+     *            improved.
+     * @return The results of the instances that have been solved successfully, in the order of the archive.
+     * @throws IOException If the archive cannot be read or the report cannot be written.
+     */
+    public List<Result> run(File input, File output, File csv) throws IOException {
+        List<Result> results = new ArrayList<>();
+
+        try(ZipFile zip = new ZipFile(input)) {
+            // Submit a task for each of the text files in the archive.
+            List<Future<Result>> tasks = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while(entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+
+                if(entry.getName().endsWith(".txt")) {
+                    tasks.add(executor.submit(() -> solve(zip, entry, output)));
+                }
+            }
+
+            // Wait for all the tasks to finish, keeping the order in which they occur in the archive.
+            for(Future<Result> task : tasks) {
+                try {
+                    Result result = task.get();
+                    if(result != null) {
+                        results.add(result);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("The batch run has been interrupted.");
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+        }
+
+        // The results for each entry in csv format, with the outcome of the local search if it has been run.
+        boolean improved = results.stream().anyMatch(result -> result.improvement != null);
+        try(FileWriter writer = new FileWriter(csv)) {
+            writer.append("sep=;\n");
+            writer.append(improved ? "id; d; s; r; r/s;\n" : "id; d; s;\n");
+
+            for(Result result : results) {
+                writer.append(result.name);
+                writer.append(";");
+                writer.append(String.valueOf(result.error));
+                writer.append(";");
+                writer.append(String.valueOf(result.seconds));
+                writer.append(";");
+                if(improved) {
+                    LocalSearch.Report report = result.improvement;
+                    writer.append(report == null ? "" : String.valueOf(report.initialError - report.finalError));
+                    writer.append(";");
+                    writer.append(report == null ? "" : String.valueOf(report.getReductionPerSecond()));
+                    writer.append(";");
+                }
+                writer.append("\n");
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Solve a single entry of the zip file, and write the solution to the output folder.
+     *
+     * @param zip The zip file the entry is part of.
+     * @param entry The entry that holds the problem instance.
+     * @param output The folder the solution should be written to.
+     * @return The result of solving the instance, or null if the instance could not be read.
+     * @throws IOException If the solution cannot be written.
+     */
+    private Result solve(ZipFile zip, ZipEntry entry, File output) throws IOException {
+        ProblemInstance instance;
+        try (InputStream in = zip.getInputStream(entry)) {
+            instance = InstanceReader.read(in);
+        } catch(NoSuchElementException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        long start = System.currentTimeMillis();
+        AbstractSolver solver = solverFactory.get();
+        ProblemSolution solution = new ProblemSolution(instance, solver);
+        double s = (System.currentTimeMillis() - start) / 1000.0;
+
+        // Every task writes its own output file, such that the tasks do not share any buffers.
+        FileHandler.writeSolution(solution, new File(output, entry.getName()));
+
+        String name = entry.getName().substring(0, entry.getName().lastIndexOf('.'));
+        LocalSearch.Report improvement = solver instanceof LocalSearch ? ((LocalSearch) solver).getReport() : null;
+        return new Result(name, solution.getTotalError(), s, improvement);
+    }
+
+    /**
+     * The outcome of solving one of the instances in the archive.
+     */
+    public static class Result {
+        // The name of the entry without the file extension.
+        public final String name;
+
+        // The total error of the solution.
+        public final double error;
+
+        // The time it took to solve the instance, in seconds.
+        public final double seconds;
+
+        // The outcome of the local search that has improved the solution, or null if it has not been improved.
+        public final LocalSearch.Report improvement;
+
+        Result(String name, double error, double seconds, LocalSearch.Report improvement) {
+            this.name = name;
+            this.error = error;
+            this.seconds = seconds;
+            this.improvement = improvement;
+        }
+    }
+}
@@ -1,18 +1,14 @@
 package agd.file;
 
 import agd.core.Core;
-import agd.data.input.ProblemInstance;
+import agd.data.input.InstanceReader;
 import agd.data.output.ProblemSolution;
-import agd.solver.SimpleOutlineMergeSolver;
+import agd.solver.SolverConfig;
+import agd.solver.Solvers;
 
 import java.io.*;
-import java.util.Enumeration;
 import java.util.NoSuchElementException;
-import java.util.Scanner;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
-
-import static agd.solver.SimpleOutlineMergeSolver.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * A class that handles the I/O.
@@ -36,67 +32,50 @@ public class FileHandler {
      * @param file The plain text file which has problem instance data within.
      */
     public void importFile(File file) {
-        try(Scanner scanner = new Scanner(file)) {
+        try {
             // Notify the core that we have a new problem to solve.
-            core.solveProblemInstance(ProblemInstance.readInstance(scanner));
+            core.solveProblemInstance(InstanceReader.read(file));
 
-        } catch (FileNotFoundException | NoSuchElementException e) {
+        } catch (IOException | NoSuchElementException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Solve all the problem instances in the given zip file in parallel, using the solver selected in the GUI.
+     *
+     * @param input The zip file that contains the problem instances.
+     * @param output The folder the solutions should be written to.
+     */
     public void batchResolutionFile(File input, File output) {
-        try {
-            ZipFile zip = new ZipFile(input);
-            Enumeration<? extends ZipEntry> entries = zip.entries();
-
-            // The results for each entry in csv format.
-            FileWriter writer = new FileWriter("F:\\OneDrive - TU Eindhoven\\2IMG15 Geographic data\\results\\data.csv");
-            writer.append("sep=;\n");
-            writer.append("id; d; s;\n");
-
-            // Iterate over all the entries.
-            while(entries.hasMoreElements()){
-                ZipEntry entry = entries.nextElement();
-
-                if(entry.getName().endsWith(".txt")) {
-
-                    try (Scanner scanner = new Scanner(new InputStreamReader(zip.getInputStream(entry)))) {
-
-                        long start = System.currentTimeMillis();
-
-                        // Notify the core that we have a new problem to solve.
-                        core.solveProblemInstance(ProblemInstance.readInstance(scanner));
-
-                        double s = (System.currentTimeMillis() - start) / 1000.0;
-
-                        String name = entry.getName().substring(0, entry.getName().lastIndexOf('.'));
-                        writer.append(name);
-                        writer.append(";");
-                        writer.append(String.valueOf(core.solution.getTotalError()));
-                        writer.append(";");
-                        writer.append(String.valueOf(s));
-                        writer.append(";\n");
-
-                    } catch(FileNotFoundException | NoSuchElementException e){
-                        e.printStackTrace();
-                    }
-
-                    if (core.solution != null) {
-                        exportFile(new File(output, entry.getName()));
-                    }
-                }
-            }
-
-            writer.flush();
-            writer.close();
+        // Read the selected options once, such that the worker threads never have to touch the GUI.
+        SolverConfig config = core.gui.getSolverConfig();
 
+        ExecutorService executor = BatchRunner.createExecutor(Runtime.getRuntime().availableProcessors(), false);
+        try {
+            BatchRunner runner = new BatchRunner(() -> Solvers.create(config), executor);
+            runner.run(input, output, new File(output.getParentFile(), "data.csv"));
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            executor.shutdown();
         }
     }
 
     public void exportFile(File file) {
+        // Write the result to the desired file.
+        if(core.solution != null) {
+            writeSolution(core.solution, file);
+        }
+    }
+
+    /**
+     * Write the given solution to the given file.
+     *
+     * @param solution The solution to write.
+     * @param file The file to write to, which will get the txt extension if it does not have one.
+     */
+    public static void writeSolution(ProblemSolution solution, File file) {
         String filename = file.toString();
 
         if(!filename.endsWith(".txt")) {
@@ -104,10 +83,7 @@ public class FileHandler {
         }
 
         try(FileWriter fw = new FileWriter(filename)) {
-            // Write the result to the desired file.
-            if(core.solution != null) {
-                fw.write(core.solution.output());
-            }
+            fw.write(solution.output());
         } catch (IOException e) {
             e.printStackTrace();
         }
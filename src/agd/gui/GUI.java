@@ -2,6 +2,7 @@ package agd.gui;
 
 import agd.core.Core;
 import agd.solver.AbstractSolver;
+import agd.solver.SolverConfig;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -35,7 +36,7 @@ public class GUI {
     private JLabel minErrorLabel;
     private JLabel errorLabel;
     public JCheckBox validateOutputCheckBox;
-    public JComboBox<SolverOptions> solverSelector;
+    public JComboBox<SolverConfig.SolverKind> solverSelector;
     public JComboBox<AbstractSolver.SortingOptions> sortSelector;
     private JButton recalculateButton;
     public JCheckBox binarySearchCheckBox;
@@ -134,10 +135,6 @@ public class GUI {
         return gui;
     }
 
-    public enum SolverOptions {
-        Outlines, SimpleOutlines, ComplexOutlines, DualSweep, SimpleSweep
-    }
-
     /**
      * Create the GUI components that are not automatically created.
      */
@@ -145,10 +142,21 @@ public class GUI {
         // Obviously, we have to initialize our drawing panel.
         displayPanel = new DrawPanel(this);
 
-        solverSelector = new JComboBox<>(SolverOptions.values());
+        solverSelector = new JComboBox<>(SolverConfig.SolverKind.values());
         sortSelector = new JComboBox<>(AbstractSolver.SortingOptions.values());
     }
 
+    /**
+     * Get the solver configuration that corresponds to the options selected in the GUI.
+     *
+     * @return A configuration holding the selected solver and sorting option.
+     */
+    public SolverConfig getSolverConfig() {
+        return SolverConfig.DEFAULT
+                .withKind((SolverConfig.SolverKind) solverSelector.getSelectedItem())
+                .withSorting((AbstractSolver.SortingOptions) sortSelector.getSelectedItem());
+    }
+
     public void setMinError() {
         if(core.solution != null) {
             System.out.println("Minimum error: " + String.format(Locale.ROOT, "%.3f", core.solution.getMinimumError()));
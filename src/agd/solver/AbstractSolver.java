@@ -7,15 +7,23 @@ import agd.data.outlines.Edge;
 import agd.data.outlines.OutlineRectangle;
 import agd.data.output.HalfGridPoint;
 import agd.data.output.ProblemSolution;
-import agd.data.util.QuadTreeNode;
+import agd.data.util.OverlapSweep;
+import agd.data.util.QuadTree;
+import agd.data.util.SpatialIndex;
+import agd.data.util.UniformGrid;
 import agd.math.Point2d;
 
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * A class that can be extended to create solvers for the problem.
@@ -25,94 +33,217 @@ public abstract class AbstractSolver {
         MANHATTAN_CENTROID, CENTROID, CORNER, CLOSEST_POINT, FURTHEST, NONE, SIZE_ASC, SIZE_DESC, X, Y, ROTATION, MAX_BASED, MIN_BASED
     }
 
-    static QuadTreeNode<OutlineRectangle> initializeQuadTree(ProblemInstance instance) {
+    // The number of points from which the sort keys are computed in parallel.
+    private static final int PARALLEL_SORT_KEYS = 50000;
+
+    // The configuration the solver has been created with.
+    protected final SolverConfig config;
+
+    // The token through which the solver can be asked to stop.
+    protected CancellationToken cancellation = new CancellationToken();
+
+    // The outlines of the last solution of a quiet solver, which are kept such that they can be printed later.
+    private Set<AbstractOutline> outlines;
+
+    /**
+     * Create a solver that uses the default configuration.
+     */
+    public AbstractSolver() {
+        this(SolverConfig.DEFAULT);
+    }
+
+    /**
+     * Create a solver that uses the given configuration.
+     *
+     * @param config The configuration of the solver.
+     */
+    public AbstractSolver(SolverConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Set the token through which the solver can be asked to stop while it is running.
+     *
+     * @param cancellation The token the solver should check.
+     */
+    public void setCancellationToken(CancellationToken cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Create the spatial index that is used for collision detection, as chosen in the configuration.
+     *
+     * @param instance The problem instance that will be solved.
+     * @param config The configuration of the solver.
+     * @return An empty spatial index.
+     */
+    public static <T extends Rectangle> SpatialIndex<T> initializeSpatialIndex(ProblemInstance instance, SolverConfig config) {
+        if(config.index == SolverConfig.IndexType.Grid) {
+            // Size the cells after the weights, which are the sizes of the squares that will be stored.
+            int[] weights = new int[instance.size()];
+            for(int i = 0; i < weights.length; i++) {
+                weights[i] = instance.getWeight(i);
+            }
+            return new UniformGrid<>(UniformGrid.cellSize(weights));
+        }
+
         int width = instance.max_x - instance.min_x;
         int height = instance.max_y - instance.min_y;
-        return new QuadTreeNode<>(
+        int margin = config.quadTreeMargin;
+        return new QuadTree<>(
                 new Rectangle(
-                        instance.min_x - 20 * width,
-                        instance.min_y - 20 * height,
-                        41 * width,
-                        41 * height
-                )
+                        instance.min_x - margin * width,
+                        instance.min_y - margin * height,
+                        (2 * margin + 1) * width,
+                        (2 * margin + 1) * height
+                ),
+                config.quadTreeMaxEntries
         );
     }
 
+    /**
+     * Place the points of which the square at the reference point, enlarged by the margin, overlaps with no other such
+     * square, before the solver starts. These points are placed without any displacement, and the solver moves the
+     * other points around them. Their rectangles are loaded into the spatial index at once, which is much cheaper than
+     * inserting them one by one. Without a margin, a point that is isolated by a hair still blocks the points that are
+     * later pushed towards it, which makes the error a lot worse on dense instances.
+     *
+     * @param instance The problem instance.
+     * @param tree The spatial index in which the rectangles of the placed points are stored.
+     * @param points The list of placed points.
+     * @param place Creates the rectangle of a point at its reference point, together with the outline it is part of.
+     * @param margin The distance by which the squares are enlarged when testing for overlap.
+     * @return The ids of the points that overlap with another point, which still have to be placed by the solver.
+     */
+    static <R extends Rectangle> int[] placeIsolated(ProblemInstance instance, SpatialIndex<R> tree,
+                                                                    ArrayList<HalfGridPoint> points,
+                                                                    Function<WeightedPoint, R> place, int margin) {
+        int n = instance.size();
+        int[] left = new int[n], right = new int[n], bottom = new int[n], top = new int[n];
+        for(int i = 0; i < n; i++) {
+            left[i] = instance.getCornerX(i) - margin;
+            right[i] = instance.getCornerX(i) + instance.getWeight(i) + margin;
+            bottom[i] = instance.getCornerY(i) - margin;
+            top[i] = instance.getCornerY(i) + instance.getWeight(i) + margin;
+        }
+        boolean[] overlapping = OverlapSweep.findOverlapping(left, right, bottom, top, true);
+
+        int[] remaining = new int[n];
+        int count = 0;
+        List<R> rectangles = new ArrayList<>();
+        for(int i = 0; i < n; i++) {
+            if(overlapping[i]) {
+                remaining[count++] = i;
+            } else {
+                WeightedPoint p = instance.getPoint(i);
+                rectangles.add(place.apply(p));
+                points.set(p.i, HalfGridPoint.make(p.c, p));
+            }
+        }
+        tree.insertAll(rectangles);
+        return Arrays.copyOf(remaining, count);
+    }
+
     static Point2d getCentreAndInit(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
-        Point2d centre = new Point2d();
-        for(WeightedPoint p : instance.getPoints()) {
-            centre = centre.add(p.c);
+        Point2d centre = getCentre(instance);
+        initPoints(instance, points);
+        return centre;
+    }
+
+    /**
+     * Find the centre of mass of the reference points of the instance, which the point comparators are relative to.
+     *
+     * @param instance The problem instance.
+     * @return The average of the reference points.
+     */
+    static Point2d getCentre(ProblemInstance instance) {
+        // Sum the reference points of all the points, which are the centres of the squares at their corners.
+        double x = 0, y = 0;
+        for(int i = 0; i < instance.size(); i++) {
+            x += instance.getCornerX(i) + 0.5d * instance.getWeight(i);
+            y += instance.getCornerY(i) + 0.5d * instance.getWeight(i);
         }
-        centre = centre.scale(1d / instance.getPoints().size());
+        return new Point2d(x, y).scale(1d / instance.size());
+    }
 
+    /**
+     * Add an entry to the list of placed points for every point in the instance, which the solvers then set.
+     *
+     * @param instance The problem instance.
+     * @param points The list of placed points.
+     */
+    static void initPoints(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
         // Initialize the array of points to hold null for every entry.
-        for(int i = 0; i < instance.getPoints().size(); i++) {
+        points.ensureCapacity(points.size() + instance.size());
+        for(int i = 0; i < instance.size(); i++) {
             points.add(null);
         }
-        return centre;
     }
 
-    static Comparator<WeightedPoint> getPointComparator(SortingOptions option, final Point2d c) {
+    /**
+     * Compute the key every point is sorted on in the insertion order, where points with a lower key come first.
+     *
+     * The keys are computed once per point, such that a queue does not have to recompute them on every comparison.
+     *
+     * @param instance The problem instance.
+     * @param option The order in which the points are inserted.
+     * @param c The point the order is relative to.
+     * @return The key of every point, indexed by the id of the point.
+     */
+    static double[] getSortKeys(ProblemInstance instance, SortingOptions option, final Point2d c) {
+        double[] keys = new double[instance.size()];
+        IntStream range = IntStream.range(0, keys.length);
+        (keys.length >= PARALLEL_SORT_KEYS ? range.parallel() : range).forEach(
+                i -> keys[i] = getSortKey(instance.getPoint(i), option, c)
+        );
+        return keys;
+    }
+
+    /**
+     * Compute the key a point is sorted on in the insertion order.
+     *
+     * @param p The point.
+     * @param option The order in which the points are inserted.
+     * @param c The point the order is relative to.
+     * @return The key of the point, where points with a lower key come first.
+     */
+    static double getSortKey(WeightedPoint p, SortingOptions option, final Point2d c) {
         switch (option) {
             case CENTROID:
-                return getCentroidComparator(c);
+                return p.distance2(c);
             case CORNER:
-                return getCornerPointComparator(c);
+                return getClosestCornerPoint(p, c).distance2(c);
             case CLOSEST_POINT:
-                return getBorderPointComparator(c);
+                return getClosestPointOnBorder(p, c).distance2(c);
             case FURTHEST:
-                return getFurthestPointComparator(c);
+                return getFurthestCornerPoint(p, c).distance2(c);
             case NONE:
-                return Comparator.comparingInt(a -> a.i);
+                return p.i;
             case SIZE_ASC:
-                return Comparator.comparingInt(a -> a.w);
+                return p.w;
             case SIZE_DESC:
-                return (a1, a2) -> -Integer.compare(a1.w, a2.w);
+                return -p.w;
             case X:
-                return Comparator.comparingDouble(a -> a.x);
+                return p.x;
             case Y:
-                return Comparator.comparingDouble(a -> a.y);
+                return p.y;
             case ROTATION:
-                return getRotationalComparator(c);
+                return getAngleDegree(c, p);
             case MAX_BASED:
-                return Comparator.comparingDouble(a -> Math.max(Math.abs(a.x - c.x), Math.abs(a.y - c.y)));
+                return Math.max(Math.abs(p.x - c.x), Math.abs(p.y - c.y));
             case MIN_BASED:
-                return Comparator.comparingDouble(a -> Math.min(Math.abs(a.x - c.x), Math.abs(a.y - c.y)));
+                return Math.min(Math.abs(p.x - c.x), Math.abs(p.y - c.y));
             case MANHATTAN_CENTROID:
             default:
-                return getManhattanCentroidComparator(c);
+                return p.manhattan(c);
         }
     }
 
-    private static Comparator<WeightedPoint> getRotationalComparator(final Point2d c) {
-        return Comparator.comparingDouble(a -> getAngleDegree(c, a));
-    }
-
     private static double getAngleDegree(Point2d origin, Point2d target) {
         double n = 270 - (Math.atan2(origin.y - target.y, origin.x - target.x)) * 180 / Math.PI;
         return n % 360;
     }
 
-    private static Comparator<WeightedPoint> getCentroidComparator(final Point2d c) {
-        return Comparator.comparingDouble(p -> p.distance2(c));
-    }
-
-    private static Comparator<WeightedPoint> getManhattanCentroidComparator(final Point2d c) {
-        return Comparator.comparingDouble(p -> p.manhattan(c));
-    }
-
-    private static Comparator<WeightedPoint> getCornerPointComparator(final Point2d c) {
-        return Comparator.comparingDouble(p -> getClosestCornerPoint(p, c).distance2(c));
-    }
-
-    private static Comparator<WeightedPoint> getBorderPointComparator(final Point2d c) {
-        return Comparator.comparingDouble(p -> getClosestPointOnBorder(p, c).distance2(c));
-    }
-
-    private static Comparator<WeightedPoint> getFurthestPointComparator(final Point2d c) {
-        return Comparator.comparingDouble(p -> getFurthestCornerPoint(p, c).distance2(c));
-    }
-
     private static Point2d getClosestCornerPoint(WeightedPoint p, final Point2d c) {
         double hw = 0.5 * p.w;
         Point2d[] points = new Point2d[] {
@@ -177,7 +308,31 @@ public abstract class AbstractSolver {
         return best;
     }
 
+    /**
+     * Print the outlines of the solution, or keep them if the configuration asks the solver to be quiet.
+     *
+     * @param outlines The outlines of the solution.
+     */
+    protected void reportOutlines(Set<AbstractOutline> outlines) {
+        if(config.quiet) {
+            this.outlines = outlines;
+        } else {
+            printSolution(outlines);
+        }
+    }
+
+    /**
+     * Get the outlines of the last solution of a quiet solver.
+     *
+     * @return The outlines that have not been printed, or null if the solver has not reported any.
+     */
+    public Set<AbstractOutline> getOutlines() {
+        return outlines;
+    }
+
     public static void printSolution(Set<AbstractOutline> outlines) {
+        // There is no clipboard to copy to when running without a display, e.g. in batch mode.
+        if(GraphicsEnvironment.isHeadless()) return;
 
         // Print the entire solution.
         StringBuilder result = new StringBuilder();
@@ -237,4 +392,33 @@ public abstract class AbstractSolver {
      * @param points The list of placed points.
      */
     public abstract void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points);
+
+    /**
+     * Solve the given problem instance within the given time, or until the given token is cancelled.
+     *
+     * When the solver is stopped, the points it has not placed are placed by a fallback that pushes them to the right,
+     * such that the solution is always complete and valid. The budget only bounds the solver: the fallback runs after
+     * it has passed, and is not stopped. Its running time grows with the number of points that are left and with their
+     * density, from a few microseconds per point on sparse instances to a hundred on dense instances of a million
+     * points, so no fixed share of the budget can be set aside for it.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @param points The list of placed points, which should be empty.
+     * @param budget The time the solver is allowed to run, not counting the fallback.
+     * @param token The token through which the solver can be stopped early.
+     * @return True if the solver has placed all the points itself, false if the fallback has completed the solution.
+     */
+    public boolean solve(ProblemInstance instance, ArrayList<HalfGridPoint> points, Duration budget, CancellationToken token) {
+        CancellationToken previous = cancellation;
+        setCancellationToken(new CancellationToken(token, budget));
+        try {
+            solve(instance, points);
+            return true;
+        } catch (CancellationException e) {
+            Fallback.complete(instance, points);
+            return false;
+        } finally {
+            setCancellationToken(previous);
+        }
+    }
 }
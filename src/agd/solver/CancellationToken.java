@@ -0,0 +1,86 @@
+package agd.solver;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A flag through which another thread can ask a running solver to stop.
+ *
+ * The solvers check the token once per step of their main loop, and throw a CancellationException when it has been
+ * cancelled. The points that have been placed up to then are left in the list of placed points.
+ *
+ * A token can have a deadline, after which it counts as cancelled, and a parent, of which it follows the cancellation.
+ */
+public class CancellationToken {
+    // Whether the solver should stop, which is written and read by different threads.
+    private volatile boolean cancelled;
+
+    // The token of which the cancellation is followed, or null if there is none.
+    private final CancellationToken parent;
+
+    // The value of System.nanoTime at which the token is cancelled, which is only used when hasDeadline is set.
+    private final long deadline;
+    private final boolean hasDeadline;
+
+    /**
+     * Create a token without a deadline, which is only cancelled through cancel.
+     */
+    public CancellationToken() {
+        this.parent = null;
+        this.deadline = 0;
+        this.hasDeadline = false;
+    }
+
+    /**
+     * Create a token that is cancelled once the parent is cancelled.
+     *
+     * @param parent The token of which the cancellation should be followed.
+     */
+    public CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+        this.deadline = 0;
+        this.hasDeadline = false;
+    }
+
+    /**
+     * Create a token that is cancelled once the given budget has passed, or once the parent is cancelled.
+     *
+     * @param parent The token of which the cancellation should be followed, or null if there is none.
+     * @param budget The time from now after which the token is cancelled.
+     */
+    public CancellationToken(CancellationToken parent, Duration budget) {
+        this.parent = parent;
+        this.deadline = System.nanoTime() + budget.toNanos();
+        this.hasDeadline = true;
+    }
+
+    /**
+     * Ask the solver that uses this token to stop.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Check whether the token has been cancelled, or its deadline has passed.
+     *
+     * @return True if the solver should stop.
+     */
+    public boolean isCancelled() {
+        if(!cancelled && (parent != null && parent.isCancelled() || hasDeadline && System.nanoTime() - deadline >= 0)) {
+            cancelled = true;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Stop the current solver if the token has been cancelled.
+     *
+     * @throws CancellationException If the token has been cancelled.
+     */
+    public void throwIfCancelled() {
+        if(isCancelled()) {
+            throw new CancellationException("The solver has been cancelled.");
+        }
+    }
+}
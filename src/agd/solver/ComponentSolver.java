@@ -0,0 +1,280 @@
+package agd.solver;
+
+import agd.data.input.ProblemInstance;
+import agd.data.outlines.AbstractOutline;
+import agd.data.output.HalfGridPoint;
+import agd.data.util.OverlapSweep;
+import agd.data.util.UnionFind;
+import agd.math.Point2d;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+
+/**
+ * A solver that splits the instance into groups of points that cannot interact, and solves the groups in parallel.
+ *
+ * Two points are in the same group when their squares at the reference points overlap, after enlarging them by the
+ * component margin. The groups are packed into batches, which are solved by the delegate on the fork-join pool. Every
+ * batch is solved in the order of the whole instance, since the delegate sorts relative to the centre of the whole
+ * instance.
+ *
+ * Outlines can grow beyond the margin, such that the placements of different batches may still overlap. The groups
+ * with overlapping placements are then merged and solved again. This repeats until the batches are disjoint, which at
+ * the latest happens when all points have ended up in a single group.
+ */
+public class ComponentSolver extends AbstractSolver {
+    /**
+     * A solver that can solve part of an instance in the order of the whole instance.
+     */
+    public interface Delegate {
+        /**
+         * Solve the given problem instance, inserting the points in the order relative to the given centre.
+         *
+         * @param instance The problem instance that contains all the required data.
+         * @param points The list of placed points.
+         * @param option The order in which the points are inserted.
+         * @param centre The point the order is relative to.
+         * @return The outlines that have been generated.
+         */
+        Set<AbstractOutline> solve(ProblemInstance instance, ArrayList<HalfGridPoint> points, SortingOptions option, Point2d centre);
+    }
+
+    // The number of points from which a batch is no longer filled up with more groups.
+    private static final int BATCH_SIZE = 4096;
+
+    // The solver that solves the batches.
+    private final Delegate delegate;
+
+    /**
+     * Create a solver that solves the independent groups of points with the given solver.
+     *
+     * @param config The configuration of the solver.
+     * @param delegate The solver that is used for the groups.
+     */
+    public ComponentSolver(SolverConfig config, Delegate delegate) {
+        super(config);
+        this.delegate = delegate;
+    }
+
+    /**
+     * The token is passed on to the delegate, such that the batches that are being solved stop as well.
+     */
+    @Override
+    public void setCancellationToken(CancellationToken cancellation) {
+        super.setCancellationToken(cancellation);
+        if(delegate instanceof AbstractSolver) {
+            ((AbstractSolver) delegate).setCancellationToken(cancellation);
+        }
+    }
+
+    /**
+     * Solve the given problem instance.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @param points The list of placed points.
+     */
+    @Override
+    public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
+        Point2d centre = getCentre(instance);
+        initPoints(instance, points);
+        int n = instance.size();
+
+        // Group the points of which the enlarged squares at the reference points overlap.
+        UnionFind groups = new UnionFind(n);
+        int margin = config.componentMargin;
+        int[] left = new int[n], right = new int[n], bottom = new int[n], top = new int[n];
+        for(int i = 0; i < n; i++) {
+            left[i] = instance.getCornerX(i) - margin;
+            right[i] = instance.getCornerX(i) + instance.getWeight(i) + margin;
+            bottom[i] = instance.getCornerY(i) - margin;
+            top[i] = instance.getCornerY(i) + instance.getWeight(i) + margin;
+        }
+        OverlapSweep.forEachOverlappingPair(IntStream.range(0, n).toArray(), left, right, bottom, top, groups::union);
+
+        // The batch every point has last been solved in, and the points and outlines of every batch.
+        int[] batchOf = new int[n];
+        List<int[]> solved = new ArrayList<>();
+        List<Set<AbstractOutline>> outlines = new ArrayList<>();
+
+        // When most points can interact with each other, splitting off the other groups does not pay off.
+        int[][] sets = groups.sets();
+        int largest = Arrays.stream(sets).mapToInt(set -> set.length).max().orElse(0);
+        int[][] batches = 2 * largest >= n ? new int[][] {IntStream.range(0, n).toArray()} : createBatches(sets);
+
+        try {
+            while(batches.length > 0) {
+                cancellation.throwIfCancelled();
+                HalfGridPoint[][] placements = solveBatches(instance, batches, centre, outlines);
+                for(int k = 0; k < batches.length; k++) {
+                    for(int j = 0; j < batches[k].length; j++) {
+                        int i = batches[k][j];
+                        batchOf[i] = solved.size();
+                        points.set(i, placements[k][j]);
+                    }
+                    solved.add(batches[k]);
+                }
+
+                // Find the placed squares that overlap with a square of another batch, and merge their groups. Only the
+                // squares around the batches that have just been solved can have new conflicts.
+                int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+                for(int[] batch : batches) {
+                    for(int i : batch) {
+                        Point2d p = points.get(i).point();
+                        int w = instance.getWeight(i);
+                        left[i] = (int) Math.round(p.x - 0.5 * w);
+                        bottom[i] = (int) Math.round(p.y - 0.5 * w);
+                        right[i] = left[i] + w;
+                        top[i] = bottom[i] + w;
+                        minX = Math.min(minX, left[i]);
+                        minY = Math.min(minY, bottom[i]);
+                        maxX = Math.max(maxX, right[i]);
+                        maxY = Math.max(maxY, top[i]);
+                    }
+                }
+                int[] nearby = new int[n];
+                int count = 0;
+                for(int i = 0; i < n; i++) {
+                    if(left[i] < maxX && right[i] > minX && bottom[i] < maxY && top[i] > minY) {
+                        nearby[count++] = i;
+                    }
+                }
+
+                BitSet conflicts = new BitSet(n);
+                OverlapSweep.forEachOverlappingPair(Arrays.copyOf(nearby, count), left, right, bottom, top, (a, b) -> {
+                    if(batchOf[a] != batchOf[b]) {
+                        groups.union(a, b);
+                        conflicts.set(a);
+                        conflicts.set(b);
+                    }
+                });
+
+                // Solve the groups with conflicts again, and forget the outlines they had.
+                boolean[] dirty = new boolean[n];
+                conflicts.stream().forEach(i -> dirty[groups.find(i)] = true);
+                batches = createBatches(regroup(groups, dirty));
+                forgetOutlines(dirty, groups, batchOf, solved, outlines);
+            }
+        } catch (CancellationException e) {
+            // The batches that were about to be solved may still overlap with each other, so they are left unplaced.
+            for(int[] batch : batches) {
+                for(int i : batch) {
+                    points.set(i, null);
+                }
+            }
+            throw e;
+        }
+
+        Set<AbstractOutline> result = new HashSet<>();
+        outlines.forEach(result::addAll);
+        reportOutlines(result);
+    }
+
+    /**
+     * Solve the batches in parallel.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @param batches The ids of the points in every batch, in increasing order.
+     * @param centre The centre of the whole instance.
+     * @param outlines The list to which the outlines of every batch are appended.
+     * @return The placements of the points in every batch, in the same order as the ids.
+     */
+    private HalfGridPoint[][] solveBatches(ProblemInstance instance, int[][] batches, Point2d centre, List<Set<AbstractOutline>> outlines) {
+        HalfGridPoint[][] placements = new HalfGridPoint[batches.length][];
+        List<Set<AbstractOutline>> batchOutlines = new ArrayList<>(Collections.nCopies(batches.length, null));
+
+        IntStream.range(0, batches.length).parallel().forEach(k -> {
+            int[] ids = batches[k];
+            ArrayList<HalfGridPoint> local = new ArrayList<>(ids.length);
+            batchOutlines.set(k, delegate.solve(instance.subset(ids), local, config.sorting, centre));
+
+            // Translate the placements back to the points of the whole instance.
+            placements[k] = new HalfGridPoint[ids.length];
+            for(int j = 0; j < ids.length; j++) {
+                placements[k][j] = HalfGridPoint.make(local.get(j).point(), instance.getPoint(ids[j]));
+            }
+        });
+
+        outlines.addAll(batchOutlines);
+        return placements;
+    }
+
+    /**
+     * Pack the groups into batches, such that the small groups do not have to be solved one by one.
+     *
+     * @param sets The ids of the points in every group, in increasing order.
+     * @return The ids of the points in every batch, in increasing order.
+     */
+    private static int[][] createBatches(int[][] sets) {
+        List<int[]> batches = new ArrayList<>();
+        int[] batch = new int[BATCH_SIZE];
+        int size = 0;
+        for(int[] set : sets) {
+            if(set.length >= BATCH_SIZE) {
+                batches.add(set);
+                continue;
+            }
+
+            if(size + set.length > BATCH_SIZE) {
+                batches.add(sorted(batch, size));
+                size = 0;
+            }
+            System.arraycopy(set, 0, batch, size, set.length);
+            size += set.length;
+        }
+        if(size > 0) {
+            batches.add(sorted(batch, size));
+        }
+
+        // Start with the largest batches, such that the work is spread evenly over the threads.
+        batches.sort((a, b) -> Integer.compare(b.length, a.length));
+        return batches.toArray(new int[0][]);
+    }
+
+    /**
+     * Get the points of the given groups.
+     *
+     * @param groups The sets the points are in.
+     * @param dirty Whether each root is the root of a group that should be returned.
+     * @return The ids of the points in every group, in increasing order.
+     */
+    private static int[][] regroup(UnionFind groups, boolean[] dirty) {
+        Map<Integer, List<Integer>> members = new LinkedHashMap<>();
+        for(int i = 0; i < dirty.length; i++) {
+            int root = groups.find(i);
+            if(dirty[root]) {
+                members.computeIfAbsent(root, k -> new ArrayList<>()).add(i);
+            }
+        }
+        return members.values().stream().map(l -> l.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+    }
+
+    /**
+     * Remove the outlines that hold a point of the given groups from the batches those points were solved in.
+     *
+     * @param dirty Whether each root is the root of a group of which the outlines should be removed.
+     * @param groups The sets the points are in.
+     * @param batchOf The batch every point has last been solved in.
+     * @param solved The points of every batch, in the order of the instance that the batch was solved as.
+     * @param outlines The outlines of every batch.
+     */
+    private static void forgetOutlines(boolean[] dirty, UnionFind groups, int[] batchOf, List<int[]> solved,
+                                       List<Set<AbstractOutline>> outlines) {
+        BitSet batches = new BitSet();
+        for(int i = 0; i < dirty.length; i++) {
+            if(dirty[groups.find(i)]) {
+                batches.set(batchOf[i]);
+            }
+        }
+
+        batches.stream().forEach(k -> outlines.get(k).removeIf(outline -> outline.getRectangles().stream().anyMatch(
+                r -> r.owner != null && dirty[groups.find(solved.get(k)[r.owner.i])]
+        )));
+    }
+
+    private static int[] sorted(int[] array, int size) {
+        int[] result = Arrays.copyOf(array, size);
+        Arrays.sort(result);
+        return result;
+    }
+}
@@ -1,78 +1,210 @@
 package agd.solver;
 
 import agd.data.input.ProblemInstance;
-import agd.data.output.HalfGridCorner;
+import agd.data.input.WeightedPoint;
 import agd.data.output.HalfGridPoint;
-import agd.data.sweeplineDual.*;
-import agd.math.Point2i;
+import agd.data.sweepline.PlaceEvent;
+import agd.data.sweeplineDual.PlaceEventLeft;
+import agd.data.util.EventQueue;
+import agd.data.util.OverlapSweep;
+import agd.data.util.SkylineTree;
+import agd.math.Point2d;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Sweep line algorithm that sweeps slabs of points to the left and to the right, away from the boundaries between them,
+// or side by side when the slabs are cut across the direction of the sweep
 
-// Sweep line algorithm that handles points from left to right
 public class DualSweep extends AbstractSolver {
-    // Variables
+    /**
+     * Create a solver that uses the default configuration.
+     */
+    public DualSweep() {
+        super();
+    }
 
     /**
-     * Translate all points to their lower-left region corner and sort the points by x-coord
+     * Create a solver that uses the given configuration.
      *
-     * @param instance The problem instance that contains all the required data.
-     * @param points   The list of points.
+     * @param config The configuration of the solver.
      */
-    private void translatePoints (ProblemInstance instance, ArrayList<HalfGridCorner> points){
-
-        // Points now contains all the lower left corners of instance.getPoints as well as a reference to the original
-        // point p
-        // point(x, y)→round(point(x, y)−0.5wx)
-        instance.getPoints().forEach(p ->
-                points.add(new HalfGridCorner(Math.round(p.x - 0.5*p.w), Math.round(p.y - 0.5*p.w), p)));
-
-        points.sort(new SortByX());
+    public DualSweep(SolverConfig config) {
+        super(config);
     }
 
     /**
-     * Solve the given problem instance using a left to right sweep line.
+     * Solve the given problem instance by sweeping slabs of points in alternating directions, in parallel. The slabs are
+     * vertical, or horizontal when they are cut across the direction of the sweep.
      *
      * @param instance The problem instance that contains all the required data.
      * @param points The list of placed points.
      */
     @Override
     public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
+        int n = instance.size();
 
-        ArrayList<HalfGridCorner> eventPoints = new ArrayList<>();
-        translatePoints(instance, eventPoints);
+        // Order the lower left region corners on their x-coordinate, or on their y-coordinate for horizontal slabs.
+        EventQueue corners = new EventQueue(n);
+        for (int i = 0; i < n; i++) {
+            if (config.slabsAcross) {
+                corners.add(instance.getCornerY(i), instance.getCornerX(i), i);
+            } else {
+                corners.add(instance.getCornerX(i), instance.getCornerY(i), i);
+            }
+        }
+        corners.sort(false);
 
-        IntervalTree intervalTreeRight = new IntervalTree();
-        PriorityQueue<AbstractEvent> eventsRight = new PriorityQueue<>();
+        // Cut the corners into slabs with an equal number of points. The first slab is swept to the left and the
+        // second to the right, such that both sweeps move away from the boundary between vertical slabs, and so on.
+        int slabs = Math.max(1, Math.min(config.slabs, n));
+        int[] bounds = new int[slabs + 1];
+        for (int s = 0; s <= slabs; s++) {
+            bounds[s] = (int) Math.round(s * (double) n / slabs);
+        }
 
-        PriorityQueue<AbstractEvent> eventsLeft = new PriorityQueue<>(Collections.reverseOrder());
+        // Every slab is swept on a status of its own, after which the squares of different slabs may overlap.
+        HalfGridPoint[][] placements = new HalfGridPoint[slabs][];
+        IntStream.range(0, slabs).parallel().forEach(s ->
+                placements[s] = sweep(instance, corners, bounds[s], bounds[s + 1], s % 2 == 0)
+        );
 
-        HalfGridCorner tempPoint;
-        for (int i = 0; i < eventPoints.size(); i++) {
-            if (i < Math.round(eventPoints.size() /2.0)) {
-                tempPoint = eventPoints.get(i);
-                eventsLeft.add(new PlaceEventLeft(new Point2i((int)tempPoint.point().x + tempPoint.o.w, (int) tempPoint.point().y ),
-                        tempPoint.o));
-            } else {
-                tempPoint = eventPoints.get(i);
-                eventsRight.add(new PlaceEvent(new Point2i((int) tempPoint.point().x, (int) tempPoint.point().y), tempPoint.o));
+        HalfGridPoint[] result = new HalfGridPoint[n];
+        int[] slabOf = new int[n];
+        int count = 0;
+        for (int s = 0; s < slabs; s++) {
+            for (HalfGridPoint p : placements[s]) {
+                result[p.o.i] = p;
+                slabOf[p.o.i] = s;
             }
+            count += placements[s].length;
         }
 
-        // Get events from PQ using poll(), use .execute() on event
+        points.clear();
+        if (count < n) {
+            // The sweeps have been stopped, so only the squares that they have placed without overlap are kept.
+            reconcile(result, slabOf, slabs);
+            for (HalfGridPoint p : result) {
+                if (p != null) {
+                    points.add(p);
+                }
+            }
+            cancellation.throwIfCancelled();
+        }
+        if (reconcile(result, slabOf, slabs)) {
+            points.addAll(Arrays.asList(result));
+            Fallback.complete(instance, points);
+        } else {
+            points.addAll(Arrays.asList(result));
+        }
+    }
 
-        while (!eventsLeft.isEmpty()) {
-            eventsLeft.poll().execute(intervalTreeRight, points, eventsRight);
+    /**
+     * Place the squares of the points with corners in the given range of the order with a single sweep.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @param corners The points ordered on the lower left region corners, from which the slabs are cut.
+     * @param from The position of the first corner in the slab.
+     * @param to The position after the last corner in the slab.
+     * @param leftward Whether the slab is swept to the left, from the lower right region corners.
+     * @return The placed points of the slab, which are only part of them if the sweep has been stopped.
+     */
+    private HalfGridPoint[] sweep(ProblemInstance instance, EventQueue corners, int from, int to, boolean leftward) {
+        EventQueue events = new EventQueue(to - from);
+        int[] coordinates = new int[2 * (to - from)];
+        for (int k = from; k < to; k++) {
+            int i = corners.getPoint(k);
+            int x = instance.getCornerX(i), y = instance.getCornerY(i), w = instance.getWeight(i);
+            events.add(leftward ? x + w : x, y, i);
+            coordinates[2 * (k - from)] = y;
+            coordinates[2 * (k - from) + 1] = y + w;
         }
 
-        while (!eventsRight.isEmpty()) {
-            eventsRight.poll().execute(intervalTreeRight, points, eventsRight);
+        // The corners of vertical slabs are in order already when sweeping to the right.
+        if (leftward || config.slabsAcross) {
+            events.sort(leftward);
         }
+
+        SkylineTree skyline = new SkylineTree(coordinates);
+        ArrayList<HalfGridPoint> placed = new ArrayList<>(to - from);
+        for (int k = 0; k < events.size(); k++) {
+            if (cancellation.isCancelled()) {
+                break;
+            }
+            WeightedPoint p = instance.getPoint(events.getPoint(k));
+            if (leftward) {
+                PlaceEventLeft.execute(skyline, events.getX(k), events.getY(k), p, placed);
+            } else {
+                PlaceEvent.execute(skyline, events.getX(k), events.getY(k), p, placed);
+            }
+        }
+        return placed.toArray(new HalfGridPoint[0]);
     }
-}
 
-class SortByX implements Comparator<HalfGridCorner> {
-    // Sort HalfGridPoints by their x-coords with y-coord
-    public int compare(HalfGridCorner a, HalfGridCorner b) {
-        return a.point().x == b.point().x ? Double.compare(a.point().y, b.point().y) : Double.compare(a.point().x, b.point().x);
+    /**
+     * Remove the squares that overlap with the square of a point in an earlier slab.
+     *
+     * Squares of different slabs can only overlap where the squares of one slab reach into the extent of another, which
+     * mostly happens around the boundaries of vertical slabs that are swept towards each other, and along the
+     * boundaries of horizontal slabs. Only the squares that reach into the bounding box of another slab are compared.
+     *
+     * @param result The placed points in the order of their ids, which may contain null entries, and of which the
+     *               removed ones are set to null.
+     * @param slabOf The slab of every point.
+     * @param slabs The number of slabs.
+     * @return True if any square has been removed.
+     */
+    private static boolean reconcile(HalfGridPoint[] result, int[] slabOf, int slabs) {
+        int n = result.length;
+        int[] left = new int[n], right = new int[n], bottom = new int[n], top = new int[n];
+        int[] minLeft = new int[slabs], maxRight = new int[slabs], minBottom = new int[slabs], maxTop = new int[slabs];
+        Arrays.fill(minLeft, Integer.MAX_VALUE);
+        Arrays.fill(maxRight, Integer.MIN_VALUE);
+        Arrays.fill(minBottom, Integer.MAX_VALUE);
+        Arrays.fill(maxTop, Integer.MIN_VALUE);
+        for (int i = 0; i < n; i++) {
+            if (result[i] == null) {
+                continue;
+            }
+            Point2d c = result[i].point();
+            int w = result[i].o.w;
+            left[i] = (int) (c.x - 0.5 * w);
+            bottom[i] = (int) (c.y - 0.5 * w);
+            right[i] = left[i] + w;
+            top[i] = bottom[i] + w;
+            minLeft[slabOf[i]] = Math.min(minLeft[slabOf[i]], left[i]);
+            maxRight[slabOf[i]] = Math.max(maxRight[slabOf[i]], right[i]);
+            minBottom[slabOf[i]] = Math.min(minBottom[slabOf[i]], bottom[i]);
+            maxTop[slabOf[i]] = Math.max(maxTop[slabOf[i]], top[i]);
+        }
+
+        int[] candidates = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            for (int t = 0; t < slabs && result[i] != null; t++) {
+                if (t != slabOf[i] && left[i] < maxRight[t] && minLeft[t] < right[i]
+                        && bottom[i] < maxTop[t] && minBottom[t] < top[i]) {
+                    candidates[count++] = i;
+                    break;
+                }
+            }
+        }
+
+        boolean[] removed = new boolean[n];
+        OverlapSweep.forEachOverlappingPair(Arrays.copyOf(candidates, count), left, right, bottom, top, (a, b) -> {
+            if (slabOf[a] != slabOf[b] && !removed[a] && !removed[b]) {
+                removed[slabOf[a] > slabOf[b] ? a : b] = true;
+            }
+        });
+
+        boolean any = false;
+        for (int i = 0; i < n; i++) {
+            if (removed[i]) {
+                result[i] = null;
+                any = true;
+            }
+        }
+        return any;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package agd.solver;
+
+import agd.data.input.ProblemInstance;
+import agd.data.input.WeightedPoint;
+import agd.data.outlines.OutlineRectangle;
+import agd.data.output.HalfGridPoint;
+import agd.data.util.SpatialIndex;
+import agd.data.util.UniformGrid;
+import agd.math.Point2d;
+
+import java.util.*;
+
+/**
+ * Completes a partial solution of a solver that has been stopped, such that every point is placed without overlap.
+ *
+ * The solvers only leave placements behind that do not overlap, which are kept. The points without placement are
+ * taken in the order of the left side of their square at the reference point, and each of them is pushed to the right
+ * until its square is free. This always succeeds, and only costs a few queries in the spatial index per point.
+ */
+final class Fallback {
+    private Fallback() {
+    }
+
+    /**
+     * Place all the points that have not been placed yet.
+     *
+     * @param instance The problem instance that is being solved.
+     * @param points The placed points, which do not overlap and may contain null entries. Afterwards, it holds the
+     *               placement of every point in the order of their ids.
+     */
+    static void complete(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
+        int n = instance.size();
+        HalfGridPoint[] result = new HalfGridPoint[n];
+        for(HalfGridPoint p : points) {
+            if(p != null) {
+                result[p.o.i] = p;
+            }
+        }
+
+        // Order the points without placement on the left side of their squares.
+        int[] weights = new int[n];
+        long[] remaining = new long[n];
+        int count = 0;
+        for(int i = 0; i < n; i++) {
+            weights[i] = instance.getWeight(i);
+            if(result[i] == null) {
+                remaining[count++] = ((long) instance.getCornerX(i) << 32) | i;
+            }
+        }
+        Arrays.sort(remaining, 0, count);
+
+        // A square is only pushed along its own row, to the right of its reference point, so only the placements that
+        // reach into one of those rows beyond the leftmost remaining square can be in the way.
+        Rows rows = new Rows(instance, remaining, count);
+        int minX = count == 0 ? Integer.MAX_VALUE : (int) (remaining[0] >> 32);
+        List<OutlineRectangle> rectangles = new ArrayList<>();
+        for(int i = 0; i < n; i++) {
+            if(result[i] != null) {
+                Point2d c = result[i].point();
+                int w = result[i].o.w;
+                int x = (int) Math.round(c.x - 0.5 * w), y = (int) Math.round(c.y - 0.5 * w);
+                if(x + w > minX && rows.intersects(y, y + w)) {
+                    rectangles.add(AbstractSolver.getOutlineRectangle(c, result[i].o, false));
+                }
+            }
+        }
+
+        // The weights are sorted while choosing the cell size.
+        SpatialIndex<OutlineRectangle> index = new UniformGrid<>(UniformGrid.cellSize(weights));
+        index.insertAll(rectangles);
+
+        // Push every remaining point to the right, past the squares it overlaps with, until it is free.
+        Reach reach = new Reach();
+        for(int k = 0; k < count; k++) {
+            int i = (int) remaining[k];
+            WeightedPoint p = instance.getPoint(i);
+            OutlineRectangle r = new OutlineRectangle(instance.getCornerX(i), instance.getCornerY(i), p.w, p, false);
+            while(true) {
+                // Every square that overlaps with r ends to the right of its left side, so r is free if none is found.
+                reach.x = r.x;
+                index.forEachIntersecting(r, reach);
+                if(reach.x == r.x) {
+                    break;
+                }
+                r = new OutlineRectangle(reach.x, r.y, p.w, p, false);
+            }
+
+            index.insert(r);
+            result[i] = HalfGridPoint.make(new Point2d(r.x + 0.5 * r.width, r.y + 0.5 * r.height), p);
+        }
+
+        points.clear();
+        points.addAll(Arrays.asList(result));
+    }
+
+    /**
+     * The union of the rows that the squares of the remaining points lie in, as disjoint sorted intervals.
+     */
+    private static class Rows {
+        // The bottom and top of every interval, in increasing order.
+        private final int[] bottom, top;
+
+        Rows(ProblemInstance instance, long[] remaining, int count) {
+            long[] rows = new long[count];
+            for(int k = 0; k < count; k++) {
+                int i = (int) remaining[k];
+                rows[k] = ((long) instance.getCornerY(i) << 32) | i;
+            }
+            Arrays.sort(rows);
+
+            int[] b = new int[count], t = new int[count];
+            int size = 0;
+            for(long row : rows) {
+                int i = (int) row;
+                int y = instance.getCornerY(i), h = instance.getWeight(i);
+                if(size > 0 && y <= t[size - 1]) {
+                    t[size - 1] = Math.max(t[size - 1], y + h);
+                } else {
+                    b[size] = y;
+                    t[size++] = y + h;
+                }
+            }
+            bottom = Arrays.copyOf(b, size);
+            top = Arrays.copyOf(t, size);
+        }
+
+        /**
+         * Check whether the open interval (y1, y2) overlaps with one of the rows.
+         */
+        boolean intersects(int y1, int y2) {
+            // The first row that ends above y1, which is the only one that can start below y2 and still overlap.
+            int lo = 0, hi = top.length;
+            while(lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if(top[mid] <= y1) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo < top.length && bottom[lo] < y2;
+        }
+    }
+
+    /**
+     * Finds the right side that lies furthest to the right among the rectangles it visits.
+     */
+    private static class Reach implements SpatialIndex.Visitor<OutlineRectangle> {
+        // The furthest right side found so far.
+        private int x;
+
+        @Override
+        public boolean visit(OutlineRectangle entry) {
+            x = Math.max(x, entry.x + entry.width);
+            return true;
+        }
+    }
+}
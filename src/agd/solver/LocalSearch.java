@@ -0,0 +1,466 @@
+package agd.solver;
+
+import agd.data.input.ProblemInstance;
+import agd.data.input.WeightedPoint;
+import agd.data.outlines.AbstractOutline;
+import agd.data.outlines.OutlineRectangle;
+import agd.data.output.HalfGridPoint;
+import agd.data.util.SpatialIndex;
+import agd.math.Point2d;
+
+import java.awt.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A solver that improves the solution of another solver by moving the placed squares closer to their reference points.
+ *
+ * The search works in rounds. In every round, the best move of every displaced point is chosen while the placements are
+ * left untouched, which only reads the spatial index and is done in parallel for large instances. A point can either
+ * slide towards its reference point until it hits another square, jump to its reference point if that is free, or swap
+ * places with one of the squares that cover its reference point. The moves are then applied in the order of their gain.
+ * Every move is checked again against the current placements by deleting the squares it moves from the index and
+ * inserting them at their new positions, such that moves of nearby points that turn out to conflict are skipped. The
+ * rounds continue until no move improves the solution, or until the time budget has passed. The solution stays valid
+ * at all times.
+ */
+public class LocalSearch extends AbstractSolver {
+    // The number of candidate points from which the moves are evaluated in parallel.
+    private static final int PARALLEL_EVALUATION = 10000;
+
+    // The maximum number of squares covering the reference point of a point that are tried as swap partners.
+    private static final int SWAP_CANDIDATES = 4;
+
+    // The improvement below which a move is not worth applying, which absorbs the rounding errors in the gain.
+    private static final double MIN_GAIN = 1e-9;
+
+    /**
+     * The outcome of a run of the local search.
+     */
+    public static class Report {
+        // The total error before and after the search.
+        public final double initialError, finalError;
+
+        // The number of rounds that have been run, and the number of moves that have been applied.
+        public final int rounds, moves;
+
+        // The time the search has taken.
+        public final Duration elapsed;
+
+        Report(double initialError, double finalError, int rounds, int moves, Duration elapsed) {
+            this.initialError = initialError;
+            this.finalError = finalError;
+            this.rounds = rounds;
+            this.moves = moves;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * Get the amount by which the total error has decreased per second of searching.
+         *
+         * @return The error reduction per second, or zero if no time has passed.
+         */
+        public double getReductionPerSecond() {
+            double seconds = elapsed.toNanos() / 1e9;
+            return seconds > 0 ? (initialError - finalError) / seconds : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Local search: %d moves in %d rounds, error %.2f -> %.2f (%.2f per second).",
+                    moves, rounds, initialError, finalError, getReductionPerSecond());
+        }
+    }
+
+    // The solver that creates the solution that is improved.
+    private final AbstractSolver solver;
+
+    // The outcome of the last search.
+    private Report report;
+
+    /**
+     * Create a solver that improves the solutions of the given solver, for the time set in the configuration.
+     *
+     * @param config The configuration of the solver.
+     * @param solver The solver that creates the solution that is improved.
+     */
+    public LocalSearch(SolverConfig config, AbstractSolver solver) {
+        super(config);
+        this.solver = solver;
+    }
+
+    /**
+     * The token is passed on to the solver that creates the solution, such that it stops as well.
+     */
+    @Override
+    public void setCancellationToken(CancellationToken cancellation) {
+        super.setCancellationToken(cancellation);
+        solver.setCancellationToken(cancellation);
+    }
+
+    /**
+     * Solve the given problem instance, and improve the solution until the improvement time has passed.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @param points The list of placed points.
+     */
+    @Override
+    public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
+        solver.solve(instance, points);
+        report = improve(instance, points, new CancellationToken(cancellation, config.improvement));
+    }
+
+    /**
+     * The outlines are those of the solver that creates the solution, from before it was improved.
+     */
+    @Override
+    public Set<AbstractOutline> getOutlines() {
+        return solver.getOutlines();
+    }
+
+    /**
+     * Get the outcome of the last search.
+     *
+     * @return The report of the last call to solve, or null if the solver has not been run yet.
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    /**
+     * Improve the given solution until no move improves it, or until the token is cancelled.
+     *
+     * @param instance The problem instance that has been solved.
+     * @param points The placement of every point, which should not overlap. The points that move are replaced at the
+     *               position they have in the list.
+     * @param token The token through which the search is stopped, which is checked once per point.
+     * @return The outcome of the search.
+     */
+    public Report improve(ProblemInstance instance, ArrayList<HalfGridPoint> points, CancellationToken token) {
+        long start = System.nanoTime();
+        Search search = new Search(instance, points);
+        double initialError = search.totalError();
+
+        int rounds = 0, moves = 0;
+        while(!token.isCancelled()) {
+            rounds++;
+            int applied = search.applyAll(search.evaluateAll(token));
+            moves += applied;
+            if(applied == 0) {
+                break;
+            }
+        }
+
+        // The search works on corner coordinates, which are only converted back for the points that have moved.
+        search.writeTo(points);
+        return new Report(initialError, search.totalError(), rounds, moves, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * A move of one point, or of two points that swap places.
+     */
+    private static class Move {
+        // The improvement of the total error.
+        final double gain;
+
+        // The point that moves and the corner it moves to.
+        final int i, x, y;
+
+        // The point it swaps with and the corner that one moves to, where j is -1 when there is no swap.
+        final int j, jx, jy;
+
+        Move(double gain, int i, int x, int y, int j, int jx, int jy) {
+            this.gain = gain;
+            this.i = i;
+            this.x = x;
+            this.y = y;
+            this.j = j;
+            this.jx = jx;
+            this.jy = jy;
+        }
+    }
+
+    /**
+     * The state of a search, in which the placements are kept as the bottom left corners of the squares.
+     */
+    private class Search {
+        private final ProblemInstance instance;
+
+        // The current corner of every point, and the rectangle of every point that is stored in the index.
+        private final int[] cornerX, cornerY;
+        private final OutlineRectangle[] rectangles;
+
+        // Whether the point has been moved during the search, and the position of its placement in the list.
+        private final boolean[] changed;
+        private final int[] position;
+
+        // The placed squares, which are compared strictly such that squares may touch.
+        private final SpatialIndex<OutlineRectangle> index;
+
+        Search(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
+            int n = instance.size();
+            this.instance = instance;
+            this.cornerX = new int[n];
+            this.cornerY = new int[n];
+            this.rectangles = new OutlineRectangle[n];
+            this.changed = new boolean[n];
+            this.position = new int[n];
+            this.index = initializeSpatialIndex(instance, config);
+
+            // The sweep solvers do not place the points in the order of their ids.
+            for(int k = 0; k < n; k++) {
+                HalfGridPoint p = points.get(k);
+                int i = p.o.i;
+                position[i] = k;
+                rectangles[i] = getOutlineRectangle(p.point(), p.o, false);
+                cornerX[i] = rectangles[i].x;
+                cornerY[i] = rectangles[i].y;
+            }
+            index.insertAll(Arrays.asList(rectangles));
+        }
+
+        /**
+         * Find the best move of every point that is not at its reference point, without changing the placements.
+         */
+        List<Move> evaluateAll(CancellationToken token) {
+            int[] candidates = IntStream.range(0, instance.size()).filter(
+                    i -> cornerX[i] != instance.getCornerX(i) || cornerY[i] != instance.getCornerY(i)
+            ).toArray();
+
+            IntStream stream = IntStream.of(candidates);
+            return (candidates.length >= PARALLEL_EVALUATION ? stream.parallel() : stream)
+                    .mapToObj(i -> token.isCancelled() ? null : evaluate(i))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Find the move of the given point that decreases the error the most.
+         *
+         * @return The best move, or null if no move improves the error.
+         */
+        Move evaluate(int i) {
+            WeightedPoint p = rectangles[i].owner;
+            int x = cornerX[i], y = cornerY[i];
+            int rx = instance.getCornerX(i), ry = instance.getCornerY(i);
+            double current = error(p, x, y);
+            Move best = null;
+
+            // Jump to the reference point, or slide towards it along both axes in either order.
+            int[][] targets = new int[3][];
+            List<OutlineRectangle> blockers = blockers(i, rx, ry);
+            if(blockers.isEmpty()) {
+                targets[0] = new int[] {rx, ry};
+            }
+            int sx = slideX(i, x, y, rx);
+            targets[1] = new int[] {sx, slideY(i, sx, y, ry)};
+            int sy = slideY(i, x, y, ry);
+            targets[2] = new int[] {slideX(i, x, sy, rx), sy};
+
+            for(int[] target : targets) {
+                if(target != null) {
+                    double gain = current - error(p, target[0], target[1]);
+                    if(gain > MIN_GAIN && (best == null || gain > best.gain)) {
+                        best = new Move(gain, i, target[0], target[1], -1, 0, 0);
+                    }
+                }
+            }
+
+            // Swap the centres with one of the squares that keep the point from its reference point.
+            for(int k = 0; k < Math.min(SWAP_CANDIDATES, blockers.size()); k++) {
+                WeightedPoint q = blockers.get(k).owner;
+                int j = q.i;
+                int x1 = swapCorner(cornerX[j], q.w, p.w), y1 = swapCorner(cornerY[j], q.w, p.w);
+                int x2 = swapCorner(x, p.w, q.w), y2 = swapCorner(y, p.w, q.w);
+                double gain = current + error(q, cornerX[j], cornerY[j]) - error(p, x1, y1) - error(q, x2, y2);
+                if(gain > MIN_GAIN && (best == null || gain > best.gain) && !overlaps(x1, y1, p.w, x2, y2, q.w)
+                        && isFree(x1, y1, p.w, i, j) && isFree(x2, y2, q.w, i, j)) {
+                    best = new Move(gain, i, x1, y1, j, x2, y2);
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Apply the given moves in the order of decreasing gain, skipping the ones that no longer fit.
+         *
+         * @return The number of moves that have been applied.
+         */
+        int applyAll(List<Move> moves) {
+            moves.sort(Comparator.comparingDouble((Move m) -> -m.gain).thenComparingInt(m -> m.i));
+            boolean[] moved = new boolean[instance.size()];
+            int applied = 0;
+            for(Move m : moves) {
+                // A move that was chosen before one of its points moved is no longer accurate.
+                if(moved[m.i] || m.j != -1 && moved[m.j]) {
+                    continue;
+                }
+
+                index.delete(rectangles[m.i]);
+                if(m.j != -1) {
+                    index.delete(rectangles[m.j]);
+                }
+
+                WeightedPoint p = rectangles[m.i].owner;
+                OutlineRectangle r = new OutlineRectangle(m.x, m.y, p.w, p, false);
+                OutlineRectangle s = null;
+                boolean fits = !index.anyIntersecting(r);
+                if(m.j != -1) {
+                    WeightedPoint q = rectangles[m.j].owner;
+                    s = new OutlineRectangle(m.jx, m.jy, q.w, q, false);
+                    fits = fits && !index.anyIntersecting(s) && !overlaps(m.x, m.y, p.w, m.jx, m.jy, q.w);
+                }
+
+                if(!fits) {
+                    index.insert(rectangles[m.i]);
+                    if(m.j != -1) {
+                        index.insert(rectangles[m.j]);
+                    }
+                    continue;
+                }
+
+                place(m.i, r);
+                moved[m.i] = true;
+                if(m.j != -1) {
+                    place(m.j, s);
+                    moved[m.j] = true;
+                }
+                applied++;
+            }
+            return applied;
+        }
+
+        /**
+         * Put the given point at the given rectangle, which is free.
+         */
+        private void place(int i, OutlineRectangle r) {
+            index.insert(r);
+            rectangles[i] = r;
+            cornerX[i] = r.x;
+            cornerY[i] = r.y;
+            changed[i] = true;
+        }
+
+        /**
+         * Find the squares other than that of the given point which overlap with its square at the given corner.
+         */
+        private List<OutlineRectangle> blockers(int i, int x, int y) {
+            List<OutlineRectangle> result = new ArrayList<>();
+            index.forEachIntersecting(new Rectangle(x, y, instance.getWeight(i), instance.getWeight(i)), entry -> {
+                if(entry.owner.i != i) {
+                    result.add(entry);
+                }
+                return true;
+            });
+            return result;
+        }
+
+        /**
+         * Check whether a square at the given corner overlaps with no square other than those of the given points.
+         */
+        private boolean isFree(int x, int y, int w, int i, int j) {
+            return index.forEachIntersecting(new Rectangle(x, y, w, w), entry -> entry.owner.i == i || entry.owner.i == j);
+        }
+
+        /**
+         * Find how far the square of the given point can slide horizontally from x towards the target.
+         *
+         * @return The corner coordinate closest to the target at which the square does not overlap.
+         */
+        private int slideX(int i, int x, int y, int target) {
+            int w = instance.getWeight(i);
+            if(target == x) {
+                return x;
+            }
+
+            // The squares in the swept area lie entirely ahead of the square, since the placement is valid.
+            boolean right = target > x;
+            Rectangle area = right ? new Rectangle(x, y, target - x + w, w) : new Rectangle(target, y, x - target + w, w);
+            int[] stop = {target};
+            index.forEachIntersecting(area, entry -> {
+                if(entry.owner.i != i) {
+                    stop[0] = right ? Math.min(stop[0], entry.x - w) : Math.max(stop[0], entry.x + entry.width);
+                }
+                return true;
+            });
+            return right ? Math.max(x, stop[0]) : Math.min(x, stop[0]);
+        }
+
+        /**
+         * Find how far the square of the given point can slide vertically from y towards the target.
+         *
+         * @return The corner coordinate closest to the target at which the square does not overlap.
+         */
+        private int slideY(int i, int x, int y, int target) {
+            int w = instance.getWeight(i);
+            if(target == y) {
+                return y;
+            }
+
+            boolean up = target > y;
+            Rectangle area = up ? new Rectangle(x, y, w, target - y + w) : new Rectangle(x, target, w, y - target + w);
+            int[] stop = {target};
+            index.forEachIntersecting(area, entry -> {
+                if(entry.owner.i != i) {
+                    stop[0] = up ? Math.min(stop[0], entry.y - w) : Math.max(stop[0], entry.y + entry.height);
+                }
+                return true;
+            });
+            return up ? Math.max(y, stop[0]) : Math.min(y, stop[0]);
+        }
+
+        /**
+         * Get the sum of the errors of the current placements.
+         */
+        double totalError() {
+            double total = 0;
+            for(int i = 0; i < cornerX.length; i++) {
+                total += error(rectangles[i].owner, cornerX[i], cornerY[i]);
+            }
+            return total;
+        }
+
+        /**
+         * Write the placements of the points that have moved to the given list.
+         */
+        void writeTo(ArrayList<HalfGridPoint> points) {
+            for(int i = 0; i < changed.length; i++) {
+                if(changed[i]) {
+                    WeightedPoint p = rectangles[i].owner;
+                    points.set(position[i], HalfGridPoint.make(new Point2d(cornerX[i] + 0.5 * p.w, cornerY[i] + 0.5 * p.w), p));
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the squared distance between a point and the centre of its square at the given corner.
+     */
+    private static double error(WeightedPoint p, int x, int y) {
+        double dx = p.x - (x + 0.5 * p.w);
+        double dy = p.y - (y + 0.5 * p.w);
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Get the corner of a square of size w whose centre is as close as possible to that of the square of size v at the
+     * given corner.
+     */
+    private static int swapCorner(int corner, int v, int w) {
+        return (int) Math.round(corner + 0.5 * (v - w));
+    }
+
+    /**
+     * Check whether two squares at the given corners overlap, where touching is allowed.
+     */
+    private static boolean overlaps(int x1, int y1, int w1, int x2, int y2, int w2) {
+        return x1 < x2 + w2 && x2 < x1 + w1 && y1 < y2 + w2 && y2 < y1 + w1;
+    }
+}
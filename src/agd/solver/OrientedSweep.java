@@ -0,0 +1,108 @@
+package agd.solver;
+
+import agd.data.input.ProblemInstance;
+import agd.data.output.HalfGridPoint;
+import agd.math.Point2d;
+
+import java.util.ArrayList;
+
+/**
+ * A solver that lets a sweep solver, which always pushes the squares to the right, push them in the direction of the
+ * configuration instead.
+ *
+ * The sweep is run on a view of the instance that is mirrored and transposed such that the direction of the
+ * configuration points to the right, after which the placed squares are transformed back. Both transformations map
+ * the half grid onto itself and preserve distances, so the squares stay disjoint and keep their error.
+ */
+class OrientedSweep extends AbstractSolver {
+    // The solver that places the squares in the transformed view.
+    private final AbstractSolver solver;
+
+    /**
+     * Create a solver that runs the given sweep in the direction of the configuration.
+     *
+     * @param config The configuration of the solver.
+     * @param solver The sweep that pushes the squares to the right.
+     */
+    OrientedSweep(SolverConfig config, AbstractSolver solver) {
+        super(config);
+        this.solver = solver;
+    }
+
+    @Override
+    public void setCancellationToken(CancellationToken cancellation) {
+        super.setCancellationToken(cancellation);
+        solver.setCancellationToken(cancellation);
+    }
+
+    /**
+     * Solve the given problem instance by sweeping a transformed view of it.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @param points The list of placed points.
+     */
+    @Override
+    public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
+        ArrayList<HalfGridPoint> placed = new ArrayList<>(instance.size());
+        try {
+            solver.solve(view(instance, config.direction), placed);
+        } finally {
+            // When the sweep is stopped, the points it has placed are kept for the fallback.
+            points.ensureCapacity(instance.size());
+            for(HalfGridPoint p : placed) {
+                // The points of the view share their ids with the points of the instance.
+                Point2d c = p.point();
+                points.add(new HalfGridPoint(toX(c, config.direction), toY(c, config.direction), instance.getPoint(p.o.i)));
+            }
+        }
+    }
+
+    /**
+     * Create the view of the instance in which the given direction points to the right.
+     */
+    private static ProblemInstance view(ProblemInstance instance, SolverConfig.Direction direction) {
+        switch (direction) {
+            case Left:
+                return instance.mirrored();
+            case Up:
+                return instance.transposed();
+            case Down:
+                return instance.transposed().mirrored();
+            case Right:
+            default:
+                return instance;
+        }
+    }
+
+    /**
+     * Get the x-coordinate in the instance of the given position in the view.
+     */
+    private static double toX(Point2d c, SolverConfig.Direction direction) {
+        switch (direction) {
+            case Left:
+                return -c.x;
+            case Up:
+            case Down:
+                return c.y;
+            case Right:
+            default:
+                return c.x;
+        }
+    }
+
+    /**
+     * Get the y-coordinate in the instance of the given position in the view.
+     */
+    private static double toY(Point2d c, SolverConfig.Direction direction) {
+        switch (direction) {
+            case Up:
+                return c.x;
+            case Down:
+                return -c.x;
+            case Left:
+            case Right:
+            default:
+                return c.y;
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package agd.solver;
 
-import agd.core.Core;
 import agd.data.input.ProblemInstance;
 import agd.data.input.WeightedPoint;
 import agd.data.output.HalfGridPoint;
-import agd.data.util.QuadTreeNode;
+import agd.data.util.IndexHeap;
+import agd.data.util.QueryBuffer;
+import agd.data.util.SpatialIndex;
 import agd.math.Point2d;
 import outlines.Outline;
 import outlines.OutlineRectangle;
 
-import java.awt.*;
 import java.util.*;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class OutlineMergeSolver extends AbstractSolver {
+    /**
+     * Create a solver that uses the default configuration.
+     */
+    public OutlineMergeSolver() {
+        super();
+    }
+
+    /**
+     * Create a solver that uses the given configuration.
+     *
+     * @param config The configuration of the solver.
+     */
+    public OutlineMergeSolver(SolverConfig config) {
+        super(config);
+    }
+
     /**
      * Solve the given problem instance.
      *
@@ -23,40 +39,57 @@ public class OutlineMergeSolver extends AbstractSolver {
      */
     @Override
     public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
-        Core core = Core.getCore();
-        solve(instance, points, (SortingOptions) core.gui.sortSelector.getSelectedItem());
+        solve(instance, points, config.sorting);
     }
 
     public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points, SortingOptions option) {
         // Find the centre of mass.
         Point2d centre = getCentreAndInit(instance, points);
 
-        // Find the distance between the centre point and all of the points, and sort on distance.
-        Comparator<WeightedPoint> comparator = getPointComparator(option, centre);
+        // Compute the key of every point once, which for most orders is its distance to the centre point.
+        double[] keys = getSortKeys(instance, option, centre);
 
-        // Create a quadtree in which we will check for overlapping rectangles.
-        QuadTreeNode<OutlineRectangle> tree = initializeQuadTree2(instance);
+        // Create a spatial index in which we will check for overlapping rectangles.
+        SpatialIndex<OutlineRectangle> tree = initializeSpatialIndex(instance, config);
+
+        // The rectangles found by the queries are collected in buffers that are reused for every point.
+        QueryBuffer<OutlineRectangle> found = new QueryBuffer<>(), conflicts = new QueryBuffer<>();
 
         // The list of outlines that have been generated.
         Set<Outline> outlines = new HashSet<>();
 
-        PriorityQueue<WeightedPoint> queue = new PriorityQueue<>(comparator);
-        queue.addAll(instance.getPoints());
+        IndexHeap queue = new IndexHeap(keys);
+        if(config.broadphase) {
+            // Place the points that overlap with nothing right away, such that only the others have to be queued.
+            int[] remaining = placeIsolated(instance, tree, points, p -> {
+                OutlineRectangle r = getOutlineRectangle2(p.c, p);
+                outlines.add(new Outline(r));
+                return r;
+            }, config.componentMargin);
+            for(int i : remaining) {
+                queue.add(i);
+            }
+        } else {
+            for(int i = 0; i < instance.size(); i++) {
+                queue.add(i);
+            }
+        }
 
         // Insert the points into the plane one by one, using the outline for placement resolution.
         while(!queue.isEmpty()) {
+            cancellation.throwIfCancelled();
+
             // Remove the first element from the queue.
-            WeightedPoint p = queue.poll();
+            WeightedPoint p = instance.getPoint(queue.poll());
 
             // Do we overlap with any of the rectangles that are currently stored within the tree?
             OutlineRectangle rectangle = getOutlineRectangle2(p.c, p);
-            List<OutlineRectangle> intersections = tree.query(rectangle);
-
             // Create a new outline or put the rectangle in an existing outline.
+            List<OutlineRectangle> intersections = found.query(tree, rectangle);
             if(!intersections.isEmpty()) {
-                if(!insertExistingOutline(tree, outlines, intersections, p, points)) {
+                if(!insertExistingOutline(tree, conflicts, outlines, intersections, p, points)) {
                     // We have failed to place the point, and have to retry.
-                    queue.add(p);
+                    queue.add(p.i);
                 }
             } else {
                 insertNewOutline(tree, outlines, rectangle, p, points);
@@ -66,7 +99,7 @@ public class OutlineMergeSolver extends AbstractSolver {
         System.out.println(outlines.size());
     }
 
-    private static void insertNewOutline(QuadTreeNode<OutlineRectangle> tree, Set<Outline> outlines, OutlineRectangle rectangle, WeightedPoint p, ArrayList<HalfGridPoint> points) {
+    private static void insertNewOutline(SpatialIndex<OutlineRectangle> tree, Set<Outline> outlines, OutlineRectangle rectangle, WeightedPoint p, ArrayList<HalfGridPoint> points) {
         // We know that the default centre point for p is a valid placement with no overlaps.
         Point2d placement = p.c;
 
@@ -80,7 +113,7 @@ public class OutlineMergeSolver extends AbstractSolver {
         points.set(p.i, HalfGridPoint.make(placement, p));
     }
 
-    private static boolean insertExistingOutline(QuadTreeNode<OutlineRectangle> tree, Set<Outline> outlines, List<OutlineRectangle> intersections, WeightedPoint p, ArrayList<HalfGridPoint> points) {
+    private static boolean insertExistingOutline(SpatialIndex<OutlineRectangle> tree, QueryBuffer<OutlineRectangle> conflicts, Set<Outline> outlines, List<OutlineRectangle> intersections, WeightedPoint p, ArrayList<HalfGridPoint> points) {
         // Which distinct outlines do we intersect with? Sort them on rectangle size in increasing order.
         List<Outline> intersectingOutlines = intersections.stream().map(OutlineRectangle::getOutline).distinct().collect(Collectors.toList());
         intersectingOutlines.sort(Comparator.comparingInt(a -> a.getRectangles().size()));
@@ -94,15 +127,18 @@ public class OutlineMergeSolver extends AbstractSolver {
             OutlineRectangle result = getOutlineRectangle2(placement, p);
 
             // Is the placement viable? I.e. is the spot free in the tree?
-            List<OutlineRectangle> conflicts = tree.query(result);
-
-            // Remember the rectangles we had a conflict with during the first placement.
+            // Only the conflicts of the first placement are needed, the others only have to be free.
+            boolean free;
             if(firstConflicts == null) {
-                firstConflicts = conflicts;
+                // Remember the rectangles we had a conflict with during the first placement.
+                firstConflicts = conflicts.query(tree, result);
+                free = firstConflicts.isEmpty();
+            } else {
+                free = !tree.anyIntersecting(result);
             }
 
             // If we have no conflicts, we can place the rectangle freely.
-            if(conflicts.isEmpty()) {
+            if(free) {
 
                 // We can freely add the selected position.
                 outline.insert(result);
@@ -121,8 +157,10 @@ public class OutlineMergeSolver extends AbstractSolver {
 
         // Merge all the intersecting outlines into the source outline.
         for(Outline outline : intersectingOutlines) {
-            source.merge(outline);
-            outlines.remove(outline);
+            if(outline != source) {
+                source.merge(outline);
+                outlines.remove(outline);
+            }
         }
 
         // Next, we postpone the insertion of the point.
@@ -143,17 +181,4 @@ public class OutlineMergeSolver extends AbstractSolver {
                 o
         );
     }
-
-    static QuadTreeNode<OutlineRectangle> initializeQuadTree2(ProblemInstance instance) {
-        int width = instance.max_x - instance.min_x;
-        int height = instance.max_y - instance.min_y;
-        return new QuadTreeNode<>(
-                new Rectangle(
-                        instance.min_x - 20 * width,
-                        instance.min_y - 20 * height,
-                        41 * width,
-                        41 * height
-                )
-        );
-    }
 }
@@ -0,0 +1,321 @@
+package agd.solver;
+
+import agd.data.input.ProblemInstance;
+import agd.data.input.WeightedPoint;
+import agd.data.outlines.AbstractOutline;
+import agd.data.output.HalfGridPoint;
+import agd.data.output.SolutionPoints;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * A solver that runs several solver configurations on the same instance at the same time, and keeps the solution with
+ * the lowest total error.
+ *
+ * The candidates share the instance, which is read-only, but every candidate has a solver and list of placed points of
+ * its own. At most one candidate per processor is running at any time, such that the memory use stays bounded. The
+ * candidates are quiet, such that only the outlines of the winner are printed, once the race is over.
+ *
+ * While the candidates run, their error is compared with the best finished solution. The points that a candidate has
+ * not placed yet will at least have the error of their reference point, so a candidate of which the error of the
+ * placed points plus the unavoidable error of the other points exceeds the best solution can only lose, and is
+ * cancelled. This requires that placed points are never moved, which does not hold for the component solver. Those
+ * candidates always run to the end.
+ *
+ * The bound only helps for candidates that publish their points while they run. The dual sweep and the sweeps in any
+ * other direction than to the right collect their points on the side and only publish them once they are done, since
+ * the dual sweep still removes squares when it joins its slabs. Their bound stays at the unavoidable error, so they are
+ * never cancelled early, and the best sweep always runs all of its sweeps to the end.
+ */
+public class PortfolioSolver extends AbstractSolver {
+    // The time between two comparisons of the running candidates with the best solution, in milliseconds.
+    private static final long POLL_INTERVAL = 10;
+
+    // The relative margin by which a candidate has to exceed the best solution before it is cancelled, which absorbs
+    // the rounding errors in the bound.
+    private static final double BOUND_MARGIN = 1e-9;
+
+    // The configurations that are raced against each other.
+    private final List<SolverConfig> candidates;
+
+    // The number of candidates that may run at the same time.
+    private final int parallelism;
+
+    /**
+     * Create a solver that races the given configurations on one thread per processor.
+     *
+     * @param config The configuration of the solver.
+     * @param candidates The configurations that should be raced against each other.
+     */
+    public PortfolioSolver(SolverConfig config, List<SolverConfig> candidates) {
+        this(config, candidates, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a solver that races the given configurations.
+     *
+     * @param config The configuration of the solver.
+     * @param candidates The configurations that should be raced against each other.
+     * @param parallelism The number of candidates that may run at the same time.
+     */
+    public PortfolioSolver(SolverConfig config, List<SolverConfig> candidates, int parallelism) {
+        super(config);
+        if(candidates.isEmpty()) {
+            throw new IllegalArgumentException("A portfolio needs at least one candidate.");
+        }
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("At least one candidate should be able to run.");
+        }
+        this.candidates = new ArrayList<>();
+        for(SolverConfig candidate : candidates) {
+            this.candidates.add(candidate.withQuiet(true));
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Create the configurations that race all the sorting options of the given configuration.
+     *
+     * @param config The configuration of which the sorting option should be varied.
+     * @return A configuration for every sorting option, or only the given one for the sweep solvers. The solutions of
+     *         the candidates are not improved, since only the best of them is kept.
+     */
+    public static List<SolverConfig> sortingCandidates(SolverConfig config) {
+        List<SolverConfig> result = new ArrayList<>();
+        config = config.withPortfolio(false).withImprovement(Duration.ZERO);
+        if(config.kind == SolverConfig.SolverKind.SimpleSweep || config.kind == SolverConfig.SolverKind.DualSweep
+                || config.kind == SolverConfig.SolverKind.BestSweep) {
+            // The sweep solvers do not use the sorting option.
+            result.add(config);
+        } else {
+            for(SortingOptions option : SortingOptions.values()) {
+                result.add(config.withSorting(option));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create the configurations that race both sweep solvers in every direction, and the dual sweep with its slabs cut
+     * both along and across that direction.
+     *
+     * @param config The configuration of which the sweep solver, direction and slab orientation should be varied.
+     * @return A configuration for every combination of sweep solver, direction and slab orientation. The solutions of
+     *         the candidates are not improved, since only the best of them is kept.
+     */
+    public static List<SolverConfig> sweepCandidates(SolverConfig config) {
+        List<SolverConfig> result = new ArrayList<>();
+        config = config.withPortfolio(false).withImprovement(Duration.ZERO).withSlabsAcross(false);
+        for(SolverConfig.Direction direction : SolverConfig.Direction.values()) {
+            result.add(config.withKind(SolverConfig.SolverKind.SimpleSweep).withDirection(direction));
+        }
+        for(boolean across : new boolean[] {false, true}) {
+            for(SolverConfig.Direction direction : SolverConfig.Direction.values()) {
+                result.add(config.withKind(SolverConfig.SolverKind.DualSweep).withDirection(direction).withSlabsAcross(across));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Solve the given problem instance.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @param points The list of placed points.
+     */
+    @Override
+    public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
+        // The error that every solution has, which bounds the error of the points that have not been placed yet.
+        // Creating the list of points makes the candidates share the point objects, rather than each creating its own.
+        double unavoidable = 0;
+        for(WeightedPoint p : instance.getPoints()) {
+            unavoidable += p.distance2(p.c);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, candidates.size()));
+        List<Candidate> all = new ArrayList<>();
+        List<Candidate> running = new ArrayList<>();
+        try {
+            for(int k = 0; k < candidates.size(); k++) {
+                Candidate candidate = new Candidate(k, candidates.get(k), cancellation);
+                candidate.future = executor.submit(() -> candidate.solve(instance));
+                all.add(candidate);
+                running.add(candidate);
+            }
+
+            Candidate best = null;
+            while(!running.isEmpty()) {
+                // When the portfolio is stopped, the best finished candidate is good enough.
+                if(cancellation.isCancelled()) {
+                    if(best != null) {
+                        break;
+                    }
+                    cancellation.throwIfCancelled();
+                }
+
+                // Collect the candidates that have finished, and keep the best of them.
+                for(Iterator<Candidate> it = running.iterator(); it.hasNext(); ) {
+                    Candidate candidate = it.next();
+                    if(candidate.future.isDone()) {
+                        it.remove();
+                        candidate.rethrowError();
+                        if(candidate.hasFinished() && candidate.isBetterThan(best)) {
+                            if(best != null) {
+                                best.outlines = null;
+                            }
+                            best = candidate;
+                        } else {
+                            // Only the outlines of the best solution are printed.
+                            candidate.outlines = null;
+                        }
+                    }
+                }
+
+                // Cancel the candidates that can no longer beat the best solution.
+                if(best != null) {
+                    double error = best.points.getTotalError();
+                    double bound = error + BOUND_MARGIN * Math.max(1, error);
+                    for(Candidate candidate : running) {
+                        if(!candidate.config.components && candidate.lowerBound(unavoidable) > bound) {
+                            candidate.token.cancel();
+                        }
+                    }
+                }
+
+                if(!running.isEmpty()) {
+                    awaitQuietly(running.get(0).future);
+                }
+            }
+
+            if(best == null) {
+                IllegalStateException e = new IllegalStateException("None of the candidates has found a solution.");
+                for(Candidate candidate : all) {
+                    if(candidate.failure != null) {
+                        e.addSuppressed(candidate.failure);
+                    }
+                }
+                throw e;
+            }
+            points.addAll(best.points);
+            if(best.outlines != null) {
+                reportOutlines(best.outlines);
+            }
+        } finally {
+            running.forEach(candidate -> candidate.token.cancel());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Wait until the given task is done, or until the poll interval has passed.
+     */
+    private static void awaitQuietly(Future<?> future) {
+        try {
+            future.get(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException | CancellationException e) {
+            // The outcome is read from the candidate itself.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The portfolio has been interrupted.");
+        }
+    }
+
+    /**
+     * One of the configurations in the race, together with the state of its run.
+     */
+    private static class Candidate {
+        // The position of the configuration in the portfolio, which breaks ties between equal solutions.
+        private final int index;
+
+        // The configuration the candidate is solved with.
+        private final SolverConfig config;
+
+        // The token through which the candidate is stopped once it can no longer win, or the portfolio is stopped.
+        private final CancellationToken token;
+
+        // The points that the candidate has placed, which keep track of their error while the candidate runs.
+        private final SolutionPoints points = new SolutionPoints();
+
+        // The task in which the candidate runs.
+        private Future<?> future;
+
+        // Whether the candidate has placed all of its points, which is only read once the task is done.
+        private boolean finished;
+
+        // The exception the solver of the candidate has failed with, which is only read once the task is done.
+        private RuntimeException failure;
+
+        // The outlines of the solution of the candidate, if its solver creates any, which are only read once the task
+        // is done.
+        private Set<AbstractOutline> outlines;
+
+        Candidate(int index, SolverConfig config, CancellationToken portfolio) {
+            this.index = index;
+            this.config = config;
+            this.token = new CancellationToken(portfolio);
+        }
+
+        /**
+         * Solve the instance with a solver of its own, until it is done or cancelled.
+         */
+        void solve(ProblemInstance instance) {
+            AbstractSolver solver = Solvers.create(config);
+            solver.setCancellationToken(token);
+            try {
+                solver.solve(instance, points);
+                outlines = solver.getOutlines();
+                finished = true;
+            } catch (CancellationException e) {
+                // The candidate could no longer win.
+            } catch (RuntimeException e) {
+                // A failing candidate should not take the others down with it, but is reported if none succeeds.
+                failure = e;
+            }
+        }
+
+        /**
+         * Rethrow the error the task of the candidate has ended with, such as running out of memory, which stops the
+         * whole portfolio.
+         */
+        void rethrowError() {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+            } catch (InterruptedException | CancellationException e) {
+                // The task is done, so it can not be interrupted, and cancellation is read from the candidate.
+            }
+        }
+
+        boolean hasFinished() {
+            return finished;
+        }
+
+        /**
+         * Check whether the candidate has a lower error than the given one, preferring the earlier one on ties.
+         */
+        boolean isBetterThan(Candidate other) {
+            if(other == null) {
+                return true;
+            }
+            int comparison = Double.compare(points.getTotalError(), other.points.getTotalError());
+            return comparison < 0 || comparison == 0 && index < other.index;
+        }
+
+        /**
+         * Get a lower bound on the error of the solution the candidate will find.
+         *
+         * @param unavoidable The unavoidable error of all the points in the instance.
+         */
+        double lowerBound(double unavoidable) {
+            return points.getTotalError() + unavoidable - points.getMinimumError();
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package agd.solver;
 
-import agd.core.Core;
 import agd.data.input.ProblemInstance;
 import agd.data.input.WeightedPoint;
 import agd.data.outlines.*;
 import agd.data.output.HalfGridPoint;
+import agd.data.util.IndexHeap;
 import agd.data.util.OutlineDimensions;
-import agd.data.util.QuadTreeNode;
+import agd.data.util.QueryBuffer;
+import agd.data.util.SpatialIndex;
 import agd.math.Point2d;
 import javafx.util.Pair;
 
@@ -17,7 +18,22 @@ import java.util.*;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class SimpleOutlineMergeSolver extends AbstractSolver {
+public class SimpleOutlineMergeSolver extends AbstractSolver implements ComponentSolver.Delegate {
+    /**
+     * Create a solver that uses the default configuration.
+     */
+    public SimpleOutlineMergeSolver() {
+        super();
+    }
+
+    /**
+     * Create a solver that uses the given configuration.
+     *
+     * @param config The configuration of the solver.
+     */
+    public SimpleOutlineMergeSolver(SolverConfig config) {
+        super(config);
+    }
 
     /**
      * Solve the given problem instance.
@@ -27,42 +43,72 @@ public class SimpleOutlineMergeSolver extends AbstractSolver {
      */
     @Override
     public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
-        Core core = Core.getCore();
+        solve(instance, points, config.sorting);
+    }
 
-        solve(instance, points, (SortingOptions) core.gui.sortSelector.getSelectedItem());
+    public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points, SortingOptions option) {
+        // Sort the points relative to the centre of mass.
+        reportOutlines(solve(instance, points, option, getCentre(instance)));
     }
 
+    /**
+     * Solve the given problem instance, inserting the points in the order relative to the given centre.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @param points   The list of placed points.
+     * @param option   The order in which the points are inserted.
+     * @param centre   The point the order is relative to.
+     * @return The outlines that have been generated.
+     */
+    @Override
     @SuppressWarnings("Duplicates")
-    public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points, SortingOptions option) {
-        // Find the centre of mass.
-        Point2d centre = getCentreAndInit(instance, points);
+    public Set<AbstractOutline> solve(ProblemInstance instance, ArrayList<HalfGridPoint> points, SortingOptions option, Point2d centre) {
+        initPoints(instance, points);
+
+        // Compute the key of every point once, which for most orders is its distance to the centre point.
+        double[] keys = getSortKeys(instance, option, centre);
 
-        // Find the distance between the centre point and all of the points, and sort on distance.
-        Comparator<WeightedPoint> comparator = getPointComparator(option, centre);
+        // Create a spatial index in which we will check for overlapping rectangles.
+        SpatialIndex<OutlineRectangle> tree = initializeSpatialIndex(instance, config);
 
-        // Create a quadtree in which we will check for overlapping rectangles.
-        QuadTreeNode<OutlineRectangle> tree = initializeQuadTree(instance);
+        // The rectangles found by the queries are collected in buffers that are reused for every point.
+        QueryBuffer<OutlineRectangle> found = new QueryBuffer<>(), conflicts = new QueryBuffer<>();
 
         // The list of outlines that have been generated.
         Set<AbstractOutline> outlines = new HashSet<>();
 
-        PriorityQueue<WeightedPoint> queue = new PriorityQueue<>(comparator);
-        queue.addAll(instance.getPoints());
+        IndexHeap queue = new IndexHeap(keys);
+        if(config.broadphase) {
+            // Place the points that overlap with nothing right away, such that only the others have to be queued.
+            int[] remaining = placeIsolated(instance, tree, points, p -> {
+                OutlineRectangle r = getOutlineRectangle(p.c, p, false);
+                outlines.add(new SimpleOutline(r));
+                return r;
+            }, config.componentMargin);
+            for(int i : remaining) {
+                queue.add(i);
+            }
+        } else {
+            for(int i = 0; i < instance.size(); i++) {
+                queue.add(i);
+            }
+        }
 
         // Insert the points into the plane one by one, using the outline for placement resolution.
         while(!queue.isEmpty()) {
+            cancellation.throwIfCancelled();
+
             // Remove the first element from the queue.
-            WeightedPoint p = queue.poll();
+            WeightedPoint p = instance.getPoint(queue.poll());
 
             // Do we overlap with any of the rectangles that are currently stored within the tree?
             OutlineRectangle rectangle = getOutlineRectangle(p.c, p, false);
-            List<OutlineRectangle> intersections = tree.query(rectangle);
-
             // Create a new outline or put the rectangle in an existing outline.
+            List<OutlineRectangle> intersections = found.query(tree, rectangle);
             if(!intersections.isEmpty()) {
-                if(!insertExistingOutline(tree, outlines, intersections, p, centre, points)) {
+                if(!insertExistingOutline(tree, conflicts, outlines, intersections, p, centre, points)) {
                     // We have failed to place the point, and have to retry.
-                    queue.add(p);
+                    queue.add(p.i);
                 }
             } else {
                 insertNewOutline(tree, outlines, rectangle, p, points);
@@ -70,10 +116,10 @@ public class SimpleOutlineMergeSolver extends AbstractSolver {
         }
 
 //        System.out.println("We have generated " + outlines.size() + " outline groups.");
-        printSolution(outlines);
+        return outlines;
     }
 
-    private static void insertNewOutline(QuadTreeNode<OutlineRectangle> tree, Set<AbstractOutline> outlines, OutlineRectangle rectangle, WeightedPoint p, ArrayList<HalfGridPoint> points) {
+    private static void insertNewOutline(SpatialIndex<OutlineRectangle> tree, Set<AbstractOutline> outlines, OutlineRectangle rectangle, WeightedPoint p, ArrayList<HalfGridPoint> points) {
         // Create a new outline, which will set a pointer in the rectangle to the outline.
         outlines.add(new SimpleOutline(rectangle));
         Point2d placement = p.c;
@@ -83,7 +129,7 @@ public class SimpleOutlineMergeSolver extends AbstractSolver {
         points.set(p.i, HalfGridPoint.make(placement, p));
     }
 
-    private static boolean insertExistingOutline(QuadTreeNode<OutlineRectangle> tree, Set<AbstractOutline> outlines, List<OutlineRectangle> intersections, WeightedPoint p, Point2d centre, ArrayList<HalfGridPoint> points) {
+    private static boolean insertExistingOutline(SpatialIndex<OutlineRectangle> tree, QueryBuffer<OutlineRectangle> conflicts, Set<AbstractOutline> outlines, List<OutlineRectangle> intersections, WeightedPoint p, Point2d centre, ArrayList<HalfGridPoint> points) {
         // Which distinct outlines do we intersect with? Sort them on rectangle size in decreasing order.
         List<AbstractOutline> intersectingOutlines = intersections.stream().map(OutlineRectangle::getOutline).distinct().collect(Collectors.toList());
         intersectingOutlines.sort((a, b) -> -Integer.compare(a.getRectangles().size(), b.getRectangles().size()));
@@ -92,20 +138,22 @@ public class SimpleOutlineMergeSolver extends AbstractSolver {
 
         // For each of the outlines, attempt an insertion.
         for(AbstractOutline outline : intersectingOutlines) {
-            // Create a buffered variant of the outline, and get a preferred placement.
-            BufferedOutline bOutline = new BufferedOutline((SimpleOutline) outline, 0.5 * p.w);
-            Point2d placement = bOutline.projectAndSelect(p);
+            // Get a preferred placement on the buffered variant of the outline, through the index over its edges.
+            Point2d placement = ((SimpleOutline) outline).projectBuffered(p, 0.5 * p.w);
             OutlineRectangle result = getOutlineRectangle(placement, p, false);
 
             // Is the placement viable? I.e. is the spot free in the tree?
-            List<OutlineRectangle> conflicts = tree.query(result);
-
-            // Remember the rectangles we had a conflict with during the first placement.
+            // Only the conflicts of the first placement are needed, the others only have to be free.
+            boolean free;
             if(firstConflicts == null) {
-                firstConflicts = conflicts;
+                // Remember the rectangles we had a conflict with during the first placement.
+                firstConflicts = conflicts.query(tree, result);
+                free = firstConflicts.isEmpty();
+            } else {
+                free = !tree.anyIntersecting(result);
             }
 
-            if(conflicts.isEmpty()) {
+            if(free) {
                 // We can freely add the selected position.
                 ((SimpleOutline) outline).insert(result);
                 tree.insert(result);
@@ -137,7 +185,7 @@ public class SimpleOutlineMergeSolver extends AbstractSolver {
         return false;
     }
 
-    private static Pair<Point2d, OutlineRectangle> findCloserPlacement(Point2d placement, OutlineRectangle rectangle, WeightedPoint p, QuadTreeNode<OutlineRectangle> tree) {
+    private static Pair<Point2d, OutlineRectangle> findCloserPlacement(Point2d placement, OutlineRectangle rectangle, WeightedPoint p, SpatialIndex<OutlineRectangle> tree) {
         // The best candidates.
         OutlineRectangle candidateRectangle = rectangle;
 
@@ -149,7 +197,7 @@ public class SimpleOutlineMergeSolver extends AbstractSolver {
             Point2d altPlacement = HalfGridPoint.make(halfway, p).point();
             OutlineRectangle altResult = getOutlineRectangle(halfway, p, false);
 
-            if(tree.query(altResult).isEmpty()) {
+            if(!tree.anyIntersecting(altResult)) {
                 if(candidatePlacement.epsilonEquals(altPlacement, 1e-4)) break;
 
                 // Our halfway point is the new candidate.
@@ -177,30 +225,26 @@ public class SimpleOutlineMergeSolver extends AbstractSolver {
         int ymin = Math.min(d1.y, d2.y);
         int ymax = Math.max(d1.y + d1.height, d2.y + d2.height);
 
-        // Create a new outline.
+        // The merged outline takes the shape of the bounding box, which also holds when an outline meets itself again.
         OutlineRectangle rectangle = new OutlineRectangle(xmin, ymin, xmax - xmin, ymax - ymin, null, false);
 
-        List<OutlineRectangle> rectangles = new ArrayList<>();
-        rectangles.addAll(o1.getRectangles());
-        rectangles.addAll(o2.getRectangles());
-
         if(d1.contains(d2) || d2.contains(d1)) {
             // One of the outlines is contained entirely within the bounding box of the other.
 
-            return new SimpleOutline(rectangle, rectangles);
+            return (SimpleOutline) o1.merge(o2, rectangle);
         } else if(d1.intersects(d2)) {
 //            System.out.println("Intersection.");
 //            System.out.println("Area " + (d1.width * d1.height + d2.width * d2.height - d1.intersection(d2).width * d1.intersection(d2).height) + " to " + rectangle.width * rectangle.height);
 
             // TODO combine the two dimensions into an outline.
             // TODO ALT: merge the two outlines.
-            return new SimpleOutline(rectangle, rectangles);
+            return (SimpleOutline) o1.merge(o2, rectangle);
         } else {
 //            System.out.println("No intersection.");
 //            System.out.println("Area " + (d1.width * d1.height + d2.width * d2.height - d1.intersection(d2).width * d1.intersection(d2).height) + " to " + rectangle.width * rectangle.height);
 
             // Convert the outline to a square.
-            return new SimpleOutline(rectangle, rectangles);
+            return (SimpleOutline) o1.merge(o2, rectangle);
         }
     }
 }
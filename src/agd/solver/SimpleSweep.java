@@ -1,31 +1,44 @@
 package agd.solver;
 
 import agd.data.input.ProblemInstance;
-import agd.data.output.HalfGridCorner;
 import agd.data.output.HalfGridPoint;
-import agd.data.sweepline.*;
-import agd.math.Point2i;
+import agd.data.sweepline.PlaceEvent;
+import agd.data.util.EventQueue;
+import agd.data.util.SkylineTree;
 
-import java.util.*;
+import java.util.ArrayList;
 
 // Sweep line algorithm that handles points from left to right
 public class SimpleSweep extends AbstractSolver {
-    // Variables
+    /**
+     * Create a solver that uses the default configuration.
+     */
+    public SimpleSweep() {
+        super();
+    }
 
     /**
-     * Translate all points to their lower-left region corner and sort the points by x-coord
+     * Create a solver that uses the given configuration.
      *
-     * @param instance The problem instance that contains all the required data.
-     * @param points   The list of points.
+     * @param config The configuration of the solver.
      */
-    private void translatePoints (ProblemInstance instance, ArrayList<HalfGridCorner> points){
-
-        // Points now contains all the lower left corners of instance.getPoints as well as a reference to the original
-        // point p
-        // point(x, y)→round(point(x, y)−0.5wx)
-        instance.getPoints().forEach(p ->
-                points.add(new HalfGridCorner(Math.round(p.x - 0.5*p.w), Math.round(p.y - 0.5*p.w), p)));
+    public SimpleSweep(SolverConfig config) {
+        super(config);
+    }
 
+    /**
+     * Get the y-coordinates that the squares start and end at, which are the coordinates the status is kept over.
+     *
+     * @param instance The problem instance that contains all the required data.
+     * @return The bottom and top sides of all the squares at their reference points.
+     */
+    private static int[] getCoordinates(ProblemInstance instance) {
+        int[] coordinates = new int[2 * instance.size()];
+        for (int i = 0; i < instance.size(); i++) {
+            coordinates[2 * i] = instance.getCornerY(i);
+            coordinates[2 * i + 1] = instance.getCornerY(i) + instance.getWeight(i);
+        }
+        return coordinates;
     }
 
     /**
@@ -37,23 +50,19 @@ public class SimpleSweep extends AbstractSolver {
     @Override
     public void solve(ProblemInstance instance, ArrayList<HalfGridPoint> points) {
 
-        ArrayList<HalfGridCorner> eventPoints = new ArrayList<>();
-        translatePoints(instance, eventPoints);
-
-        IntervalTree intervalTree = new IntervalTree();
-        PriorityQueue<AbstractEvent> events = new PriorityQueue<>();
-
         // Events: -Lower left region corner reached. Place square if possible or move to the right until possible to place
-        //          and add square corner coords to status
-        //         -Lower right region corner reached. Remove square corner coords from status
-        for (HalfGridCorner p : eventPoints) {
-            events.add(new PlaceEvent(new Point2i((int)p.point().x, (int) p.point().y ), p.o));
+        //          and raise the status to the right side of the square
+        EventQueue events = new EventQueue(instance.size());
+        for (int i = 0; i < instance.size(); i++) {
+            events.add(instance.getCornerX(i), instance.getCornerY(i), i);
         }
+        events.sort(false);
 
-        // Get events from PQ using poll(), use .execute() on event
-
-        while (!events.isEmpty()) {
-            events.poll().execute(intervalTree, points, events);
+        SkylineTree skyline = new SkylineTree(getCoordinates(instance));
+        points.ensureCapacity(instance.size());
+        for (int k = 0; k < events.size(); k++) {
+            cancellation.throwIfCancelled();
+            PlaceEvent.execute(skyline, events.getX(k), events.getY(k), instance.getPoint(events.getPoint(k)), points);
         }
     }
 }
\ No newline at end of file
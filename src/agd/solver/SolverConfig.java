@@ -0,0 +1,388 @@
+package agd.solver;
+
+import agd.solver.AbstractSolver.SortingOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An immutable description of the solver that should be used, together with the options it should be run with.
+ */
+public class SolverConfig {
+    /**
+     * The solvers that are available.
+     */
+    public enum SolverKind {
+        Outlines, SimpleOutlines, ComplexOutlines, DualSweep, SimpleSweep, BestSweep
+    }
+
+    /**
+     * The spatial indices the outline based solvers can use for collision detection.
+     */
+    public enum IndexType {
+        QuadTree, Grid
+    }
+
+    /**
+     * The directions in which the sweep solvers push the squares. The dual sweep cuts the points into vertical slabs
+     * when sweeping left or right and into horizontal slabs when sweeping up or down, unless it cuts them across the
+     * direction, and sweeps them in alternating directions, starting with the opposite direction.
+     */
+    public enum Direction {
+        Right, Left, Up, Down
+    }
+
+    /**
+     * How often the solvers check their intermediate structures: never, for a sample of them, or always.
+     */
+    public enum Validation {
+        Off, Sampled, Full;
+
+        // One in this many structures is checked when sampling.
+        private static final int SAMPLE_INTERVAL = 64;
+
+        /**
+         * Check whether the structure with the given sequence number should be validated.
+         *
+         * @param n The number of structures that have been considered for validation before this one.
+         * @return True if the structure should be validated.
+         */
+        public boolean check(int n) {
+            return this == Full || this == Sampled && n % SAMPLE_INTERVAL == 0;
+        }
+    }
+
+    // The configuration that is used when no configuration is given.
+    public static final SolverConfig DEFAULT = new SolverConfig(new Options());
+
+    // The solver that should be used.
+    public final SolverKind kind;
+
+    // The order in which the outline based solvers insert the points.
+    public final SortingOptions sorting;
+
+    // The spatial index the outline based solvers use for collision detection.
+    public final IndexType index;
+
+    // The maximum number of rectangles in a quad tree leaf before it is split.
+    public final int quadTreeMaxEntries;
+
+    // The number of viewport widths and heights the quad tree extends beyond each side of the viewport.
+    public final int quadTreeMargin;
+
+    // How often the solvers should validate their intermediate structures.
+    public final Validation validation;
+
+    // Whether the outline based solvers should place the points that are further than the component margin away from
+    // all other points before all others.
+    public final boolean broadphase;
+
+    // Whether the outline based solvers should solve the independent groups of points separately, in parallel.
+    public final boolean components;
+
+    // The distance by which the squares are enlarged when deciding which points can interact with each other.
+    public final int componentMargin;
+
+    // Whether all sorting options should be raced against each other, keeping the solution with the lowest error.
+    public final boolean portfolio;
+
+    // The time for which the solution is improved by a local search afterwards, where zero skips the search.
+    public final Duration improvement;
+
+    // The number of slabs the dual sweep cuts the points into, which are swept in parallel.
+    public final int slabs;
+
+    // Whether the dual sweep cuts the points into slabs across the direction of the sweep rather than along it, which
+    // gives horizontal slabs when sweeping left or right.
+    public final boolean slabsAcross;
+
+    // The direction in which the sweep solvers push the squares.
+    public final Direction direction;
+
+    // Whether the solvers keep the outlines of their solution rather than printing them, as the candidates of a
+    // portfolio do, of which only the winner is printed.
+    public final boolean quiet;
+
+    /**
+     * Create a solver configuration with the given options, which are checked first.
+     *
+     * @param options The options of the configuration, which are copied.
+     */
+    private SolverConfig(Options options) {
+        if(options.quadTreeMaxEntries < 1) {
+            throw new IllegalArgumentException("A quad tree leaf should be able to hold at least one rectangle.");
+        }
+        if(options.quadTreeMargin < 0) {
+            throw new IllegalArgumentException("The margin of the quad tree cannot be negative.");
+        }
+        if(options.componentMargin < 0) {
+            throw new IllegalArgumentException("The margin around the squares of a component cannot be negative.");
+        }
+        if(options.improvement.isNegative()) {
+            throw new IllegalArgumentException("The time for the local search cannot be negative.");
+        }
+        if(options.slabs < 1) {
+            throw new IllegalArgumentException("The dual sweep needs at least one slab.");
+        }
+
+        this.kind = options.kind;
+        this.sorting = options.sorting;
+        this.index = options.index;
+        this.quadTreeMaxEntries = options.quadTreeMaxEntries;
+        this.quadTreeMargin = options.quadTreeMargin;
+        this.validation = options.validation;
+        this.broadphase = options.broadphase;
+        this.components = options.components;
+        this.componentMargin = options.componentMargin;
+        this.portfolio = options.portfolio;
+        this.improvement = options.improvement;
+        this.slabs = options.slabs;
+        this.slabsAcross = options.slabsAcross;
+        this.direction = options.direction;
+        this.quiet = options.quiet;
+    }
+
+    /**
+     * Create a copy of this configuration in which the options are changed by the given function.
+     *
+     * @param change Changes the options of the copy.
+     * @return A new configuration with the changed options.
+     */
+    private SolverConfig with(Consumer<Options> change) {
+        Options options = new Options(this);
+        change.accept(options);
+        return new SolverConfig(options);
+    }
+
+    /**
+     * Create a copy of this configuration that uses the given solver.
+     *
+     * @param kind The solver that should be used.
+     * @return A new configuration with the given solver.
+     */
+    public SolverConfig withKind(SolverKind kind) {
+        return with(o -> o.kind = kind);
+    }
+
+    /**
+     * Create a copy of this configuration that uses the given sorting option.
+     *
+     * @param sorting The order in which the outline based solvers insert the points.
+     * @return A new configuration with the given sorting option.
+     */
+    public SolverConfig withSorting(SortingOptions sorting) {
+        return with(o -> o.sorting = sorting);
+    }
+
+    /**
+     * Create a copy of this configuration that uses the given spatial index.
+     *
+     * @param index The spatial index the outline based solvers use for collision detection.
+     * @return A new configuration with the given spatial index.
+     */
+    public SolverConfig withIndex(IndexType index) {
+        return with(o -> o.index = index);
+    }
+
+    /**
+     * Create a copy of this configuration that uses the given quad tree parameters.
+     *
+     * @param maxEntries The maximum number of rectangles in a quad tree leaf before it is split.
+     * @param margin The number of viewport sizes the quad tree extends beyond the viewport.
+     * @return A new configuration with the given quad tree parameters.
+     */
+    public SolverConfig withQuadTree(int maxEntries, int margin) {
+        return with(o -> {
+            o.quadTreeMaxEntries = maxEntries;
+            o.quadTreeMargin = margin;
+        });
+    }
+
+    /**
+     * Create a copy of this configuration with validation turned on or off.
+     *
+     * @param validate Whether the solvers should validate all of their intermediate structures.
+     * @return A new configuration with the given validation setting.
+     */
+    public SolverConfig withValidation(boolean validate) {
+        return withValidation(validate ? Validation.Full : Validation.Off);
+    }
+
+    /**
+     * Create a copy of this configuration that validates the intermediate structures as often as given.
+     *
+     * @param validation How often the solvers should validate their intermediate structures.
+     * @return A new configuration with the given validation setting.
+     */
+    public SolverConfig withValidation(Validation validation) {
+        return with(o -> o.validation = validation);
+    }
+
+    /**
+     * Create a copy of this configuration with the broadphase turned on or off.
+     *
+     * @param broadphase Whether the outline based solvers should place the points without overlap right away.
+     * @return A new configuration with the given broadphase setting.
+     */
+    public SolverConfig withBroadphase(boolean broadphase) {
+        return with(o -> o.broadphase = broadphase);
+    }
+
+    /**
+     * Create a copy of this configuration that does or does not solve independent groups of points separately.
+     *
+     * @param components Whether the outline based solvers should solve independent groups of points separately.
+     * @param margin The distance by which squares are enlarged when grouping the points.
+     * @return A new configuration with the given component settings.
+     */
+    public SolverConfig withComponents(boolean components, int margin) {
+        return with(o -> {
+            o.components = components;
+            o.componentMargin = margin;
+        });
+    }
+
+    /**
+     * Create a copy of this configuration that does or does not race all the sorting options.
+     *
+     * @param portfolio Whether all sorting options should be raced against each other.
+     * @return A new configuration with the given portfolio setting.
+     */
+    public SolverConfig withPortfolio(boolean portfolio) {
+        return with(o -> o.portfolio = portfolio);
+    }
+
+    /**
+     * Create a copy of this configuration that improves the solution for the given time afterwards.
+     *
+     * @param improvement The time for which the solution is improved by a local search, where zero skips the search.
+     * @return A new configuration with the given improvement time.
+     */
+    public SolverConfig withImprovement(Duration improvement) {
+        return with(o -> o.improvement = improvement);
+    }
+
+    /**
+     * Create a copy of this configuration in which the dual sweep cuts the points into the given number of slabs.
+     *
+     * @param slabs The number of slabs, which are vertical when sweeping left or right and horizontal when sweeping up or
+     *              down, unless they are cut across the direction. They are swept in alternating directions, starting
+     *              with the opposite of the direction.
+     * @return A new configuration with the given number of slabs.
+     */
+    public SolverConfig withSlabs(int slabs) {
+        return with(o -> o.slabs = slabs);
+    }
+
+    /**
+     * Create a copy of this configuration in which the dual sweep cuts the points into slabs along or across the
+     * direction of the sweep.
+     *
+     * @param slabsAcross Whether the slabs are cut across the direction, such that they are horizontal when sweeping
+     *                    left or right, and vertical when sweeping up or down.
+     * @return A new configuration with the given slab orientation.
+     */
+    public SolverConfig withSlabsAcross(boolean slabsAcross) {
+        return with(o -> o.slabsAcross = slabsAcross);
+    }
+
+    /**
+     * Create a copy of this configuration in which the sweep solvers push the squares in the given direction.
+     *
+     * @param direction The direction in which the squares are pushed.
+     * @return A new configuration with the given direction.
+     */
+    public SolverConfig withDirection(Direction direction) {
+        return with(o -> o.direction = direction);
+    }
+
+    /**
+     * Create a copy of this configuration in which the solvers do or do not print their solution.
+     *
+     * @param quiet Whether the solvers keep the outlines of their solution rather than printing them.
+     * @return A new configuration with the given setting.
+     */
+    public SolverConfig withQuiet(boolean quiet) {
+        return with(o -> o.quiet = quiet);
+    }
+
+    @Override
+    public String toString() {
+        String improved = improvement.isZero() ? "" : " + LocalSearch";
+        if(kind == SolverKind.SimpleSweep || kind == SolverKind.DualSweep || kind == SolverKind.BestSweep) {
+            List<String> options = new ArrayList<>();
+            if(kind != SolverKind.BestSweep && direction != Direction.Right) {
+                options.add(direction.toString());
+            }
+            if(kind != SolverKind.SimpleSweep && slabs != 2) {
+                options.add(slabs + " slabs");
+            }
+            if(kind == SolverKind.DualSweep && slabsAcross) {
+                options.add("Across");
+            }
+            return kind + (options.isEmpty() ? "" : "(" + String.join(", ", options) + ")") + improved;
+        }
+        String options = portfolio ? "Portfolio" : sorting.toString();
+        if(index != IndexType.QuadTree) {
+            options += ", " + index;
+        }
+        if(broadphase) {
+            options += ", Broadphase";
+        }
+        if(components && (kind == SolverKind.SimpleOutlines || kind == SolverKind.ComplexOutlines)) {
+            options += ", Components";
+        }
+        return kind + "(" + options + ")" + improved;
+    }
+
+    /**
+     * The mutable options of a configuration, from which an immutable configuration is created. A new option only has
+     * to be added here, to the fields and constructor above, and to a method that changes it.
+     */
+    private static final class Options {
+        SolverKind kind = SolverKind.ComplexOutlines;
+        SortingOptions sorting = SortingOptions.MANHATTAN_CENTROID;
+        IndexType index = IndexType.QuadTree;
+        int quadTreeMaxEntries = 5;
+        int quadTreeMargin = 20;
+        Validation validation = Validation.Full;
+        boolean broadphase = false;
+        boolean components = false;
+        int componentMargin = 2;
+        boolean portfolio = false;
+        Duration improvement = Duration.ZERO;
+        int slabs = 2;
+        boolean slabsAcross = false;
+        Direction direction = Direction.Right;
+        boolean quiet = false;
+
+        /**
+         * Create the options of the default configuration.
+         */
+        Options() {
+        }
+
+        /**
+         * Create a copy of the options of the given configuration.
+         */
+        Options(SolverConfig config) {
+            kind = config.kind;
+            sorting = config.sorting;
+            index = config.index;
+            quadTreeMaxEntries = config.quadTreeMaxEntries;
+            quadTreeMargin = config.quadTreeMargin;
+            validation = config.validation;
+            broadphase = config.broadphase;
+            components = config.components;
+            componentMargin = config.componentMargin;
+            portfolio = config.portfolio;
+            improvement = config.improvement;
+            slabs = config.slabs;
+            slabsAcross = config.slabsAcross;
+            direction = config.direction;
+            quiet = config.quiet;
+        }
+    }
+}
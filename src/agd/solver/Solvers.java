@@ -0,0 +1,99 @@
+package agd.solver;
+
+import agd.data.input.ProblemInstance;
+import agd.data.output.ProblemSolution;
+
+import java.time.Duration;
+
+/**
+ * Creates solvers from a configuration, such that problem instances can be solved without a GUI.
+ */
+public final class Solvers {
+    private Solvers() {
+    }
+
+    /**
+     * Create a new solver as described by the given configuration.
+     *
+     * @param config The configuration of the solver.
+     * @return A fresh solver instance, which does not share any state with other solvers.
+     */
+    public static AbstractSolver create(SolverConfig config) {
+        AbstractSolver solver = createSolver(config);
+        return config.improvement.isZero() ? solver : new LocalSearch(config, solver);
+    }
+
+    /**
+     * Create the solver that constructs the solution, without the local search that may improve it afterwards.
+     *
+     * @param config The configuration of the solver.
+     * @return A fresh solver instance.
+     */
+    private static AbstractSolver createSolver(SolverConfig config) {
+        if(config.portfolio) {
+            return new PortfolioSolver(config, PortfolioSolver.sortingCandidates(config));
+        }
+
+        switch (config.kind) {
+            case SimpleSweep:
+                return oriented(new SimpleSweep(config), config);
+            case DualSweep:
+                return oriented(new DualSweep(config), config);
+            case BestSweep:
+                return new PortfolioSolver(config, PortfolioSolver.sweepCandidates(config));
+            case SimpleOutlines:
+                return withComponents(new SimpleOutlineMergeSolver(config), config);
+            case Outlines:
+                return new OutlineMergeSolver(config);
+            case ComplexOutlines:
+            default:
+                return withComponents(new ComplexOutlineMergeSolver(config), config);
+        }
+    }
+
+    /**
+     * Wrap the sweep such that it pushes the squares in the direction of the configuration, rather than to the right.
+     *
+     * @param solver The sweep that pushes the squares to the right.
+     * @param config The configuration of the solver.
+     * @return The solver that should be used.
+     */
+    private static AbstractSolver oriented(AbstractSolver solver, SolverConfig config) {
+        return config.direction == SolverConfig.Direction.Right ? solver : new OrientedSweep(config, solver);
+    }
+
+    /**
+     * Wrap the solver such that it solves the independent groups of points separately, if the configuration asks so.
+     *
+     * @param solver The solver that solves the groups.
+     * @param config The configuration of the solver.
+     * @return The solver that should be used.
+     */
+    private static <T extends AbstractSolver & ComponentSolver.Delegate> AbstractSolver withComponents(T solver, SolverConfig config) {
+        return config.components ? new ComponentSolver(config, solver) : solver;
+    }
+
+    /**
+     * Solve the given problem instance with a solver described by the given configuration.
+     *
+     * @param instance The problem instance to solve.
+     * @param config The configuration of the solver.
+     * @return The solution to the problem instance.
+     */
+    public static ProblemSolution solve(ProblemInstance instance, SolverConfig config) {
+        return new ProblemSolution(instance, create(config));
+    }
+
+    /**
+     * Solve the given problem instance within the given time, with a solver described by the given configuration.
+     *
+     * @param instance The problem instance to solve.
+     * @param config The configuration of the solver.
+     * @param budget The time the solver is allowed to run, after which the remaining points are placed by a fallback.
+     *               The fallback itself is not part of the budget.
+     * @return The solution to the problem instance, which is always complete and valid.
+     */
+    public static ProblemSolution solve(ProblemInstance instance, SolverConfig config, Duration budget) {
+        return new ProblemSolution(instance, create(config), budget, new CancellationToken());
+    }
+}
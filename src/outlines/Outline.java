@@ -3,16 +3,20 @@ package outlines;
 import agd.math.Point2d;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class Outline {
     // The id of the outline.
-    private static int ID_COUNTER = 0;
-    protected final int id = ID_COUNTER++;
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
+    protected final int id = ID_COUNTER.getAndIncrement();
 
     // The rectangles within this outline.
     private TreeSet<OutlineRectangle> rectangles = new TreeSet<>();
 
+    // The outline this outline has been merged into, which is the outline itself as long as it has not been merged.
+    private Outline parent = this;
+
     public Outline(OutlineRectangle rectangle) {
         insert(rectangle);
     }
@@ -22,11 +26,44 @@ public class Outline {
         rectangle.setOutline(this);
     }
 
+    /**
+     * Find the outline this outline has been merged into, directly or through other merges.
+     *
+     * @return The outline that holds the rectangles of this outline, which is this outline if it has not been merged.
+     */
+    public Outline find() {
+        Outline outline = this;
+        while(outline.parent != outline) {
+            outline.parent = outline.parent.parent;
+            outline = outline.parent;
+        }
+        return outline;
+    }
+
+    /**
+     * Merge the other outlines into this outline.
+     *
+     * The smaller of the two rectangle sets is added to the larger one, which this outline then keeps. The rectangles
+     * are not visited, since they find this outline through the outline they were added to.
+     *
+     * @param outlines The outlines to merge into this one.
+     */
     public void merge(Outline... outlines) {
-        // Merge the other outlines into this outline.
+        Outline root = find();
         for(Outline outline : outlines) {
-            rectangles.addAll(outline.rectangles);
-            outline.rectangles.forEach(r -> r.setOutline(this));
+            Outline other = outline.find();
+            if(other == root) {
+                continue;
+            }
+
+            if(root.rectangles.size() < other.rectangles.size()) {
+                TreeSet<OutlineRectangle> larger = other.rectangles;
+                other.rectangles = root.rectangles;
+                root.rectangles = larger;
+            }
+            root.rectangles.addAll(other.rectangles);
+            other.rectangles = new TreeSet<>();
+            other.parent = root;
         }
     }
 
@@ -321,8 +358,8 @@ public class Outline {
         final int start, end;
 
         // An unique id for the interval, such that we will always delete the correct one.
-        static int ID_COUNTER = 0;
-        private final int id = ID_COUNTER++;
+        static final AtomicInteger ID_COUNTER = new AtomicInteger();
+        private final int id = ID_COUNTER.getAndIncrement();
 
         public Interval(int start, int end) {
             this.start = start;
@@ -21,7 +21,15 @@ public class OutlineRectangle extends EntryRectangle implements Comparable<Outli
         super(x, y, size, size, owner);
     }
 
+    /**
+     * Get the outline the rectangle is part of, following the merges of the outline it has been added to.
+     *
+     * @return The outline if it exists, null otherwise.
+     */
     public Outline getOutline() {
+        if(outline != null) {
+            outline = outline.find();
+        }
         return outline;
     }
 
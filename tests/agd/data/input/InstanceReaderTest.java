@@ -0,0 +1,75 @@
+package agd.data.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InstanceReaderTest {
+    /**
+     * The reader should produce exactly the same points as the Scanner based reader.
+     */
+    @Test
+    void matchesScanner() throws IOException {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder("7\n-10 250 0 300\n1000\n");
+        for(int i = 0; i < 996; i++) {
+            builder.append(String.format(Locale.ROOT, "%.3f %.3f %d\n",
+                    500 * random.nextDouble() - 10, 300 * random.nextDouble(), 1 + random.nextInt(20)));
+        }
+
+        // Notations that are not handled by the fast path.
+        builder.append("0.1234567890123456789 -0 1\n");
+        builder.append("1.5e2 -2.25E-1 3\n");
+        builder.append("+4 .5 2\r\n");
+        builder.append("12345678901234567 0000000.000000000000000000000000001 4");
+
+        String text = builder.toString();
+        ProblemInstance expected;
+        try(Scanner scanner = new Scanner(text).useLocale(Locale.ROOT)) {
+            expected = ProblemInstance.readInstance(scanner);
+        }
+        ProblemInstance actual = InstanceReader.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+
+        assertEquals(expected.id, actual.id);
+        assertEquals(expected.min_x, actual.min_x);
+        assertEquals(expected.max_x, actual.max_x);
+        assertEquals(expected.min_y, actual.min_y);
+        assertEquals(expected.max_y, actual.max_y);
+
+        List<WeightedPoint> e = expected.getPoints(), a = actual.getPoints();
+        assertEquals(e.size(), a.size());
+        for(int i = 0; i < e.size(); i++) {
+            assertEquals(Double.doubleToLongBits(e.get(i).x), Double.doubleToLongBits(a.get(i).x));
+            assertEquals(Double.doubleToLongBits(e.get(i).y), Double.doubleToLongBits(a.get(i).y));
+            assertEquals(e.get(i).w, a.get(i).w);
+            assertEquals(e.get(i).i, a.get(i).i);
+        }
+    }
+
+    @Test
+    void malformedInput() {
+        assertThrows(NoSuchElementException.class, () -> read("1 0 10 0 10 2 1.5 2.5 1"));
+        assertThrows(InputMismatchException.class, () -> read("1 0 10 0 10 1 1.5 abc 1"));
+        assertThrows(InputMismatchException.class, () -> read("1 0 10 0 10 1 1.5 2.5 1.5"));
+        assertThrows(InputMismatchException.class, () -> read("1 0 10 0 99999999999 0"));
+    }
+
+    private static void read(String text) {
+        try {
+            InstanceReader.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+        } catch(IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package agd.data.outlines;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.ProblemInstance;
+import agd.data.output.ProblemSolution;
+import agd.solver.AbstractSolver;
+import agd.solver.ComplexOutlineMergeSolver;
+import agd.solver.SolverConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BufferedOutlineTest {
+    /**
+     * Sanitizing block by block gives the same ring as comparing every edge with all the edges that follow it, for the
+     * outlines of a dense instance at several buffer widths and block sizes.
+     */
+    @Test
+    void blocksMatchEdges() {
+        ProblemInstance instance = new InstanceGenerator(10, 0.9).generate(1, 3000, InstanceGenerator.Distribution.CLUSTERED, 42);
+        SolverConfig config = SolverConfig.DEFAULT.withValidation(false).withQuiet(true);
+        AbstractSolver solver = new ComplexOutlineMergeSolver(config);
+        new ProblemSolution(instance, solver);
+
+        // The number of rings that have self intersections to resolve.
+        int intersecting = 0;
+        for(AbstractOutline outline : solver.getOutlines()) {
+            for(double w : new double[] {0.5, 2.5, 5, 10}) {
+                Edge expected = BufferedOutline.createOutline(outline, w);
+                if(EdgeIntersections.count(expected) > 0) {
+                    intersecting++;
+                }
+                BufferedOutline.sanitizeEdges(expected);
+
+                for(int size : new int[] {1, 2, 3, 8}) {
+                    Edge actual = BufferedOutline.createOutline(outline, w);
+                    BufferedOutline.sanitizeBlocks(actual, size);
+                    assertEquals(corners(expected), corners(actual));
+                }
+            }
+        }
+        assertTrue(intersecting > 0);
+    }
+
+    private static List<String> corners(Edge first) {
+        List<String> result = new ArrayList<>();
+        for(Edge e : first) {
+            result.add(e.getDoubledX() + " " + e.getDoubledY() + " " + e.getDirection());
+        }
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package agd.data.outlines;
 
 import agd.data.input.WeightedPoint;
+import agd.math.Point2d;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -135,4 +136,43 @@ class ComplexOutlineTest {
         rectangles.stream().skip(1).forEach(outline::insert);
         System.out.println(outline.toLatexFigure());
     }
-}
\ No newline at end of file
+
+    /**
+     * The larger outline survives a merge, and the rectangles of both find it without being visited.
+     */
+    @Test
+    void mergeTest() {
+        ComplexOutline small = new ComplexOutline(new OutlineRectangle(10, 0, 3, p));
+        ComplexOutline large = new ComplexOutline(new OutlineRectangle(0, 0, 3, p));
+        large.insert(new OutlineRectangle(3, 0, 3, p));
+        List<OutlineRectangle> rectangles = new ArrayList<>(small.getRectangles());
+        rectangles.addAll(large.getRectangles());
+
+        AbstractOutline merged = small.merge(large, new OutlineRectangle(0, 0, 13, 3, null, false));
+        assertSame(large, merged);
+        assertSame(large, small.find());
+        assertEquals(3, merged.getRectangles().size());
+        assertTrue(merged.getRectangles().containsAll(rectangles));
+        rectangles.forEach(r -> assertSame(merged, r.getOutline()));
+        assertEquals(13, merged.getDimensions().width);
+
+        // Merging an outline with itself, also through an outline it has absorbed, does not duplicate rectangles.
+        assertSame(merged, merged.merge(small, new OutlineRectangle(0, 0, 13, 3, null, false)));
+        assertEquals(3, merged.getRectangles().size());
+    }
+
+    /**
+     * A buffered outline shares the rectangles of the current shape as a read-only view.
+     */
+    @Test
+    void bufferedViewTest() {
+        ComplexOutline outline = new ComplexOutline(new OutlineRectangle(0, 0, 3, p));
+        outline.insert(new OutlineRectangle(3, 0, 3, p));
+
+        BufferedOutline buffered = new BufferedOutline(outline, 1.5, true);
+        assertEquals(2, buffered.getRectangles().size());
+        assertThrows(UnsupportedOperationException.class, () -> buffered.getRectangles().clear());
+        assertEquals(new Point2d(3, -1.5), buffered.projectAndSelect(new Point2d(3, -5)));
+        assertEquals(0, buffered.getIntersections());
+    }
+}
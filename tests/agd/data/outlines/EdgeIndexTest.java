@@ -0,0 +1,85 @@
+package agd.data.outlines;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.ProblemInstance;
+import agd.data.output.ProblemSolution;
+import agd.math.Point2d;
+import agd.solver.AbstractSolver;
+import agd.solver.SimpleOutlineMergeSolver;
+import agd.solver.SolverConfig;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdgeIndexTest {
+    /**
+     * The index of the outlines that a solver has built up finds the same projections as their buffered outlines.
+     */
+    @Test
+    void sameAsBufferedOutline() {
+        ProblemInstance instance = new InstanceGenerator(10, 0.9).generate(1, 3000, InstanceGenerator.Distribution.CLUSTERED, 42);
+        SolverConfig config = SolverConfig.DEFAULT.withValidation(false).withQuiet(true);
+        AbstractSolver solver = new SimpleOutlineMergeSolver(config);
+        new ProblemSolution(instance, solver);
+
+        Random random = new Random(42);
+        int checked = 0;
+        for(AbstractOutline outline : solver.getOutlines()) {
+            for(int w = 1; w <= 5; w++) {
+                checked += check((SimpleOutline) outline, 0.5 * w, random, 20);
+            }
+        }
+        assertTrue(checked > 0);
+    }
+
+    /**
+     * The index follows the outline through inserts and merges, and is only built once the outline has grown large.
+     */
+    @Test
+    void followsInsertsAndMerges() {
+        // A staircase, of which every step adds two edges to the outline.
+        SimpleOutline outline = new SimpleOutline(new OutlineRectangle(0, 0, 2, null));
+        Random random = new Random(7);
+        for(int i = 1; i < 40; i++) {
+            outline.insert(new OutlineRectangle(2 * i, 0, 2, null));
+        }
+        for(int i = 1; i < 40; i++) {
+            for(int j = 1; j <= i; j++) {
+                outline.insert(new OutlineRectangle(2 * i, 2 * j, 2, null));
+                check(outline, 1, random, 5);
+            }
+        }
+        assertTrue(outline.getIndex().isIndexed());
+
+        SimpleOutline other = new SimpleOutline(new OutlineRectangle(0, 60, 2, null));
+        AbstractOutline merged = outline.merge(other, new OutlineRectangle(0, 0, 80, 80, null, false));
+        assertEquals(outline, merged);
+        assertFalse(outline.getIndex().isIndexed());
+        check(outline, 1, random, 10);
+        outline.insert(new OutlineRectangle(80, 0, 2, null));
+        check(outline, 1, random, 10);
+    }
+
+    /**
+     * Compare the projections of points around the outline through the index and through the buffered outline.
+     *
+     * @return The number of points that have been compared.
+     */
+    private static int check(SimpleOutline outline, double w, Random random, int points) {
+        BufferedOutline buffered = new BufferedOutline(outline, w);
+        Rectangle box = outline.getDimensions();
+        for(int k = 0; k < points; k++) {
+            // Points around the outline, on the half grid and in between.
+            double x = box.x - 10 + random.nextInt(2 * (box.width + 20)) * 0.5 + (k % 3 == 0 ? 0.3 : 0);
+            double y = box.y - 10 + random.nextInt(2 * (box.height + 20)) * 0.5 + (k % 5 == 0 ? 0.1 : 0);
+            Point2d p = new Point2d(x, y);
+            assertEquals(buffered.projectAndSelect(p), outline.projectBuffered(p, w));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,109 @@
+package agd.data.outlines;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.ProblemInstance;
+import agd.math.Point2d;
+import agd.solver.AbstractSolver;
+import agd.solver.ComplexOutlineMergeSolver;
+import agd.solver.SolverConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EdgeIntersectionsTest {
+    /**
+     * An outline that crosses itself twice, with every crossing found from both of its edges.
+     */
+    @Test
+    void crossings() {
+        Edge first = ring(0, 0, 4, 0, 4, 3, 2, 3, 2, -1, 1, -1, 1, 1, 0, 1);
+        assertEquals(4, pairwise(first));
+        assertEquals(4, EdgeIntersections.sweep(first));
+    }
+
+    /**
+     * Random rectilinear rings, which cross, touch and overlap themselves in every possible way.
+     */
+    @Test
+    void randomRings() {
+        Random random = new Random(42);
+        for(int k = 0; k < 500; k++) {
+            int n = 2 + random.nextInt(60);
+            int[] x = new int[n], y = new int[n];
+            for(int i = 0; i < n; i++) {
+                // Consecutive coordinates differ, such that no edge has length zero.
+                x[i] = i == 0 ? random.nextInt(10) : (x[i - 1] + 1 + random.nextInt(9)) % 10;
+                y[i] = i == 0 ? random.nextInt(10) : (y[i - 1] + 1 + random.nextInt(9)) % 10;
+            }
+            if(x[n - 1] == x[0] || y[n - 1] == y[0]) {
+                continue;
+            }
+
+            // Alternate between horizontal and vertical edges, and close the ring at the first point.
+            double[] corners = new double[4 * n];
+            for(int i = 0; i < n; i++) {
+                corners[4 * i] = x[i];
+                corners[4 * i + 1] = y[i];
+                corners[4 * i + 2] = x[(i + 1) % n];
+                corners[4 * i + 3] = y[i];
+            }
+            Edge first = ring(corners);
+            assertEquals(pairwise(first), EdgeIntersections.sweep(first));
+        }
+    }
+
+    /**
+     * The buffered outlines of a solution, which are mostly free of intersections.
+     */
+    @Test
+    void bufferedOutlines() {
+        ProblemInstance instance = new InstanceGenerator(5, 0.5).generate(1, 2000, InstanceGenerator.Distribution.CLUSTERED, 42);
+        Set<AbstractOutline> outlines = new ComplexOutlineMergeSolver(SolverConfig.DEFAULT.withValidation(false)).solve(
+                instance, new ArrayList<>(), AbstractSolver.SortingOptions.MANHATTAN_CENTROID, new Point2d(0, 0)
+        );
+
+        for(AbstractOutline outline : outlines) {
+            for(int w = 1; w <= 5; w++) {
+                Edge first = new BufferedOutline((ComplexOutline) outline, 0.5 * w, false).getEdge();
+                assertEquals(pairwise(first), EdgeIntersections.sweep(first));
+                assertEquals(pairwise(first), EdgeIntersections.count(first));
+            }
+        }
+    }
+
+    /**
+     * Create a ring of edges through the given corners, given as pairs of coordinates.
+     */
+    private static Edge ring(double... corners) {
+        int n = corners.length / 2;
+        Edge[] edges = new Edge[n];
+        for(int i = 0; i < n; i++) {
+            Point2d origin = new Point2d(corners[2 * i], corners[2 * i + 1]);
+            Point2d target = new Point2d(corners[(2 * i + 2) % corners.length], corners[(2 * i + 3) % corners.length]);
+            edges[i] = new Edge(origin, Edge.Direction.getDirection(origin, target));
+        }
+        for(int i = 0; i < n; i++) {
+            edges[i].setNext(edges[(i + 1) % n]);
+        }
+        return edges[0];
+    }
+
+    /**
+     * Count the intersecting pairs by testing every pair of edges.
+     */
+    private static int pairwise(Edge first) {
+        int count = 0;
+        for(Edge e1 : first) {
+            for(Edge e2 : first) {
+                if(e1 != e2 && e1.doIntersect(e2)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,75 @@
+package agd.data.outlines;
+
+import agd.data.input.WeightedPoint;
+import agd.math.Point2d;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeTest {
+    /**
+     * The origin is kept exactly on the half grid, and points off the half grid are rejected.
+     */
+    @Test
+    void halfGridOrigin() {
+        Edge e = new Edge(new Point2d(-0.5, 1.5), Edge.Direction.UP);
+        assertEquals(-1, e.getDoubledX());
+        assertEquals(3, e.getDoubledY());
+        assertEquals(new Point2d(-0.5, 1.5), e.getOrigin());
+
+        assertThrows(IllegalArgumentException.class, () -> new Edge(new Point2d(0.25, 0), Edge.Direction.UP));
+    }
+
+    /**
+     * Perpendicular edges only intersect when they cross in the interior of both, and opposite edges on the same line
+     * touch when they share a part of it.
+     */
+    @Test
+    void predicates() {
+        Edge right = segment(0, 0.5, 4, 0.5);
+        assertTrue(right.doIntersect(segment(1.5, -1, 1.5, 2)));
+        assertFalse(right.doIntersect(segment(4, -1, 4, 2)));
+        assertFalse(right.doIntersect(segment(1.5, 0.5, 1.5, 2)));
+
+        assertTrue(right.doTouch(segment(5, 0.5, 3.5, 0.5)));
+        assertFalse(right.doTouch(segment(6, 0.5, 4.5, 0.5)));
+        assertFalse(right.doTouch(segment(5, 1, 3.5, 1)));
+
+        assertEquals(Edge.Relative.ON, right.getRelativePosition(new Point2d(0, 0.5)));
+        assertEquals(Edge.Relative.AFTER, right.getRelativePosition(new Point2d(0.5, 0.5)));
+        assertEquals(Edge.Relative.BEFORE, right.getRelativePosition(new Point2d(-0.5, 0.5)));
+    }
+
+    /**
+     * Buffering a square by half its odd size puts the corners of the buffered outline on the half grid.
+     */
+    @Test
+    void bufferedCorners() {
+        OutlineRectangle r = new OutlineRectangle(0, 0, 2, new WeightedPoint(1, 1, 2, 0));
+        BufferedOutline buffered = new BufferedOutline(new SimpleOutline(r), 1.5);
+
+        Set<Point2d> corners = new HashSet<>();
+        for(Edge e : buffered) {
+            corners.add(e.getOrigin());
+        }
+        Set<Point2d> expected = new HashSet<>();
+        expected.add(new Point2d(-1.5, -1.5));
+        expected.add(new Point2d(-1.5, 3.5));
+        expected.add(new Point2d(3.5, 3.5));
+        expected.add(new Point2d(3.5, -1.5));
+        assertEquals(expected, corners);
+    }
+
+    /**
+     * Create an edge from the first point to the second.
+     */
+    private static Edge segment(double x1, double y1, double x2, double y2) {
+        Point2d origin = new Point2d(x1, y1), target = new Point2d(x2, y2);
+        Edge e = new Edge(origin, Edge.Direction.getDirection(origin, target));
+        e.setNext(new Edge(target, e.getDirection()));
+        return e;
+    }
+}
@@ -0,0 +1,94 @@
+package agd.data.output;
+
+import agd.data.input.WeightedPoint;
+import agd.math.Point2d;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SolutionPointsTest {
+    /**
+     * Compare the metrics that are kept up to date with the metrics computed from scratch, while points are placed,
+     * moved and removed.
+     */
+    @Test
+    void matchesRecomputation() {
+        Random random = new Random(7);
+        WeightedPoint[] originals = new WeightedPoint[2000];
+        SolutionPoints points = new SolutionPoints();
+        for(int i = 0; i < originals.length; i++) {
+            originals[i] = new WeightedPoint(1000 * random.nextDouble(), 1000 * random.nextDouble(), 1 + random.nextInt(5), i);
+            points.add(null);
+        }
+
+        for(int k = 0; k < 20000; k++) {
+            int i = random.nextInt(originals.length);
+            WeightedPoint o = originals[i];
+            if(random.nextInt(10) == 0) {
+                points.set(i, null);
+            } else {
+                Point2d placement = new Point2d(o.x + 80 * random.nextGaussian(), o.y + 80 * random.nextGaussian());
+                points.set(i, HalfGridPoint.make(placement, o));
+            }
+
+            if(k % 1000 == 0) {
+                assertMetrics(points);
+            }
+        }
+        assertMetrics(points);
+
+        points.removeIf(p -> p != null && p.o.i % 2 == 0);
+        assertMetrics(points);
+
+        points.clear();
+        assertMetrics(points);
+    }
+
+    /**
+     * The largest displacement is found again after the point that had it has been moved back.
+     */
+    @Test
+    void maxDisplacementAfterMove() {
+        WeightedPoint a = new WeightedPoint(0, 0, 2, 0);
+        WeightedPoint b = new WeightedPoint(10, 0, 2, 1);
+        SolutionPoints points = new SolutionPoints();
+        points.add(HalfGridPoint.make(new Point2d(3, 4), a));
+        points.add(HalfGridPoint.make(new Point2d(10, 2), b));
+        assertEquals(5, points.getMaxDisplacement(), 1e-9);
+        assertEquals(29, points.getTotalError(), 1e-9);
+
+        points.set(0, HalfGridPoint.make(new Point2d(0, 0), a));
+        assertEquals(2, points.getMaxDisplacement(), 1e-9);
+        assertEquals(4, points.getTotalError(), 1e-9);
+
+        int[] histogram = points.getDisplacementHistogram();
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[2]);
+        assertEquals(0, histogram[5]);
+    }
+
+    private static void assertMetrics(SolutionPoints points) {
+        double total = 0, minimum = 0, max = 0;
+        int placed = 0;
+        int[] histogram = new int[SolutionPoints.HISTOGRAM_BUCKETS];
+        for(HalfGridPoint p : points) {
+            if(p != null) {
+                double distance = p.o.distance(p.point());
+                total += p.o.distance2(p.point());
+                minimum += p.o.distance2(p.o.c);
+                max = Math.max(max, distance);
+                histogram[(int) Math.min(distance, SolutionPoints.HISTOGRAM_BUCKETS - 1)]++;
+                placed++;
+            }
+        }
+
+        assertEquals(total, points.getTotalError(), 1e-9 * Math.max(1, total));
+        assertEquals(minimum, points.getMinimumError(), 1e-9 * Math.max(1, minimum));
+        assertEquals(max, points.getMaxDisplacement(), 1e-9);
+        assertArrayEquals(histogram, points.getDisplacementHistogram());
+        assertEquals(placed, points.getPlacedCount());
+    }
+}
@@ -0,0 +1,62 @@
+package agd.data.output;
+
+import agd.data.input.WeightedPoint;
+import agd.math.Point2d;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolutionValidatorTest {
+    /**
+     * Compare the sweep with the pairwise check, both sequentially and in parallel.
+     */
+    @Test
+    void matchesPairwiseCheck() {
+        Random random = new Random(42);
+        List<HalfGridPoint> points = new ArrayList<>();
+        for(int i = 0; i < 30000; i++) {
+            WeightedPoint p = new WeightedPoint(2000 * random.nextDouble(), 2000 * random.nextDouble(), 1 + random.nextInt(6), i);
+            points.add(HalfGridPoint.make(p, p));
+        }
+
+        Set<Integer> expected = new HashSet<>();
+        for(HalfGridPoint p : points) {
+            for(HalfGridPoint q : points) {
+                if(p != q && p.hasOverlap(q)) {
+                    expected.add(p.o.i);
+                }
+            }
+        }
+
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, SolutionValidator.findOverlapping(points, false));
+        assertEquals(expected, SolutionValidator.findOverlapping(points, true));
+        assertEquals(expected, SolutionValidator.findOverlapping(points, 7, true));
+    }
+
+    /**
+     * Squares that only touch do not overlap.
+     */
+    @Test
+    void touchingSquares() {
+        WeightedPoint a = new WeightedPoint(0, 0, 2, 0);
+        WeightedPoint b = new WeightedPoint(2, 0, 2, 1);
+        WeightedPoint c = new WeightedPoint(1, 2, 2, 2);
+        List<HalfGridPoint> points = new ArrayList<>();
+        points.add(HalfGridPoint.make(new Point2d(0, 0), a));
+        points.add(HalfGridPoint.make(new Point2d(2, 0), b));
+        points.add(HalfGridPoint.make(new Point2d(1, 2), c));
+        assertEquals(0, SolutionValidator.findOverlapping(points, false).size());
+
+        // Moving the last square down makes it overlap with both others.
+        points.set(2, HalfGridPoint.make(new Point2d(1, 1), c));
+        assertEquals(3, SolutionValidator.findOverlapping(points, false).size());
+    }
+}
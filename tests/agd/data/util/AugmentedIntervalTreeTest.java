@@ -0,0 +1,73 @@
+package agd.data.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AugmentedIntervalTreeTest {
+    /**
+     * Compare the overlapping intervals with a naive search over all the intervals.
+     */
+    @Test
+    void queriesMatchNaiveSearch() {
+        Random random = new Random(42);
+        AugmentedIntervalTree tree = new AugmentedIntervalTree();
+
+        // Each interval is stored as {start, end, id}.
+        List<int[]> intervals = new ArrayList<>();
+        for(int i = 0; i < 2000; i++) {
+            int start = random.nextInt(200);
+            int[] interval = {start, start + 1 + random.nextInt(10), i};
+            intervals.add(interval);
+            tree.insert(interval[0], interval[1], interval[2]);
+
+            // Delete a random interval now and then.
+            if(random.nextInt(3) == 0) {
+                int[] target = intervals.remove(random.nextInt(intervals.size()));
+                assertTrue(tree.delete(target[0], target[1], target[2]));
+            }
+
+            int s = random.nextInt(200), e = s + 1 + random.nextInt(10);
+            Set<Integer> expected = new HashSet<>();
+            for(int[] other : intervals) {
+                if(other[1] > s && other[0] < e) {
+                    expected.add(other[2]);
+                }
+            }
+            Set<Integer> found = new HashSet<>();
+            tree.forEachOverlapping(s, e, found::add);
+            assertEquals(expected, found);
+        }
+
+        assertEquals(intervals.size(), tree.size());
+        assertFalse(tree.delete(-1, 0, -1));
+    }
+
+    /**
+     * Intervals that are inserted in sorted order should not degrade the tree.
+     */
+    @Test
+    void sortedInsertions() {
+        AugmentedIntervalTree tree = new AugmentedIntervalTree();
+        for(int i = 0; i < 1000000; i++) {
+            tree.insert(i, i + 2, i);
+        }
+
+        Set<Integer> found = new HashSet<>();
+        tree.forEachOverlapping(999998, 1000000, found::add);
+        assertEquals(new HashSet<>(Arrays.asList(999997, 999998, 999999)), found);
+
+        found.clear();
+        tree.forEachOverlapping(1000001, 1000005, found::add);
+        assertTrue(found.isEmpty());
+    }
+}
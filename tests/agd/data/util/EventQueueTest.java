@@ -0,0 +1,54 @@
+package agd.data.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventQueueTest {
+    /**
+     * Compare the order with a stable sort, on coordinates that are negative, large and often equal.
+     */
+    @Test
+    void orderMatchesStableSort() {
+        Random random = new Random(42);
+        for(boolean descending : new boolean[]{false, true}) {
+            for(int range : new int[]{10, 100000, Integer.MAX_VALUE}) {
+                EventQueue queue = new EventQueue(4);
+
+                // Each event is stored as {x, y, point}.
+                List<int[]> events = new ArrayList<>();
+                for(int i = 0; i < 3000; i++) {
+                    int[] event = {random.nextInt(range) - range / 2, random.nextInt(range) - range / 2, i};
+                    events.add(event);
+                    queue.add(event[0], event[1], event[2]);
+                }
+
+                Comparator<int[]> order = Comparator.<int[]>comparingInt(e -> e[0]).thenComparingInt(e -> e[1]);
+                events.sort(descending ? order.reversed() : order);
+                queue.sort(descending);
+
+                assertEquals(events.size(), queue.size());
+                for(int k = 0; k < events.size(); k++) {
+                    assertEquals(events.get(k)[0], queue.getX(k));
+                    assertEquals(events.get(k)[1], queue.getY(k));
+                    assertEquals(events.get(k)[2], queue.getPoint(k));
+                }
+            }
+        }
+    }
+
+    /**
+     * An empty queue can be sorted.
+     */
+    @Test
+    void empty() {
+        EventQueue queue = new EventQueue(0);
+        queue.sort(false);
+        assertEquals(0, queue.size());
+    }
+}
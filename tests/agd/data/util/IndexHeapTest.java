@@ -0,0 +1,47 @@
+package agd.data.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexHeapTest {
+    /**
+     * The indices come out in the same order as from a priority queue on the keys, also for equal keys and for
+     * indices that are added again after they have been removed.
+     */
+    @Test
+    void matchesPriorityQueue() {
+        Random random = new Random(42);
+        double[] keys = new double[5000];
+        for(int i = 0; i < keys.length; i++) {
+            // Only a few distinct keys, such that there are many ties.
+            keys[i] = random.nextInt(50) - 25;
+        }
+
+        IndexHeap heap = new IndexHeap(keys);
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Comparator.comparingDouble(i -> keys[i]));
+        for(int i = 0; i < keys.length; i++) {
+            heap.add(i);
+            queue.add(i);
+        }
+
+        while(!queue.isEmpty()) {
+            assertEquals(queue.size(), heap.size());
+            assertEquals((int) queue.peek(), heap.peek());
+            int i = heap.poll();
+            assertEquals((int) queue.poll(), i);
+
+            // Put some of the indices back, as the solvers do with points they failed to place.
+            if(random.nextInt(4) == 0) {
+                heap.add(i);
+                queue.add(i);
+            }
+        }
+        assertTrue(heap.isEmpty());
+    }
+}
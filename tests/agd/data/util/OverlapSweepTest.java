@@ -0,0 +1,85 @@
+package agd.data.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OverlapSweepTest {
+    private static final int N = 2000;
+
+    private final int[] left = new int[N], right = new int[N], bottom = new int[N], top = new int[N];
+
+    /**
+     * Create squares of which many overlap, many touch and some are identical.
+     */
+    OverlapSweepTest() {
+        Random random = new Random(42);
+        for(int i = 0; i < N; i++) {
+            int w = 1 + random.nextInt(6);
+            left[i] = random.nextInt(300);
+            bottom[i] = random.nextInt(300);
+            right[i] = left[i] + w;
+            top[i] = bottom[i] + w;
+        }
+    }
+
+    /**
+     * Every overlapping pair is reported exactly once, and touching squares are not reported.
+     */
+    @Test
+    void pairsMatchBruteForce() {
+        Set<Long> expected = new HashSet<>();
+        for(int a = 0; a < N; a++) {
+            for(int b = a + 1; b < N; b++) {
+                if(overlaps(a, b)) {
+                    expected.add(key(a, b));
+                }
+            }
+        }
+
+        Set<Long> found = new HashSet<>();
+        int[] ids = IntStream.range(0, N).toArray();
+        OverlapSweep.forEachOverlappingPair(ids, left, right, bottom, top, (a, b) -> {
+            if(!found.add(key(a, b))) {
+                throw new AssertionError("The pair " + a + ", " + b + " is reported twice.");
+            }
+        });
+        assertEquals(expected, found);
+    }
+
+    /**
+     * The marked squares are the same for any number of slabs, sequential or in parallel.
+     */
+    @Test
+    void overlappingMatchesBruteForce() {
+        boolean[] expected = new boolean[N];
+        for(int a = 0; a < N; a++) {
+            for(int b = a + 1; b < N; b++) {
+                if(overlaps(a, b)) {
+                    expected[a] = expected[b] = true;
+                }
+            }
+        }
+
+        assertArrayEquals(expected, OverlapSweep.findOverlapping(left, right, bottom, top, false));
+        assertArrayEquals(expected, OverlapSweep.findOverlapping(left, right, bottom, top, true));
+        for(int slabs : new int[] {2, 7, 64}) {
+            assertArrayEquals(expected, OverlapSweep.findOverlapping(left, right, bottom, top, slabs, false));
+            assertArrayEquals(expected, OverlapSweep.findOverlapping(left, right, bottom, top, slabs, true));
+        }
+    }
+
+    private boolean overlaps(int a, int b) {
+        return left[a] < right[b] && left[b] < right[a] && bottom[a] < top[b] && bottom[b] < top[a];
+    }
+
+    private static long key(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
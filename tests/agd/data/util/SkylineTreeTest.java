@@ -0,0 +1,65 @@
+package agd.data.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SkylineTreeTest {
+    /**
+     * Compare the maxima with an array that holds the value of every unit interval.
+     */
+    @Test
+    void queriesMatchNaiveSkyline() {
+        Random random = new Random(42);
+        for(int k = 0; k < 20; k++) {
+            // The ranges start and end at a random subset of the coordinates, some of which are repeated.
+            int[] coordinates = new int[1 + random.nextInt(60)];
+            for(int i = 0; i < coordinates.length; i++) {
+                coordinates[i] = random.nextInt(100);
+            }
+            int[] sorted = Arrays.stream(coordinates).sorted().distinct().toArray();
+
+            SkylineTree tree = new SkylineTree(coordinates);
+            int[] values = new int[100];
+            Arrays.fill(values, Integer.MIN_VALUE);
+            for(int i = 0; i < 500; i++) {
+                int a = sorted[random.nextInt(sorted.length)];
+                int b = sorted[random.nextInt(sorted.length)];
+                int start = Math.min(a, b), end = Math.max(a, b);
+
+                if(random.nextBoolean()) {
+                    int value = random.nextInt(1000) - 500;
+                    tree.raise(start, end, value);
+                    for(int y = start; y < end; y++) {
+                        values[y] = Math.max(values[y], value);
+                    }
+                } else {
+                    int expected = Integer.MIN_VALUE;
+                    for(int y = start; y < end; y++) {
+                        expected = Math.max(expected, values[y]);
+                    }
+                    assertEquals(expected, tree.max(start, end));
+                }
+            }
+        }
+    }
+
+    /**
+     * Raising a range to its maximum or beyond assigns the value, as a sweep that stacks squares does.
+     */
+    @Test
+    void stackedSquares() {
+        SkylineTree tree = new SkylineTree(new int[]{0, 2, 3, 5, 6});
+        assertEquals(Integer.MIN_VALUE, tree.max(0, 6));
+
+        tree.raise(0, 3, 4);
+        tree.raise(2, 6, tree.max(2, 6) + 2);
+        assertEquals(4, tree.max(0, 2));
+        assertEquals(6, tree.max(2, 3));
+        assertEquals(6, tree.max(0, 6));
+        assertEquals(Integer.MIN_VALUE, tree.max(2, 2));
+    }
+}
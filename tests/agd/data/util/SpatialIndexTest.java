@@ -0,0 +1,122 @@
+package agd.data.util;
+
+import agd.data.input.WeightedPoint;
+import agd.data.outlines.OutlineRectangle;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialIndexTest {
+    private static WeightedPoint p = new WeightedPoint(0, 0, 0, 0);
+
+    @Test
+    void quadTreeMatchesNaiveSearch() {
+        assertMatchesNaiveSearch(new QuadTree<>(new Rectangle(0, 0, 64, 64), 2));
+    }
+
+    @Test
+    void gridMatchesNaiveSearch() {
+        assertMatchesNaiveSearch(new UniformGrid<>(4));
+    }
+
+    @Test
+    void quadTreeBulkLoadMatchesNaiveSearch() {
+        assertMatchesNaiveSearch(new QuadTree<>(new Rectangle(0, 0, 64, 64), 2), true);
+    }
+
+    @Test
+    void gridBulkLoadMatchesNaiveSearch() {
+        assertMatchesNaiveSearch(new UniformGrid<>(4), true);
+    }
+
+    private static void assertMatchesNaiveSearch(SpatialIndex<OutlineRectangle> tree) {
+        assertMatchesNaiveSearch(tree, false);
+    }
+
+    /**
+     * Compare the results of the index with a naive search over all the rectangles.
+     *
+     * @param tree An empty spatial index.
+     * @param bulk Whether the rectangles should be inserted all at once.
+     */
+    private static void assertMatchesNaiveSearch(SpatialIndex<OutlineRectangle> tree, boolean bulk) {
+        Random random = new Random(42);
+        List<OutlineRectangle> rectangles = new ArrayList<>();
+
+        for(int i = 0; i < 500; i++) {
+            // Some of the rectangles are partially outside of the bounding box.
+            OutlineRectangle r = new OutlineRectangle(random.nextInt(80) - 8, random.nextInt(80) - 8, 1 + random.nextInt(6), p, random.nextBoolean());
+
+            // Rectangles with the same coordinates are equal, which would make deletion ambiguous.
+            if(!rectangles.contains(r)) {
+                rectangles.add(r);
+                if(!bulk) {
+                    tree.insert(r);
+                }
+            }
+        }
+        if(bulk) {
+            // Insert half of them at once into the empty index, and the other half at once into the filled index.
+            tree.insertAll(rectangles.subList(0, rectangles.size() / 2));
+            tree.insertAll(rectangles.subList(rectangles.size() / 2, rectangles.size()));
+        }
+
+        // Delete every third rectangle again.
+        for(int i = 0; i < rectangles.size(); i += 3) {
+            tree.delete(rectangles.remove(i));
+        }
+        assertEquals(rectangles.size(), tree.size());
+
+        int[] buffer = new int[rectangles.size()];
+        QueryBuffer<OutlineRectangle> reused = new QueryBuffer<>();
+        for(int i = 0; i < 500; i++) {
+            OutlineRectangle area = new OutlineRectangle(random.nextInt(70) - 3, random.nextInt(70) - 3, 1 + random.nextInt(8), p, random.nextBoolean());
+
+            List<OutlineRectangle> expected = new ArrayList<>();
+            for(OutlineRectangle r : rectangles) {
+                if(r.intersects(area)) {
+                    expected.add(r);
+                }
+            }
+
+            assertEquals(new HashSet<>(expected), new HashSet<>(tree.query(area)));
+            assertEquals(new HashSet<>(expected), new HashSet<>(reused.query(tree, area)));
+            assertEquals(expected.isEmpty(), !tree.anyIntersecting(area));
+
+            int found = tree.query(area, buffer);
+            assertEquals(expected.size(), found);
+            for(int j = 0; j < found; j++) {
+                assertTrue(expected.contains(tree.get(buffer[j])));
+            }
+        }
+    }
+
+    /**
+     * Touching rectangles only intersect when one of them includes its borders.
+     */
+    @Test
+    void touchingRectangles() {
+        assertTouching(new QuadTree<>(new Rectangle(0, 0, 16, 16)));
+        assertTouching(new UniformGrid<>(2));
+    }
+
+    private static void assertTouching(SpatialIndex<OutlineRectangle> tree) {
+        tree.insert(new OutlineRectangle(2, 2, 2, p, false));
+
+        assertFalse(tree.anyIntersecting(new OutlineRectangle(4, 2, 2, p, false)));
+        assertTrue(tree.anyIntersecting(new OutlineRectangle(4, 2, 2, p, true)));
+        assertTrue(tree.anyIntersecting(new OutlineRectangle(3, 3, 2, p, false)));
+
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertFalse(tree.anyIntersecting(new OutlineRectangle(3, 3, 2, p, false)));
+    }
+}
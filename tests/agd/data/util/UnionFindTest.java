@@ -0,0 +1,68 @@
+package agd.data.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnionFindTest {
+    /**
+     * Compare the sets with a naive labelling, in which every union relabels one of the sets.
+     */
+    @Test
+    void matchesNaiveLabelling() {
+        Random random = new Random(42);
+        int n = 500;
+        UnionFind sets = new UnionFind(n);
+        int[] label = new int[n];
+        for(int i = 0; i < n; i++) {
+            label[i] = i;
+        }
+
+        for(int k = 0; k < 300; k++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            assertEquals(label[a] != label[b], sets.union(a, b));
+
+            int from = label[b];
+            for(int i = 0; i < n; i++) {
+                if(label[i] == from) {
+                    label[i] = label[a];
+                }
+            }
+        }
+
+        int count = 0;
+        for(int i = 0; i < n; i++) {
+            if(label[i] == i) count++;
+            int size = 0;
+            for(int j = 0; j < n; j++) {
+                assertEquals(label[i] == label[j], sets.connected(i, j));
+                if(label[i] == label[j]) size++;
+            }
+            assertEquals(size, sets.size(i));
+        }
+        assertEquals(count, sets.count());
+    }
+
+    /**
+     * The sets are listed in the order of their smallest element, with their elements in increasing order.
+     */
+    @Test
+    void sets() {
+        UnionFind sets = new UnionFind(6);
+        sets.union(4, 1);
+        sets.union(5, 2);
+        sets.union(2, 4);
+        assertFalse(sets.union(1, 5));
+        assertTrue(sets.union(0, 3));
+
+        int[][] result = sets.sets();
+        assertEquals(2, result.length);
+        assertArrayEquals(new int[] {0, 3}, result[0]);
+        assertArrayEquals(new int[] {1, 2, 4, 5}, result[1]);
+    }
+}
@@ -0,0 +1,33 @@
+package agd.solver;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.ProblemInstance;
+import agd.data.output.ProblemSolution;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentSolverTest {
+    /**
+     * The groups are solved separately, yet the combined solution has no overlap.
+     *
+     * Without a margin the outlines of neighbouring groups often grow into each other, such that groups have to be
+     * merged and solved again.
+     */
+    @Test
+    void validSolutions() {
+        ProblemInstance instance = new InstanceGenerator(5, 0.05).generate(1, 20000, InstanceGenerator.Distribution.CLUSTERED, 42);
+        for(int margin : new int[] {0, 2}) {
+            SolverConfig config = SolverConfig.DEFAULT
+                    .withKind(SolverConfig.SolverKind.SimpleOutlines)
+                    .withValidation(false)
+                    .withComponents(true, margin);
+            assertTrue(Solvers.create(config) instanceof ComponentSolver);
+
+            ProblemSolution solution = Solvers.solve(instance, config);
+            assertEquals(0, solution.getInvalidPoints().size());
+            assertEquals(instance.size(), solution.getPoints().size());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package agd.solver;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.ProblemInstance;
+import agd.data.output.HalfGridPoint;
+import agd.data.output.ProblemSolution;
+import agd.math.Point2d;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DualSweepTest {
+    /**
+     * The squares of different slabs that end up overlapping are placed again, for any number of slabs, cut along or
+     * across the direction of the sweep.
+     */
+    @Test
+    void slabsAreReconciled() {
+        for(InstanceGenerator.Distribution distribution : InstanceGenerator.Distribution.values()) {
+            ProblemInstance instance = new InstanceGenerator(5, 0.5).generate(1, 3000, distribution, 42);
+            for(int slabs : new int[]{1, 2, 3, 8, 5000}) {
+                for(boolean across : new boolean[]{false, true}) {
+                    SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.DualSweep).withSlabs(slabs).withSlabsAcross(across);
+                    ProblemSolution solution = Solvers.solve(instance, config.withValidation(false));
+                    assertEquals(instance.size(), solution.getPoints().size());
+                    assertEquals(0, solution.getInvalidPoints().size());
+                }
+            }
+        }
+    }
+
+    /**
+     * Of two squares that overlap across the boundary of two slabs, the one of the later slab is removed and placed
+     * again, while the squares away from the boundary keep their place.
+     */
+    @Test
+    void laterSlabIsPlacedAgain() {
+        // The first slab holds the two left points and the second slab the two right points, of which the squares of the
+        // middle two overlap at their reference points.
+        ProblemInstance instance = ProblemInstance.readInstance(new Scanner(
+                "1 -100 104 0 4 4  -98 2 4  2 2 4  4 2 4  102 2 4"
+        ));
+        SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.DualSweep).withSlabs(2);
+        ProblemSolution solution = Solvers.solve(instance, config.withValidation(false));
+        assertEquals(0, solution.getInvalidPoints().size());
+
+        List<HalfGridPoint> points = solution.getPoints();
+        assertEquals(new Point2d(-98, 2), points.get(0).point());
+        assertEquals(new Point2d(2, 2), points.get(1).point());
+        assertEquals(new Point2d(6, 2), points.get(2).point());
+        assertEquals(new Point2d(102, 2), points.get(3).point());
+    }
+
+    /**
+     * Horizontal slabs are swept side by side, such that only the squares that reach over the boundary between them
+     * are placed again.
+     */
+    @Test
+    void slabsAcrossArePlacedAgain() {
+        // The first slab holds the two bottom points and the second slab the two top points, of which the squares of
+        // the left two overlap at their reference points.
+        ProblemInstance instance = ProblemInstance.readInstance(new Scanner(
+                "1 0 104 0 8 4  2 2 4  102 2 4  2 4 4  102 10 4"
+        ));
+        SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.DualSweep).withSlabs(2).withSlabsAcross(true);
+        ProblemSolution solution = Solvers.solve(instance, config.withValidation(false));
+        assertEquals(0, solution.getInvalidPoints().size());
+
+        List<HalfGridPoint> points = solution.getPoints();
+        assertEquals(new Point2d(2, 2), points.get(0).point());
+        assertEquals(new Point2d(102, 2), points.get(1).point());
+        assertEquals(new Point2d(6, 4), points.get(2).point());
+        assertEquals(new Point2d(102, 10), points.get(3).point());
+    }
+}
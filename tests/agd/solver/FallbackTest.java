@@ -0,0 +1,117 @@
+package agd.solver;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.ProblemInstance;
+import agd.data.output.HalfGridPoint;
+import agd.data.output.ProblemSolution;
+import agd.data.output.SolutionValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FallbackTest {
+    private final ProblemInstance instance = new InstanceGenerator(5, 0.2).generate(1, 3000, InstanceGenerator.Distribution.CLUSTERED, 42);
+
+    /**
+     * Without any time, the fallback places all the points.
+     */
+    @Test
+    void noBudget() {
+        for(SolverConfig.SolverKind kind : SolverConfig.SolverKind.values()) {
+            for(SolverConfig config : new SolverConfig[] {
+                    SolverConfig.DEFAULT.withKind(kind).withValidation(false),
+                    SolverConfig.DEFAULT.withKind(kind).withValidation(false).withComponents(true, 2),
+                    SolverConfig.DEFAULT.withKind(kind).withValidation(false).withPortfolio(true)
+            }) {
+                ProblemSolution solution = Solvers.solve(instance, config, Duration.ZERO);
+                assertFalse(solution.isFinished());
+                assertEquals(0, solution.getInvalidPoints().size());
+            }
+        }
+    }
+
+    /**
+     * A solver that is stopped halfway leaves a valid partial solution, which the fallback completes.
+     */
+    @Test
+    void stoppedHalfway() {
+        ProblemInstance large = new InstanceGenerator(5, 0.1).generate(1, 50000, InstanceGenerator.Distribution.UNIFORM, 42);
+        SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.SimpleOutlines).withValidation(false);
+        for(SolverConfig c : new SolverConfig[] {config, config.withComponents(true, 0)}) {
+            ProblemSolution solution = Solvers.solve(large, c, Duration.ofMillis(50));
+            assertEquals(0, solution.getInvalidPoints().size());
+        }
+    }
+
+    /**
+     * The sweeps that are stopped halfway keep the squares they have placed, also when they sweep in another direction
+     * or in slabs.
+     */
+    @Test
+    void sweepsKeepPartialWork() {
+        for(SolverConfig.SolverKind kind : new SolverConfig.SolverKind[] {SolverConfig.SolverKind.SimpleSweep, SolverConfig.SolverKind.DualSweep}) {
+            for(SolverConfig.Direction direction : SolverConfig.Direction.values()) {
+                AbstractSolver solver = Solvers.create(SolverConfig.DEFAULT.withKind(kind).withDirection(direction).withValidation(false));
+                AtomicInteger checks = new AtomicInteger();
+                solver.setCancellationToken(new CancellationToken() {
+                    @Override
+                    public boolean isCancelled() {
+                        return checks.incrementAndGet() > instance.size() / 2;
+                    }
+                });
+
+                ArrayList<HalfGridPoint> points = new ArrayList<>();
+                assertThrows(CancellationException.class, () -> solver.solve(instance, points));
+                assertFalse(points.isEmpty());
+                assertTrue(points.size() < instance.size());
+                assertTrue(SolutionValidator.findOverlapping(points, false).isEmpty());
+            }
+        }
+    }
+
+    /**
+     * With enough time, the solution is the same as without a budget.
+     */
+    @Test
+    void enoughBudget() {
+        SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.SimpleOutlines).withValidation(false);
+        ProblemSolution solution = Solvers.solve(instance, config, Duration.ofMinutes(5));
+        assertTrue(solution.isFinished());
+        assertEquals(Solvers.solve(instance, config).getTotalError(), solution.getTotalError(), 1e-9);
+    }
+
+    /**
+     * The placements that are there are kept, and the missing points are added without overlap.
+     */
+    @Test
+    void completesPartialSolution() {
+        SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.SimpleOutlines).withValidation(false);
+        List<HalfGridPoint> solution = Solvers.solve(instance, config).getPoints();
+        ArrayList<HalfGridPoint> points = new ArrayList<>();
+        for(HalfGridPoint p : solution) {
+            points.add(p.o.i % 3 == 0 ? null : p);
+        }
+
+        Fallback.complete(instance, points);
+        assertEquals(instance.size(), points.size());
+        for(int i = 0; i < points.size(); i++) {
+            assertEquals(i, points.get(i).o.i);
+        }
+        for(HalfGridPoint p : solution) {
+            if(p.o.i % 3 != 0) {
+                assertSame(p, points.get(p.o.i));
+            }
+        }
+        assertTrue(SolutionValidator.findOverlapping(points, false).isEmpty());
+    }
+}
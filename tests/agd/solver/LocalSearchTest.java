@@ -0,0 +1,77 @@
+package agd.solver;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.ProblemInstance;
+import agd.data.output.HalfGridPoint;
+import agd.data.output.ProblemSolution;
+import agd.data.output.SolutionPoints;
+import agd.data.output.SolutionValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalSearchTest {
+    private final ProblemInstance instance = new InstanceGenerator(5, 0.2).generate(1, 3000, InstanceGenerator.Distribution.CLUSTERED, 42);
+
+    /**
+     * The search never makes a solution worse or invalid.
+     */
+    @Test
+    void improvesSolvers() {
+        for(SolverConfig.SolverKind kind : SolverConfig.SolverKind.values()) {
+            SolverConfig config = SolverConfig.DEFAULT.withKind(kind).withValidation(false);
+            double error = Solvers.solve(instance, config).getTotalError();
+
+            ProblemSolution solution = Solvers.solve(instance, config.withImprovement(Duration.ofMinutes(5)));
+            assertEquals(0, solution.getInvalidPoints().size());
+            assertTrue(solution.getTotalError() <= error);
+        }
+    }
+
+    /**
+     * Points that have been pushed away from their reference points are brought back.
+     */
+    @Test
+    void improvesFallback() {
+        ArrayList<HalfGridPoint> points = new ArrayList<>();
+        Fallback.complete(instance, points);
+        SolutionPoints before = new SolutionPoints();
+        before.addAll(points);
+
+        SolverConfig config = SolverConfig.DEFAULT.withValidation(false);
+        LocalSearch search = new LocalSearch(config, Solvers.create(config));
+        LocalSearch.Report report = search.improve(instance, points, new CancellationToken());
+
+        SolutionPoints after = new SolutionPoints();
+        after.addAll(points);
+        assertEquals(before.getTotalError(), report.initialError, 1e-6);
+        assertEquals(after.getTotalError(), report.finalError, 1e-6);
+        assertTrue(report.finalError < report.initialError);
+        assertTrue(report.moves > 0);
+        assertTrue(SolutionValidator.findOverlapping(points, false).isEmpty());
+        for(int i = 0; i < points.size(); i++) {
+            assertEquals(i, points.get(i).o.i);
+        }
+    }
+
+    /**
+     * A search that has been cancelled leaves the solution as it is.
+     */
+    @Test
+    void cancelled() {
+        SolverConfig config = SolverConfig.DEFAULT.withValidation(false);
+        List<HalfGridPoint> solution = Solvers.solve(instance, config).getPoints();
+        ArrayList<HalfGridPoint> points = new ArrayList<>(solution);
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        LocalSearch.Report report = new LocalSearch(config, Solvers.create(config)).improve(instance, points, token);
+        assertEquals(0, report.moves);
+        assertEquals(solution, points);
+    }
+}
@@ -0,0 +1,110 @@
+package agd.solver;
+
+import agd.data.input.InstanceGenerator;
+import agd.data.input.ProblemInstance;
+import agd.data.outlines.AbstractOutline;
+import agd.data.output.HalfGridPoint;
+import agd.data.output.ProblemSolution;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PortfolioSolverTest {
+    /**
+     * The portfolio finds the solution of the best sorting option, even though the others are cancelled early.
+     */
+    @Test
+    void keepsBestSolution() {
+        ProblemInstance instance = new InstanceGenerator(5, 0.2).generate(1, 2000, InstanceGenerator.Distribution.CLUSTERED, 42);
+        SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.SimpleOutlines).withValidation(false);
+        List<SolverConfig> candidates = PortfolioSolver.sortingCandidates(config);
+
+        double best = Double.POSITIVE_INFINITY;
+        for(SolverConfig candidate : candidates) {
+            best = Math.min(best, Solvers.solve(instance, candidate).getTotalError());
+        }
+
+        for(int parallelism : new int[] {1, 3}) {
+            ProblemSolution solution = new ProblemSolution(instance, new PortfolioSolver(config, candidates, parallelism));
+            assertEquals(best, solution.getTotalError(), 1e-6);
+            assertEquals(0, solution.getInvalidPoints().size());
+        }
+    }
+
+    /**
+     * The candidates keep their outlines rather than printing them, and the portfolio reports only those of the winner.
+     */
+    @Test
+    void reportsOutlinesOfWinner() {
+        ProblemInstance instance = new InstanceGenerator(5, 0.2).generate(1, 1000, InstanceGenerator.Distribution.CLUSTERED, 42);
+        SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.ComplexOutlines).withValidation(false);
+        List<SolverConfig> candidates = PortfolioSolver.sortingCandidates(config);
+
+        double best = Double.POSITIVE_INFINITY;
+        Set<AbstractOutline> winner = null;
+        for(SolverConfig candidate : candidates) {
+            AbstractSolver solver = Solvers.create(candidate.withQuiet(true));
+            ProblemSolution solution = new ProblemSolution(instance, solver);
+            assertNotNull(solver.getOutlines());
+            if(solution.getTotalError() < best) {
+                best = solution.getTotalError();
+                winner = solver.getOutlines();
+            }
+        }
+
+        AbstractSolver loud = Solvers.create(config);
+        new ProblemSolution(instance, loud);
+        assertNull(loud.getOutlines());
+
+        AbstractSolver portfolio = new PortfolioSolver(config.withQuiet(true), candidates, 1);
+        new ProblemSolution(instance, portfolio);
+        assertNotNull(portfolio.getOutlines());
+        assertEquals(winner.size(), portfolio.getOutlines().size());
+    }
+
+    /**
+     * Every sweep direction gives a valid solution, of which the best sweep keeps the one with the lowest error.
+     */
+    @Test
+    void keepsBestSweep() {
+        for(InstanceGenerator.Distribution distribution : InstanceGenerator.Distribution.values()) {
+            ProblemInstance instance = new InstanceGenerator(5, 0.5).generate(1, 2000, distribution, 42);
+            SolverConfig config = SolverConfig.DEFAULT.withKind(SolverConfig.SolverKind.BestSweep).withValidation(false);
+
+            double best = Double.POSITIVE_INFINITY;
+            for(SolverConfig candidate : PortfolioSolver.sweepCandidates(config)) {
+                ProblemSolution solution = Solvers.solve(instance, candidate);
+                assertEquals(instance.size(), solution.getPoints().size());
+                assertEquals(0, solution.getInvalidPoints().size());
+                best = Math.min(best, solution.getTotalError());
+            }
+
+            ProblemSolution solution = Solvers.solve(instance, config);
+            assertEquals(best, solution.getTotalError(), 1e-6);
+            assertEquals(0, solution.getInvalidPoints().size());
+        }
+    }
+
+    /**
+     * A solver stops once its token has been cancelled.
+     */
+    @Test
+    void cancelledSolverStops() {
+        ProblemInstance instance = new InstanceGenerator(5, 0.2).generate(1, 500, InstanceGenerator.Distribution.UNIFORM, 42);
+        for(SolverConfig.SolverKind kind : SolverConfig.SolverKind.values()) {
+            AbstractSolver solver = Solvers.create(SolverConfig.DEFAULT.withKind(kind).withValidation(false));
+            CancellationToken token = new CancellationToken();
+            token.cancel();
+            solver.setCancellationToken(token);
+            assertThrows(CancellationException.class, () -> solver.solve(instance, new ArrayList<HalfGridPoint>()));
+        }
+    }
+}